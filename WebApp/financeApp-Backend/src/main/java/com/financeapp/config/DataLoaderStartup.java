@@ -1,29 +1,83 @@
 package com.financeapp.config;
 
 import com.financeapp.service.StockSymbolLoaderService;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.ApplicationArguments;
-import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Symbol master loading: the startup load (run by StartupWarmup on a background thread) and
+ * the daily sync
+ */
 @Component
-public class DataLoaderStartup implements ApplicationRunner {
+public class DataLoaderStartup {
     
     @Autowired
     private StockSymbolLoaderService stockSymbolLoaderService;
     
-    @Override
-    public void run(ApplicationArguments args) throws Exception {
+    // Runs the table check after a snapshot load; started at most once, even when the load is retried
+    private final ExecutorService syncCheck = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "symbol-sync-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean syncCheckStarted = new AtomicBoolean();
+    
+    public void loadStockSymbols() {
         System.out.println("=== Starting Stock Symbol Data Loading ===");
         long startTime = System.currentTimeMillis();
         
-        stockSymbolLoaderService.loadStockSymbolsFromCSV();
+        // The snapshot is only trusted when it was built from the current symbol file
+        String source = "snapshot";
+        if (stockSymbolLoaderService.loadFromSnapshot()) {
+            // The table is checked against the file off the startup path; a wiped or stale
+            // table is resynced there and the cache and snapshot rebuilt from it
+            if (syncCheckStarted.compareAndSet(false, true)) {
+                syncCheck.execute(this::checkSymbolTable);
+            }
+        } else {
+            source = "database";
+            stockSymbolLoaderService.loadStockSymbolsFromCSV();
+            stockSymbolLoaderService.writeSnapshot();
+        }
+        
+        stockSymbolLoaderService.loadResolvedYahooSymbols();
         
         long endTime = System.currentTimeMillis();
-        System.out.println("=== Stock Symbol Data Loading Completed in " + (endTime - startTime) + "ms ===");
+        System.out.println("=== Stock Symbol Data Loading Completed from " + source + " in " + (endTime - startTime) + "ms ===");
         
         // Print cache stats
         var stats = stockSymbolLoaderService.getCacheStats();
         System.out.println("Cache Stats: " + stats);
     }
+    
+    private void checkSymbolTable() {
+        try {
+            syncStockSymbols();
+        } catch (Exception e) {
+            // Let a later load try again
+            syncCheckStarted.set(false);
+            System.err.println("Symbol table check after snapshot load failed: " + e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        syncCheck.shutdownNow();
+    }
+    
+    /**
+     * Daily check of the symbol file; only a changed checksum leads to any database writes
+     */
+    @Scheduled(cron = "${investment.stock-symbols.sync-cron:0 30 7 * * *}", zone = "Asia/Kolkata")
+    public void syncStockSymbols() {
+        if (stockSymbolLoaderService.syncStockSymbols()) {
+            stockSymbolLoaderService.writeSnapshot();
+        }
+    }
 }
\ No newline at end of file
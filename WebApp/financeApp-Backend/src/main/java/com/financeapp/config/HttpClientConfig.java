@@ -0,0 +1,112 @@
+package com.financeapp.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Shared HTTP client for outbound market-data calls (Yahoo Finance, AMFI).
+ * Connections are pooled and kept alive per host so a refresh cycle reuses TLS sessions
+ * instead of handshaking per symbol; every request has connect, pool-wait and read timeouts,
+ * and gzip/deflate responses are decoded transparently.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${investment.http-client.max-connections:50}")
+    private int maxConnections;
+
+    // Keep at least investment.price-fetch.max-in-flight so fetch threads never wait on the pool
+    @Value("${investment.http-client.max-connections-per-route:10}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${investment.http-client.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${investment.http-client.read-timeout-ms:8000}")
+    private long readTimeoutMs;
+
+    // How long a request may wait for a free pooled connection
+    @Value("${investment.http-client.connection-request-timeout-ms:2000}")
+    private long connectionRequestTimeoutMs;
+
+    @Value("${investment.http-client.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Value("${investment.http-client.time-to-live-seconds:300}")
+    private long timeToLiveSeconds;
+
+    // Use the JDK client with HTTP/2 instead of the pooled HTTP/1.1 client
+    @Value("${investment.http-client.http2:false}")
+    private boolean http2;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager marketDataConnectionManager() {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setTimeToLive(TimeValue.ofSeconds(timeToLiveSeconds))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient marketDataHttpClient(PoolingHttpClientConnectionManager marketDataConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+
+        // Content compression (Accept-Encoding: gzip, deflate plus decoding) is on by default
+        return HttpClients.custom()
+                .setConnectionManager(marketDataConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate marketDataRestTemplate(CloseableHttpClient marketDataHttpClient) {
+        ClientHttpRequestFactory requestFactory;
+        if (http2) {
+            // The JDK client negotiates HTTP/2 over TLS and multiplexes on one connection per host,
+            // but does not decode gzip and keeps its own pool (not included in the pool metrics)
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+            JdkClientHttpRequestFactory jdkRequestFactory = new JdkClientHttpRequestFactory(client);
+            jdkRequestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+            requestFactory = jdkRequestFactory;
+        } else {
+            requestFactory = new HttpComponentsClientHttpRequestFactory(marketDataHttpClient);
+        }
+
+        System.out.println("Market data HTTP client: " + (http2 ? "JDK HTTP/2" : "pooled HTTP/1.1")
+                + ", connect timeout " + connectTimeoutMs + "ms, read timeout " + readTimeoutMs + "ms");
+        return new RestTemplate(requestFactory);
+    }
+}
@@ -0,0 +1,40 @@
+package com.financeapp.config;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the market-data connection pool, overall and per host
+ */
+@Component
+public class HttpClientPoolMetrics {
+
+    @Autowired
+    private PoolingHttpClientConnectionManager marketDataConnectionManager;
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = toMap(marketDataConnectionManager.getTotalStats());
+
+        Map<String, Object> routes = new LinkedHashMap<>();
+        for (HttpRoute route : marketDataConnectionManager.getRoutes()) {
+            routes.put(route.getTargetHost().getHostName(), toMap(marketDataConnectionManager.getStats(route)));
+        }
+        stats.put("routes", routes);
+        return stats;
+    }
+
+    private Map<String, Object> toMap(PoolStats poolStats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("leased", poolStats.getLeased());
+        map.put("available", poolStats.getAvailable());
+        map.put("pending", poolStats.getPending());
+        map.put("max", poolStats.getMax());
+        return map;
+    }
+}
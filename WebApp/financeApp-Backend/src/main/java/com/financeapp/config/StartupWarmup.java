@@ -0,0 +1,206 @@
+package com.financeapp.config;
+
+import com.financeapp.service.DayChangeService;
+import com.financeapp.service.MutualFundService;
+import com.financeapp.service.StockSymbolLoaderService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup warm-up of the in-memory caches.
+ * Once the application has started, the symbol master (with its search index), the AMFI NAV
+ * data and the day-change holdings are loaded in parallel on a small warm-up pool (one thread
+ * per task), so startup no longer waits for them. Until every task has succeeded, the "startupWarmup"
+ * health component reports OUT_OF_SERVICE. It is part of the readiness group, so
+ * /actuator/health/readiness keeps traffic away until the caches are in place. A failed task
+ * is scheduled again on the pool after warmup.retry-ms until it succeeds, and readiness waits
+ * for it; if the warm-up has not finished after warmup.timeout-ms, that is logged. The pool is
+ * shut down once every task has succeeded, or when the application stops.
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner, HealthIndicator {
+
+    @Autowired
+    private DataLoaderStartup dataLoaderStartup;
+
+    @Autowired
+    private StockSymbolLoaderService stockSymbolLoaderService;
+
+    @Autowired
+    private MutualFundService mutualFundService;
+
+    @Autowired
+    private DayChangeService dayChangeService;
+
+    // Warm-up time after which a still-unready instance is logged; also bounds the NAV download wait
+    @Value("${investment.warmup.timeout-ms:120000}")
+    private long timeoutMs;
+
+    // Pause before a failed task is run again
+    @Value("${investment.warmup.retry-ms:30000}")
+    private long retryMs;
+
+    // Published once filled, before any task starts; health checks may read it at any time
+    private volatile Map<String, TaskStatus> tasks = Map.of();
+    private volatile boolean ready = false;
+    private volatile long startedAtMillis = 0;
+    private volatile long readyAtMillis = 0;
+    private volatile ScheduledExecutorService executor;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        startedAtMillis = System.currentTimeMillis();
+        System.out.println("=== Starting cache warm-up ===");
+
+        Map<String, WarmupTask> work = new LinkedHashMap<>();
+        work.put("stockSymbols", () -> {
+            dataLoaderStartup.loadStockSymbols();
+            if (stockSymbolLoaderService.getCacheSize() == 0) {
+                throw new IllegalStateException("No stock symbols loaded");
+            }
+            stockSymbolLoaderService.warmSearchIndex();
+        });
+        work.put("mutualFundNavs", () -> {
+            // The download runs on the AMFI bulkhead; this thread only waits for it
+            if (!mutualFundService.warmUp().get(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("No NAV data loaded");
+            }
+        });
+        work.put("dayChangeHoldings", dayChangeService::preloadHoldings);
+
+        Map<String, TaskStatus> statuses = new LinkedHashMap<>();
+        work.keySet().forEach(name -> statuses.put(name, new TaskStatus()));
+        tasks = statuses;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledExecutorService pool = Executors.newScheduledThreadPool(work.size(), runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = pool;
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[work.size()];
+        int i = 0;
+        for (Map.Entry<String, WarmupTask> entry : work.entrySet()) {
+            futures[i++] = start(entry.getKey(), entry.getValue(), statuses.get(entry.getKey()));
+        }
+
+        CompletableFuture<Void> allDone = CompletableFuture.allOf(futures);
+        allDone.thenRun(() -> {
+            markReady();
+            pool.shutdown();
+        });
+        allDone.copy()
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(error -> {
+                    System.err.println("Cache warm-up not finished after " + timeoutMs + "ms, still not ready for traffic: " + getStatus());
+                    return null;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ScheduledExecutorService pool = executor;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public Health health() {
+        boolean anyFailed = tasks.values().stream().anyMatch(task -> "FAILED".equals(task.state));
+        return (ready && !anyFailed ? Health.up() : Health.outOfService()).withDetails(getStatus()).build();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("ready", ready);
+        status.put("readyAfterMs", ready ? readyAtMillis - startedAtMillis : null);
+        Map<String, Object> taskStatus = new LinkedHashMap<>();
+        tasks.forEach((name, task) -> taskStatus.put(name, task.toMap()));
+        status.put("tasks", taskStatus);
+        return status;
+    }
+
+    private CompletableFuture<Void> start(String name, WarmupTask task, TaskStatus status) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        submit(() -> attempt(name, task, status, done, 1), 0);
+        return done;
+    }
+
+    // Readiness waits for the first attempt that succeeds
+    private void attempt(String name, WarmupTask task, TaskStatus status, CompletableFuture<Void> done, int attempt) {
+        long startTime = System.currentTimeMillis();
+        status.state = "RUNNING";
+        status.attempts = attempt;
+        try {
+            task.run();
+            status.state = "READY";
+            status.error = null;
+            status.durationMs = System.currentTimeMillis() - startTime;
+            done.complete(null);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            status.state = "FAILED";
+            status.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            status.durationMs = System.currentTimeMillis() - startTime;
+            System.err.println("Warm-up task " + name + " failed (attempt " + attempt + "), retrying in " +
+                              retryMs + "ms: " + status.error);
+            submit(() -> attempt(name, task, status, done, attempt + 1), retryMs);
+        }
+    }
+
+    private void submit(Runnable attempt, long delayMs) {
+        try {
+            executor.schedule(attempt, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the task is not run again
+        }
+    }
+
+    private void markReady() {
+        readyAtMillis = System.currentTimeMillis();
+        ready = true;
+        System.out.println("=== Cache warm-up finished in " + (readyAtMillis - startedAtMillis) + "ms, ready for traffic: " + getStatus() + " ===");
+    }
+
+    private interface WarmupTask {
+        void run() throws Exception;
+    }
+
+    private static final class TaskStatus {
+        private volatile String state = "PENDING";
+        private volatile int attempts;
+        private volatile Long durationMs;
+        private volatile String error;
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("state", state);
+            map.put("durationMs", durationMs);
+            map.put("attempts", attempts);
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
@@ -6,12 +6,15 @@ import com.financeapp.model.User;
 import com.financeapp.service.InvestmentService;
 import com.financeapp.service.PriceUpdateSchedulerService;
 import com.financeapp.service.InvestmentStatementParsingService;
+import com.financeapp.service.PriceStreamService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -33,6 +36,9 @@ public class InvestmentController {
     @Autowired
     private InvestmentStatementParsingService investmentStatementParsingService;
 
+    @Autowired
+    private PriceStreamService priceStreamService;
+
     // CRUD Operations
     @PostMapping
     public ResponseEntity<?> createInvestment(@Valid @RequestBody Investment investment, 
@@ -177,6 +183,13 @@ public class InvestmentController {
         return ResponseEntity.ok(performance);
     }
 
+    @GetMapping("/portfolio/day-movers")
+    public ResponseEntity<Map<String, Object>> getDayMovers(@RequestParam(defaultValue = "5") int limit,
+                                                            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(investmentService.getDayMovers(user, Math.max(1, Math.min(limit, 50))));
+    }
+
     @GetMapping("/type/{type}")
     public ResponseEntity<List<Map<String, Object>>> getInvestmentsByType(@PathVariable InvestmentType type,
                                                                           Authentication authentication) {
@@ -229,6 +242,16 @@ public class InvestmentController {
         }
     }
     
+    // Mutual Fund NAV and 1D/1W/1M/1Y/3Y returns by scheme code, ISIN or name
+    @GetMapping("/mutual-funds/{identifier}/returns")
+    public ResponseEntity<Map<String, Object>> getMutualFundReturns(@PathVariable String identifier) {
+        Map<String, Object> fund = investmentService.getMutualFundService().getMutualFundWithReturn(identifier);
+        if (fund == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(fund);
+    }
+
     // Get Current Price for a Symbol
     @GetMapping("/current-price/{symbol}")
     public ResponseEntity<Map<String, Object>> getCurrentPrice(@PathVariable String symbol) {
@@ -363,6 +386,13 @@ public class InvestmentController {
         }
     }
 
+    // Server-sent events: price-tick and valuation-delta for the caller's holdings
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return priceStreamService.subscribe(user);
+    }
+
     @GetMapping("/price-update-status")
     public ResponseEntity<PriceUpdateSchedulerService.PriceUpdateStatus> getPriceUpdateStatus() {
         PriceUpdateSchedulerService.PriceUpdateStatus status = priceUpdateSchedulerService.getUpdateStatus();
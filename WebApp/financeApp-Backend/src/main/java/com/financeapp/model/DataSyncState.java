@@ -0,0 +1,49 @@
+package com.financeapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checksum of the last reference data file applied to the database, one row per source
+ * (e.g. the NSE symbol master), so an unchanged file is not diffed again.
+ */
+@Entity
+@Table(name = "data_sync_state")
+public class DataSyncState {
+
+    @Id
+    @Column(length = 50)
+    private String source;
+
+    @Column(nullable = false, length = 64)
+    private String checksum; // SHA-256 of the file, hex
+
+    @Column
+    private Integer rowCount;
+
+    @Column
+    private LocalDateTime syncedAt;
+
+    // Constructors
+    public DataSyncState() {}
+
+    public DataSyncState(String source, String checksum, Integer rowCount) {
+        this.source = source;
+        this.checksum = checksum;
+        this.rowCount = rowCount;
+        this.syncedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public String getChecksum() { return checksum; }
+    public void setChecksum(String checksum) { this.checksum = checksum; }
+
+    public Integer getRowCount() { return rowCount; }
+    public void setRowCount(Integer rowCount) { this.rowCount = rowCount; }
+
+    public LocalDateTime getSyncedAt() { return syncedAt; }
+    public void setSyncedAt(LocalDateTime syncedAt) { this.syncedAt = syncedAt; }
+}
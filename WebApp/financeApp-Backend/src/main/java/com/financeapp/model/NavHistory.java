@@ -0,0 +1,72 @@
+package com.financeapp.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Published NAV of one mutual fund scheme on one date. Keyed by (scheme code, NAV date) with no
+ * surrogate id; rows are written in JDBC batches by NavHistoryService.
+ */
+@Entity
+@Table(name = "nav_history")
+@IdClass(NavHistory.NavHistoryId.class)
+public class NavHistory {
+
+    @Id
+    @Column(nullable = false)
+    private Integer schemeCode; // AMFI scheme code
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate navDate;
+
+    @Column(nullable = false, precision = 15, scale = 4)
+    private BigDecimal nav;
+
+    // Constructors
+    public NavHistory() {}
+
+    public NavHistory(Integer schemeCode, LocalDate navDate, BigDecimal nav) {
+        this.schemeCode = schemeCode;
+        this.navDate = navDate;
+        this.nav = nav;
+    }
+
+    // Getters and Setters
+    public Integer getSchemeCode() { return schemeCode; }
+    public void setSchemeCode(Integer schemeCode) { this.schemeCode = schemeCode; }
+
+    public LocalDate getNavDate() { return navDate; }
+    public void setNavDate(LocalDate navDate) { this.navDate = navDate; }
+
+    public BigDecimal getNav() { return nav; }
+    public void setNav(BigDecimal nav) { this.nav = nav; }
+
+    public static class NavHistoryId implements Serializable {
+        private Integer schemeCode;
+        private LocalDate navDate;
+
+        public NavHistoryId() {}
+
+        public NavHistoryId(Integer schemeCode, LocalDate navDate) {
+            this.schemeCode = schemeCode;
+            this.navDate = navDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof NavHistoryId)) return false;
+            NavHistoryId that = (NavHistoryId) o;
+            return Objects.equals(schemeCode, that.schemeCode) && Objects.equals(navDate, that.navDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schemeCode, navDate);
+        }
+    }
+}
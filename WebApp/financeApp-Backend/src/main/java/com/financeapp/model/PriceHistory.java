@@ -0,0 +1,83 @@
+package com.financeapp.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "price_history",
+       uniqueConstraints = @UniqueConstraint(name = "uk_price_history_symbol_date", columnNames = {"symbol", "tradeDate"}),
+       indexes = @Index(name = "idx_price_history_symbol_date", columnList = "symbol, tradeDate"))
+public class PriceHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String symbol; // NSE symbol, same key as Investment.symbol
+
+    @Column(nullable = false)
+    private LocalDate tradeDate;
+
+    @Column(precision = 15, scale = 4)
+    private BigDecimal openPrice;
+
+    @Column(precision = 15, scale = 4)
+    private BigDecimal highPrice;
+
+    @Column(precision = 15, scale = 4)
+    private BigDecimal lowPrice;
+
+    @Column(nullable = false, precision = 15, scale = 4)
+    private BigDecimal closePrice;
+
+    @Column
+    private Long volume;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructors
+    public PriceHistory() {}
+
+    public PriceHistory(String symbol, LocalDate tradeDate, BigDecimal openPrice, BigDecimal highPrice,
+                        BigDecimal lowPrice, BigDecimal closePrice, Long volume) {
+        this.symbol = symbol;
+        this.tradeDate = tradeDate;
+        this.openPrice = openPrice;
+        this.highPrice = highPrice;
+        this.lowPrice = lowPrice;
+        this.closePrice = closePrice;
+        this.volume = volume;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public LocalDate getTradeDate() { return tradeDate; }
+    public void setTradeDate(LocalDate tradeDate) { this.tradeDate = tradeDate; }
+
+    public BigDecimal getOpenPrice() { return openPrice; }
+    public void setOpenPrice(BigDecimal openPrice) { this.openPrice = openPrice; }
+
+    public BigDecimal getHighPrice() { return highPrice; }
+    public void setHighPrice(BigDecimal highPrice) { this.highPrice = highPrice; }
+
+    public BigDecimal getLowPrice() { return lowPrice; }
+    public void setLowPrice(BigDecimal lowPrice) { this.lowPrice = lowPrice; }
+
+    public BigDecimal getClosePrice() { return closePrice; }
+    public void setClosePrice(BigDecimal closePrice) { this.closePrice = closePrice; }
+
+    public Long getVolume() { return volume; }
+    public void setVolume(Long volume) { this.volume = volume; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
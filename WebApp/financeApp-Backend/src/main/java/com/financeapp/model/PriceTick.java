@@ -0,0 +1,61 @@
+package com.financeapp.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One observed price change of a symbol of one investment type. Rows are appended in batches by PriceTickService
+ * and downsampled into price_history once they pass the retention window.
+ */
+@Entity
+@Table(name = "price_tick",
+       indexes = {
+           @Index(name = "idx_price_tick_symbol_time", columnList = "symbol, tickTime"),
+           @Index(name = "idx_price_tick_time", columnList = "tickTime")
+       })
+public class PriceTick {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private InvestmentType investmentType;
+
+    @Column(nullable = false, precision = 15, scale = 4)
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private LocalDateTime tickTime; // IST
+
+    // Constructors
+    public PriceTick() {}
+
+    public PriceTick(String symbol, InvestmentType investmentType, BigDecimal price, LocalDateTime tickTime) {
+        this.symbol = symbol;
+        this.investmentType = investmentType;
+        this.price = price;
+        this.tickTime = tickTime;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public InvestmentType getInvestmentType() { return investmentType; }
+    public void setInvestmentType(InvestmentType investmentType) { this.investmentType = investmentType; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public LocalDateTime getTickTime() { return tickTime; }
+    public void setTickTime(LocalDateTime tickTime) { this.tickTime = tickTime; }
+}
@@ -0,0 +1,43 @@
+package com.financeapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Yahoo symbol verified to quote for a name with no stock_symbols row (e.g. a holding imported
+ * by company name), so it is not probed again after a restart. Listed symbols keep theirs in
+ * stock_symbols.yahoo_symbol instead.
+ */
+@Entity
+@Table(name = "resolved_yahoo_symbol")
+public class ResolvedYahooSymbol {
+
+    @Id
+    @Column(length = 50)
+    private String symbol; // upper case, as held
+
+    @Column(nullable = false, length = 50)
+    private String yahooSymbol;
+
+    @Column
+    private LocalDateTime resolvedAt;
+
+    // Constructors
+    public ResolvedYahooSymbol() {}
+
+    public ResolvedYahooSymbol(String symbol, String yahooSymbol) {
+        this.symbol = symbol;
+        this.yahooSymbol = yahooSymbol;
+        this.resolvedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public String getYahooSymbol() { return yahooSymbol; }
+    public void setYahooSymbol(String yahooSymbol) { this.yahooSymbol = yahooSymbol; }
+
+    public LocalDateTime getResolvedAt() { return resolvedAt; }
+    public void setResolvedAt(LocalDateTime resolvedAt) { this.resolvedAt = resolvedAt; }
+}
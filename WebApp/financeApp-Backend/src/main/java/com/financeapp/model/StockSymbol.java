@@ -57,6 +57,13 @@ public class StockSymbol {
     
     @PrePersist
     protected void onCreate() {
+        applyInsertDefaults();
+    }
+    
+    /**
+     * Fill the columns normally set on persist; JDBC bulk inserts bypass the JPA callbacks
+     */
+    public void applyInsertDefaults() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         // Auto-generate Yahoo symbol
@@ -0,0 +1,9 @@
+package com.financeapp.repository;
+
+import com.financeapp.model.DataSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DataSyncStateRepository extends JpaRepository<DataSyncState, String> {
+}
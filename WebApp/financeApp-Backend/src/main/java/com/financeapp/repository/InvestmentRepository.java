@@ -4,9 +4,11 @@ import com.financeapp.model.Investment;
 import com.financeapp.model.InvestmentType;
 import com.financeapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -53,4 +55,64 @@ public interface InvestmentRepository extends JpaRepository<Investment, Long> {
            "(i.quantity * COALESCE(i.currentPrice, i.purchasePrice) - i.quantity * i.purchasePrice) < 0 " +
            "ORDER BY (i.quantity * COALESCE(i.currentPrice, i.purchasePrice) - i.quantity * i.purchasePrice) ASC")
     List<Investment> getTopLosingInvestments(@Param("user") User user);
-}
\ No newline at end of file
+    
+    // Notes carrying the ISIN of imported holdings ("ISIN: INE002A01018 | ..."), for symbol resolution
+    @Query("SELECT i.notes FROM Investment i WHERE UPPER(i.symbol) = UPPER(:symbol) AND i.notes LIKE 'ISIN:%'")
+    List<String> findIsinNotesBySymbol(@Param("symbol") String symbol);
+    
+    // Global price refresh: distinct live-enabled (symbol, type) pairs across all users
+    @Query("SELECT DISTINCT i.symbol, i.type FROM Investment i WHERE i.livePriceEnabled = true")
+    List<Object[]> findDistinctLivePriceSymbols();
+    
+    // Aggregate holding value per live-enabled (symbol, type) across all users, for refresh prioritisation
+    @Query("SELECT i.symbol, i.type, SUM(i.quantity * COALESCE(i.currentPrice, i.purchasePrice)) " +
+           "FROM Investment i WHERE i.livePriceEnabled = true GROUP BY i.symbol, i.type")
+    List<Object[]> findLivePriceHoldingValues();
+
+    // Every live-enabled holding with its stored price, daily return and when it was priced, for day-change tracking
+    @Query("SELECT i.id, i.user.id, i.symbol, i.type, i.name, i.quantity, i.currentPrice, i.dailyReturn, i.lastPriceUpdate " +
+           "FROM Investment i WHERE i.livePriceEnabled = true")
+    List<Object[]> findLivePriceHoldings();
+    
+    // The live-price UPDATEs only touch rows whose stored value actually changes
+    // (price moved by more than :epsilon, or the source/error has to be reset)
+    @Modifying
+    @Transactional
+    @Query("UPDATE Investment i SET i.currentPrice = :price, i.priceSource = :source, i.lastPriceUpdate = :updatedAt, " +
+           "i.lastPriceError = NULL, i.updatedAt = :updatedAt " +
+           "WHERE i.symbol = :symbol AND i.type = :type AND i.livePriceEnabled = true " +
+           "AND (i.currentPrice IS NULL OR ABS(i.currentPrice - :price) > :epsilon " +
+           "OR i.priceSource IS NULL OR i.priceSource <> :source OR i.lastPriceError IS NOT NULL)")
+    int updateLivePriceBySymbol(@Param("symbol") String symbol,
+                                @Param("type") InvestmentType type,
+                                @Param("price") BigDecimal price,
+                                @Param("source") String source,
+                                @Param("epsilon") BigDecimal epsilon,
+                                @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Investment i SET i.currentPrice = :price, i.dailyReturn = :dailyReturn, i.priceSource = :source, " +
+           "i.lastPriceUpdate = :updatedAt, i.lastPriceError = NULL, i.updatedAt = :updatedAt " +
+           "WHERE i.symbol = :symbol AND i.type = :type AND i.livePriceEnabled = true " +
+           "AND (i.currentPrice IS NULL OR ABS(i.currentPrice - :price) > :epsilon " +
+           "OR i.dailyReturn IS NULL OR i.dailyReturn <> :dailyReturn " +
+           "OR i.priceSource IS NULL OR i.priceSource <> :source OR i.lastPriceError IS NOT NULL)")
+    int updateLivePriceAndDailyReturnBySymbol(@Param("symbol") String symbol,
+                                              @Param("type") InvestmentType type,
+                                              @Param("price") BigDecimal price,
+                                              @Param("dailyReturn") BigDecimal dailyReturn,
+                                              @Param("source") String source,
+                                              @Param("epsilon") BigDecimal epsilon,
+                                              @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Investment i SET i.priceSource = 'FALLBACK', i.lastPriceError = :error, i.updatedAt = :updatedAt " +
+           "WHERE i.symbol = :symbol AND i.type = :type AND i.livePriceEnabled = true " +
+           "AND (i.priceSource IS NULL OR i.priceSource <> 'FALLBACK' OR i.lastPriceError IS NULL OR i.lastPriceError <> :error)")
+    int markLivePriceUnavailableBySymbol(@Param("symbol") String symbol,
+                                         @Param("type") InvestmentType type,
+                                         @Param("error") String error,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,28 @@
+package com.financeapp.repository;
+
+import com.financeapp.model.PriceHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long> {
+
+    Optional<PriceHistory> findBySymbolAndTradeDate(String symbol, LocalDate tradeDate);
+
+    Optional<PriceHistory> findTopBySymbolAndTradeDateLessThanEqualOrderByTradeDateDesc(String symbol, LocalDate tradeDate);
+
+    List<PriceHistory> findBySymbolAndTradeDateGreaterThanEqualOrderByTradeDateAsc(String symbol, LocalDate fromDate);
+
+    boolean existsBySymbol(String symbol);
+
+    @Query("SELECT p.tradeDate FROM PriceHistory p WHERE p.symbol = :symbol AND p.tradeDate BETWEEN :fromDate AND :toDate")
+    List<LocalDate> findTradeDates(@Param("symbol") String symbol,
+                                   @Param("fromDate") LocalDate fromDate,
+                                   @Param("toDate") LocalDate toDate);
+}
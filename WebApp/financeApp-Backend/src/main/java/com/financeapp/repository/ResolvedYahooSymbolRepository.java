@@ -0,0 +1,9 @@
+package com.financeapp.repository;
+
+import com.financeapp.model.ResolvedYahooSymbol;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ResolvedYahooSymbolRepository extends JpaRepository<ResolvedYahooSymbol, String> {
+}
@@ -65,6 +65,7 @@ public class WebSecurityConfig {
                 .requestMatchers("/api/investments/suggestions").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
                 .requestMatchers("/error").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                 .requestMatchers("/manifest.json", "/favicon.ico").permitAll()
                 .requestMatchers("/", "/static/**", "/*.js", "/*.css", "/*.png", "/*.jpg", "/*.jpeg", "/*.gif", "/*.svg").permitAll()
                 .anyRequest().authenticated();
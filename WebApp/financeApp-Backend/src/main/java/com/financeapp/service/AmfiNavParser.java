@@ -0,0 +1,198 @@
+package com.financeapp.service;
+
+import com.financeapp.service.MutualFundService.MutualFundData;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Line-by-line reader for AMFI's NAVAll.txt.
+ * Data lines look like {@code Scheme Code;ISIN;ISIN2;Scheme Name;NAV;Date}; header, fund-house
+ * and category lines are skipped. Fields are located with {@code indexOf(';')} instead of a regex,
+ * and each distinct date string is parsed only once per file.
+ */
+public final class AmfiNavParser {
+
+    private static final int FIELD_COUNT = 6;
+
+    private AmfiNavParser() {
+    }
+
+    /**
+     * Read every scheme line from the reader and hand it to the sink. Returns the number of schemes read.
+     */
+    public static int parse(BufferedReader reader, Consumer<MutualFundData> sink) throws IOException {
+        Map<String, LocalDateTime> dates = new HashMap<>();
+        int count = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            MutualFundData data = parseLine(line, dates);
+            if (data != null) {
+                sink.accept(data);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parse one line, or return null if it is not a scheme line with a numeric NAV
+     */
+    static MutualFundData parseLine(String line, Map<String, LocalDateTime> dates) {
+        int start = 0;
+        int end = line.length();
+        while (start < end && line.charAt(start) <= ' ') start++;
+        while (end > start && line.charAt(end - 1) <= ' ') end--;
+        if (start == end || line.charAt(start) == ';') {
+            return null; // Blank line or header without a scheme code
+        }
+
+        // Separator positions; the date is everything after the fifth one
+        int[] separators = new int[FIELD_COUNT - 1];
+        int from = start;
+        for (int i = 0; i < separators.length; i++) {
+            int separator = line.indexOf(';', from);
+            if (separator < 0 || separator >= end) {
+                return null; // Fund house / category line
+            }
+            separators[i] = separator;
+            from = separator + 1;
+        }
+
+        String schemeCode = field(line, start, separators[0]);
+        String isin = field(line, separators[0] + 1, separators[1]);
+        String schemeName = field(line, separators[2] + 1, separators[3]);
+        String navText = field(line, separators[3] + 1, separators[4]);
+        String dateText = field(line, separators[4] + 1, end);
+        if (schemeCode.isEmpty() || schemeName.isEmpty() || dateText.isEmpty() || !isDecimal(navText)) {
+            return null; // Header row, or "N.A." for schemes without a NAV
+        }
+
+        try {
+            BigDecimal nav = new BigDecimal(navText);
+            LocalDateTime date = dates.computeIfAbsent(dateText, AmfiNavParser::parseAmfiDate);
+            return new MutualFundData(schemeCode, isin, schemeName, nav, date);
+        } catch (NumberFormatException e) {
+            System.err.println("Error parsing NAV line: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Normalize a scheme name for lookups: lower case, only ASCII letters, digits and single spaces
+     */
+    public static String normalizeSchemeName(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            if (isNameChar(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(c);
+            } else if (isSpace(c)) {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Whether a scheme name normalizes to the given normalized name, without building the
+     * normalized string
+     */
+    static boolean normalizesTo(String name, String normalized) {
+        int n = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            if (isNameChar(c)) {
+                if (pendingSpace && n > 0 && (n >= normalized.length() || normalized.charAt(n++) != ' ')) {
+                    return false;
+                }
+                pendingSpace = false;
+                if (n >= normalized.length() || normalized.charAt(n++) != c) {
+                    return false;
+                }
+            } else if (isSpace(c)) {
+                pendingSpace = true;
+            }
+        }
+        return n == normalized.length();
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    /**
+     * Parse AMFI date format (e.g., "05-Sep-2025")
+     */
+    static LocalDateTime parseAmfiDate(String dateStr) {
+        try {
+            int firstDash = dateStr.indexOf('-');
+            int secondDash = dateStr.indexOf('-', firstDash + 1);
+            if (firstDash > 0 && secondDash > firstDash) {
+                int day = Integer.parseInt(dateStr, 0, firstDash, 10);
+                int month = getMonthNumber(dateStr.substring(firstDash + 1, secondDash));
+                int year = Integer.parseInt(dateStr, secondDash + 1, dateStr.length(), 10);
+
+                return LocalDateTime.of(year, month, day, 0, 0);
+            }
+        } catch (Exception e) {
+            System.err.println("Error parsing date: " + dateStr);
+        }
+        return LocalDateTime.now();
+    }
+
+    /**
+     * Convert month name to number
+     */
+    private static int getMonthNumber(String monthName) {
+        switch (monthName) {
+            case "Jan": return 1;
+            case "Feb": return 2;
+            case "Mar": return 3;
+            case "Apr": return 4;
+            case "May": return 5;
+            case "Jun": return 6;
+            case "Jul": return 7;
+            case "Aug": return 8;
+            case "Sep": return 9;
+            case "Oct": return 10;
+            case "Nov": return 11;
+            case "Dec": return 12;
+            default: return 1;
+        }
+    }
+
+    private static String field(String line, int from, int to) {
+        while (from < to && line.charAt(from) <= ' ') from++;
+        while (to > from && line.charAt(to - 1) <= ' ') to--;
+        return line.substring(from, to);
+    }
+
+    private static boolean isDecimal(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c < '0' || c > '9') && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,85 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mutual fund NAVs and 1D returns from the in-memory AMFI snapshot. Lookups never leave the
+ * process, so batches are large and the rate limit only guards against runaway loops.
+ */
+@Service
+public class AmfiPriceProvider implements PriceProvider {
+
+    @Autowired
+    private MutualFundService mutualFundService;
+
+    @Override
+    public String getName() {
+        return ProviderHealthService.AMFI;
+    }
+
+    @Override
+    public String getPriceSource() {
+        return "AMFI_NAV";
+    }
+
+    @Override
+    public Set<InvestmentType> getSupportedTypes() {
+        return EnumSet.of(InvestmentType.MUTUAL_FUND);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return 1000;
+    }
+
+    @Override
+    public int getMaxConcurrentBatches() {
+        return 2;
+    }
+
+    @Override
+    public double getRequestsPerSecond() {
+        return 100;
+    }
+
+    @Override
+    public Map<String, Price> fetchPrices(InvestmentType type, List<String> symbols) {
+        Map<String, Price> prices = new HashMap<>();
+        for (String symbol : symbols) {
+            try {
+                BigDecimal nav = mutualFundService.getCurrentNav(symbol);
+                if (nav != null) {
+                    BigDecimal dailyReturn = mutualFundService.getDailyReturn(symbol);
+                    prices.put(symbol, new Price(nav, previousNav(nav, dailyReturn), dailyReturn));
+                }
+            } catch (Exception e) {
+                System.err.println("Error reading NAV for " + symbol + ": " + e.getMessage());
+            }
+        }
+        return prices;
+    }
+
+    // The 1D return is measured from the previous published NAV, so that NAV can be recovered from it
+    private static BigDecimal previousNav(BigDecimal nav, BigDecimal dailyReturn) {
+        if (dailyReturn == null) {
+            return null;
+        }
+        BigDecimal growth = BigDecimal.ONE.add(dailyReturn.divide(BigDecimal.valueOf(100), 8, RoundingMode.HALF_UP));
+        return growth.signum() > 0 ? nav.divide(growth, 4, RoundingMode.HALF_UP) : null;
+    }
+
+    @Override
+    public Long getDataAsOfMillis() {
+        return mutualFundService.getDataCheckedAtMillis();
+    }
+}
@@ -0,0 +1,98 @@
+package com.financeapp.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consecutive-failure circuit breaker for a market data provider.
+ * After {@code failureThreshold} failures in a row the circuit opens and calls fail fast
+ * for {@code openDurationMillis}; then a single trial call is let through (half-open)
+ * and its outcome decides whether the circuit closes again. A trial that never reports an
+ * outcome is abandoned after another {@code openDurationMillis} and the next call becomes
+ * the trial, so a caller that dies mid-call cannot leave the circuit half-open for good.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAtMillis = 0;
+    private boolean trialInFlight = false;
+    private long trialStartedAtMillis = 0;
+    private long rejectedCalls = 0;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /**
+     * Whether a call may be attempted now
+     */
+    public synchronized boolean allowRequest() {
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN && now - openedAtMillis >= openDurationMillis) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (!trialInFlight || now - trialStartedAtMillis >= openDurationMillis) {
+                    trialInFlight = true;
+                    trialStartedAtMillis = now;
+                    return true;
+                }
+                rejectedCalls++;
+                return false;
+            default:
+                rejectedCalls++;
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            System.out.println("Circuit breaker " + name + " closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                System.err.println("Circuit breaker " + name + " opened after " + consecutiveFailures + " consecutive failures");
+            }
+            state = State.OPEN;
+            openedAtMillis = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAtMillis < openDurationMillis;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("state", state.name());
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("rejectedCalls", rejectedCalls);
+        return stats;
+    }
+}
@@ -0,0 +1,422 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Investment;
+import com.financeapp.model.InvestmentType;
+import com.financeapp.repository.InvestmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Today's change per holding and per portfolio, updated as prices arrive.
+ * Every priced symbol keeps its latest price and previous close. Every user's portfolio keeps
+ * running totals of current and previous-close value over the holdings where both are known.
+ * A new price only adjusts the totals of the users holding that symbol, so reading a
+ * portfolio's day change or its movers needs no query. Saved and deleted investments are applied
+ * to the index one holding at a time; the whole index is reloaded only after holdings-refresh-ms,
+ * with the query run outside the lock so prices and reads are never held up by it. A previous
+ * close is only carried over to a new price within the same trading day. After a restart, each
+ * symbol's previous close is recovered from the stored price and daily return until the next
+ * quote arrives.
+ */
+@Service
+public class DayChangeService {
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    // How long the holdings index is reused before it is reloaded
+    @Value("${investment.price-update.holdings-refresh-ms:300000}")
+    private long holdingsRefreshMs;
+
+    // Latest price and previous close per "TYPE:SYMBOL"
+    private final Map<String, DayQuote> dayQuotes = new HashMap<>();
+    private Map<Long, Holding> holdingsById = new HashMap<>();
+    private Map<String, List<Holding>> holdingsBySymbol = new HashMap<>();
+    private Map<Long, List<Holding>> holdingsByUser = new HashMap<>();
+    private final Map<Long, PortfolioTotals> totalsByUser = new HashMap<>();
+
+    // Held (never together with this object's lock) while the holdings query runs
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile long holdingsLoadedAt = 0;
+    // Holdings saved (or deleted, as null) while a reload query runs, replayed over its result
+    private Map<Long, Holding> changesDuringReload;
+
+    /**
+     * Load the holdings index and portfolio totals now rather than on the first price or read
+     */
+    public void preloadHoldings() {
+        ensureHoldings();
+    }
+
+    /**
+     * Apply a saved investment to the holdings index: added, moved to its new symbol or
+     * quantity, or dropped if it no longer takes live prices
+     */
+    public void upsertHolding(Investment investment) {
+        if (investment.getId() == null) {
+            return;
+        }
+        Holding holding = Boolean.TRUE.equals(investment.getLivePriceEnabled()) && investment.getUser() != null
+                ? Holding.of(investment.getId(), investment.getUser().getId(), investment.getSymbol(), investment.getName(),
+                        investment.getType(), investment.getQuantity())
+                : null;
+        synchronized (this) {
+            if (holding != null) {
+                seedFromStoredPrice(holding.symbolKey, investment.getCurrentPrice(), investment.getDailyReturn(),
+                        investment.getLastPriceUpdate());
+            }
+            applyHoldingChange(investment.getId(), holding);
+        }
+    }
+
+    /**
+     * Remove a deleted investment from the holdings index
+     */
+    public synchronized void removeHolding(Long investmentId) {
+        if (investmentId != null) {
+            applyHoldingChange(investmentId, null);
+        }
+    }
+
+    /**
+     * Record a price for a symbol; a null previous close keeps the one already known for today
+     */
+    public void recordPrice(InvestmentType type, String symbol, BigDecimal price, BigDecimal previousClose) {
+        ensureHoldings();
+        synchronized (this) {
+            applyPrice(key(type, symbol), price, previousClose, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Record one provider batch of prices for a type
+     */
+    public void recordPrices(InvestmentType type, Map<String, PriceProvider.Price> prices) {
+        ensureHoldings();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            prices.forEach((symbol, price) -> {
+                if (price != null) {
+                    applyPrice(key(type, symbol), price.getPrice(), price.getPreviousClose(), now);
+                }
+            });
+        }
+    }
+
+    /**
+     * Day change of a single holding in currency, or null if the previous close is unknown
+     */
+    public synchronized BigDecimal getHoldingDayChange(InvestmentType type, String symbol, BigDecimal quantity) {
+        DayQuote quote = type != null && symbol != null ? dayQuotes.get(key(type, symbol)) : null;
+        return quote != null && quote.isComplete() && quantity != null
+                ? quote.price.subtract(quote.previousClose).multiply(quantity).setScale(2, RoundingMode.HALF_UP)
+                : null;
+    }
+
+    /**
+     * Portfolio day change of a user: absolute, percent, and the values it is computed over
+     */
+    public Map<String, Object> getPortfolioDayChange(Long userId) {
+        ensureHoldings();
+        synchronized (this) {
+            return portfolioDayChange(userId);
+        }
+    }
+
+    /**
+     * Biggest gainers and losers of a user's portfolio today by percent change, plus the
+     * portfolio's own day change
+     */
+    public Map<String, Object> getDayMovers(Long userId, int limit) {
+        ensureHoldings();
+        synchronized (this) {
+            return dayMovers(userId, limit);
+        }
+    }
+
+    private Map<String, Object> portfolioDayChange(Long userId) {
+        PortfolioTotals totals = totalsByUser.get(userId);
+        Map<String, Object> result = new LinkedHashMap<>();
+        BigDecimal previousValue = totals != null ? totals.previousValue : BigDecimal.ZERO;
+        BigDecimal currentValue = totals != null ? totals.currentValue : BigDecimal.ZERO;
+        BigDecimal dayChange = currentValue.subtract(previousValue);
+        result.put("dayChange", dayChange.setScale(2, RoundingMode.HALF_UP));
+        result.put("dayChangePercent", percent(dayChange, previousValue));
+        result.put("previousCloseValue", previousValue.setScale(2, RoundingMode.HALF_UP));
+        result.put("currentValue", currentValue.setScale(2, RoundingMode.HALF_UP));
+        result.put("holdingsPriced", totals != null ? totals.holdingsPriced : 0);
+        result.put("asOf", totals != null && totals.updatedAtMillis > 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(totals.updatedAtMillis), MARKET_ZONE) : null);
+        return result;
+    }
+
+    private Map<String, Object> dayMovers(Long userId, int limit) {
+        List<Map<String, Object>> gainers = new ArrayList<>();
+        List<Map<String, Object>> losers = new ArrayList<>();
+        for (Holding holding : holdingsByUser.getOrDefault(userId, Collections.emptyList())) {
+            DayQuote quote = dayQuotes.get(holding.symbolKey);
+            if (quote == null || !quote.isComplete()) {
+                continue;
+            }
+            BigDecimal changePercent = percent(quote.price.subtract(quote.previousClose), quote.previousClose);
+            if (changePercent == null || changePercent.signum() == 0) {
+                continue;
+            }
+
+            Map<String, Object> mover = new LinkedHashMap<>();
+            mover.put("investmentId", holding.investmentId);
+            mover.put("symbol", holding.symbol);
+            mover.put("name", holding.name);
+            mover.put("type", holding.type);
+            mover.put("price", quote.price);
+            mover.put("previousClose", quote.previousClose);
+            mover.put("dayChangePercent", changePercent);
+            mover.put("dayChange", quote.price.subtract(quote.previousClose).multiply(holding.quantity)
+                    .setScale(2, RoundingMode.HALF_UP));
+            (changePercent.signum() > 0 ? gainers : losers).add(mover);
+        }
+
+        Comparator<Map<String, Object>> byPercent = Comparator.comparing(mover -> (BigDecimal) mover.get("dayChangePercent"));
+        gainers.sort(byPercent.reversed());
+        losers.sort(byPercent);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("gainers", gainers.subList(0, Math.min(limit, gainers.size())));
+        result.put("losers", losers.subList(0, Math.min(limit, losers.size())));
+        result.put("portfolio", portfolioDayChange(userId));
+        return result;
+    }
+
+    private void applyPrice(String symbolKey, BigDecimal price, BigDecimal previousClose, long now) {
+        if (price == null || price.signum() <= 0) {
+            return;
+        }
+        DayQuote old = dayQuotes.get(symbolKey);
+        LocalDate tradingDate = LocalDate.now(MARKET_ZONE);
+        // Yesterday's previous close would turn today's move into a two-day one
+        if (previousClose == null && old != null && tradingDate.equals(old.tradingDate)) {
+            previousClose = old.previousClose;
+        }
+        DayQuote updated = new DayQuote(price, previousClose, tradingDate);
+        dayQuotes.put(symbolKey, updated);
+
+        for (Holding holding : holdingsBySymbol.getOrDefault(symbolKey, Collections.emptyList())) {
+            PortfolioTotals totals = totalsByUser.computeIfAbsent(holding.userId, id -> new PortfolioTotals());
+            totals.replace(holding.quantity, old, updated);
+            totals.updatedAtMillis = now;
+        }
+    }
+
+    /**
+     * Reload the holdings index once holdings-refresh-ms has passed. While an index exists,
+     * callers that find another thread reloading carry on with it instead of waiting.
+     */
+    private void ensureHoldings() {
+        if (!isReloadDue()) {
+            return;
+        }
+        if (holdingsLoadedAt > 0) {
+            if (!reloadLock.tryLock()) {
+                return;
+            }
+        } else {
+            reloadLock.lock();
+        }
+        try {
+            if (!isReloadDue()) {
+                return;
+            }
+            synchronized (this) {
+                changesDuringReload = new HashMap<>();
+            }
+            List<Object[]> rows;
+            try {
+                rows = investmentRepository.findLivePriceHoldings();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changesDuringReload = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                installHoldings(rows);
+            }
+            holdingsLoadedAt = System.currentTimeMillis();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private boolean isReloadDue() {
+        return holdingsLoadedAt == 0 || System.currentTimeMillis() - holdingsLoadedAt >= holdingsRefreshMs;
+    }
+
+    private void installHoldings(List<Object[]> rows) {
+        holdingsById = new HashMap<>();
+        holdingsBySymbol = new HashMap<>();
+        holdingsByUser = new HashMap<>();
+        totalsByUser.clear();
+        for (Object[] row : rows) {
+            Holding holding = Holding.of((Long) row[0], (Long) row[1], (String) row[2], (String) row[4],
+                    (InvestmentType) row[3], (BigDecimal) row[5]);
+            if (holding == null) {
+                continue;
+            }
+            seedFromStoredPrice(holding.symbolKey, (BigDecimal) row[6], (BigDecimal) row[7], (LocalDateTime) row[8]);
+            addHolding(holding);
+        }
+
+        // The query may have run before or after these saves committed; the saved state wins
+        Map<Long, Holding> changes = changesDuringReload;
+        changesDuringReload = null;
+        changes.forEach(this::applyHoldingChange);
+    }
+
+    private void applyHoldingChange(Long investmentId, Holding holding) {
+        removeHolding(holdingsById.get(investmentId));
+        if (holding != null) {
+            addHolding(holding);
+        }
+        if (changesDuringReload != null) {
+            changesDuringReload.put(investmentId, holding);
+        }
+    }
+
+    private void addHolding(Holding holding) {
+        holdingsById.put(holding.investmentId, holding);
+        holdingsBySymbol.computeIfAbsent(holding.symbolKey, k -> new ArrayList<>()).add(holding);
+        holdingsByUser.computeIfAbsent(holding.userId, k -> new ArrayList<>()).add(holding);
+        totalsByUser.computeIfAbsent(holding.userId, id -> new PortfolioTotals())
+                .replace(holding.quantity, null, dayQuotes.get(holding.symbolKey));
+    }
+
+    private void removeHolding(Holding holding) {
+        if (holding == null) {
+            return;
+        }
+        holdingsById.remove(holding.investmentId);
+        removeFromList(holdingsBySymbol, holding.symbolKey, holding);
+        removeFromList(holdingsByUser, holding.userId, holding);
+        PortfolioTotals totals = totalsByUser.get(holding.userId);
+        if (totals != null) {
+            totals.replace(holding.quantity, dayQuotes.get(holding.symbolKey), null);
+        }
+    }
+
+    private static <K> void removeFromList(Map<K, List<Holding>> index, K key, Holding holding) {
+        List<Holding> holdings = index.get(key);
+        if (holdings != null && holdings.remove(holding) && holdings.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private void seedFromStoredPrice(String symbolKey, BigDecimal price, BigDecimal dailyReturn, LocalDateTime pricedAt) {
+        if (dayQuotes.containsKey(symbolKey) || price == null || price.signum() <= 0 || dailyReturn == null) {
+            return;
+        }
+        BigDecimal growth = BigDecimal.ONE.add(dailyReturn.divide(HUNDRED, 8, RoundingMode.HALF_UP));
+        if (growth.signum() > 0) {
+            LocalDate tradingDate = pricedAt != null
+                    ? pricedAt.atZone(ZoneId.systemDefault()).withZoneSameInstant(MARKET_ZONE).toLocalDate() : null;
+            dayQuotes.put(symbolKey, new DayQuote(price, price.divide(growth, 4, RoundingMode.HALF_UP), tradingDate));
+        }
+    }
+
+    private static String key(InvestmentType type, String symbol) {
+        return type.name() + ":" + symbol.toUpperCase();
+    }
+
+    private static BigDecimal percent(BigDecimal change, BigDecimal base) {
+        if (base == null || base.signum() == 0) {
+            return null;
+        }
+        return change.divide(base, 6, RoundingMode.HALF_UP).multiply(HUNDRED).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private static final class DayQuote {
+        private final BigDecimal price;
+        private final BigDecimal previousClose;
+        // Market date the price was recorded on, or null if unknown
+        private final LocalDate tradingDate;
+
+        DayQuote(BigDecimal price, BigDecimal previousClose, LocalDate tradingDate) {
+            this.price = price;
+            this.previousClose = previousClose;
+            this.tradingDate = tradingDate;
+        }
+
+        boolean isComplete() {
+            return price != null && previousClose != null && previousClose.signum() > 0;
+        }
+    }
+
+    private static final class Holding {
+        private final Long investmentId;
+        private final Long userId;
+        private final String symbol;
+        private final String symbolKey;
+        private final String name;
+        private final InvestmentType type;
+        private final BigDecimal quantity;
+
+        Holding(Long investmentId, Long userId, String symbol, String name, InvestmentType type, BigDecimal quantity) {
+            this.investmentId = investmentId;
+            this.userId = userId;
+            this.symbol = symbol;
+            this.symbolKey = key(type, symbol);
+            this.name = name;
+            this.type = type;
+            this.quantity = quantity;
+        }
+
+        // Null for rows that cannot be priced
+        static Holding of(Long investmentId, Long userId, String symbol, String name, InvestmentType type, BigDecimal quantity) {
+            if (investmentId == null || userId == null || symbol == null || type == null || quantity == null) {
+                return null;
+            }
+            return new Holding(investmentId, userId, symbol, name, type, quantity);
+        }
+    }
+
+    /**
+     * Current and previous-close value over the holdings of one user that have both
+     */
+    private static final class PortfolioTotals {
+        private BigDecimal currentValue = BigDecimal.ZERO;
+        private BigDecimal previousValue = BigDecimal.ZERO;
+        private int holdingsPriced;
+        private long updatedAtMillis;
+
+        void replace(BigDecimal quantity, DayQuote old, DayQuote updated) {
+            if (old != null && old.isComplete()) {
+                currentValue = currentValue.subtract(old.price.multiply(quantity));
+                previousValue = previousValue.subtract(old.previousClose.multiply(quantity));
+                holdingsPriced--;
+            }
+            if (updated != null && updated.isComplete()) {
+                currentValue = currentValue.add(updated.price.multiply(quantity));
+                previousValue = previousValue.add(updated.previousClose.multiply(quantity));
+                holdingsPriced++;
+            }
+        }
+    }
+}
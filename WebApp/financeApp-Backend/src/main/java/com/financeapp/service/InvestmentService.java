@@ -1,5 +1,6 @@
 package com.financeapp.service;
 
+import com.financeapp.config.HttpClientPoolMetrics;
 import com.financeapp.model.Investment;
 import com.financeapp.model.InvestmentType;
 import com.financeapp.model.StockSymbol;
@@ -8,11 +9,12 @@ import com.financeapp.repository.InvestmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -31,11 +33,33 @@ public class InvestmentService {
     @Autowired
     private MutualFundService mutualFundService;
 
+    @Autowired
+    private PriceFetchExecutor priceFetchExecutor;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private PriceStreamService priceStreamService;
+
+    @Autowired
+    private HttpClientPoolMetrics httpClientPoolMetrics;
+
+    @Autowired
+    private PriceTickService priceTickService;
+
+    @Autowired
+    private ProviderHealthService providerHealthService;
+
+    @Autowired
+    private PriceProviderRouter priceProviderRouter;
+
+    @Autowired
+    private DayChangeService dayChangeService;
+
     @Value("${investment.price-update.enabled:true}")
     private boolean priceUpdateEnabled;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-
     // CRUD Operations
     public Investment createInvestment(Investment investment, User user) {
         System.out.println("Creating investment with data:");
@@ -64,17 +88,27 @@ public class InvestmentService {
                     // Fetch NAV for mutual funds
                     currentPrice = mutualFundService.getCurrentNav(investment.getSymbol());
                     if (currentPrice != null) {
-                        investment.setPriceSource("AMFI_NAV");
+                        investment.setPriceSource(mutualFundService.isNavDataStale() ? "AMFI_NAV_STALE" : "AMFI_NAV");
                     }
                 } else if (InvestmentType.STOCK.equals(investment.getType())) {
                     // Fetch price for stocks
                     if (yahooFinanceService.isApiAvailable() &&
                         yahooFinanceService.isSymbolSupported(investment.getSymbol())) {
-                        currentPrice = yahooFinanceService.getCurrentPrice(investment.getSymbol());
-                        if (currentPrice != null) {
-                            investment.setPriceSource("YAHOO_FINANCE");
+                        YahooFinanceService.Quote quote = yahooFinanceService.getQuote(investment.getSymbol());
+                        if (quote != null) {
+                            currentPrice = quote.getPrice();
+                            investment.setDailyReturn(quote.getDayChangePercent());
+                            investment.setPriceSource(quote.isStale() ? "YAHOO_FINANCE_STALE" : "YAHOO_FINANCE");
+                            dayChangeService.recordPrice(InvestmentType.STOCK, investment.getSymbol(), currentPrice, quote.getPreviousClose());
                         }
                     }
+                } else if (priceProviderRouter.supports(investment.getType())) {
+                    // ETF, bond and crypto prices
+                    PriceProvider.Price price = priceProviderRouter.fetchPrice(investment.getType(), investment.getSymbol());
+                    if (price != null && price.getPrice() != null) {
+                        currentPrice = price.getPrice();
+                        investment.setPriceSource(priceProviderRouter.getProvider(investment.getType()).getPriceSource());
+                    }
                 }
 
                 if (currentPrice != null) {
@@ -118,6 +152,8 @@ public class InvestmentService {
         }
         
         Investment savedInvestment = investmentRepository.save(investment);
+        dayChangeService.upsertHolding(savedInvestment);
+        priceStreamService.updateHoldings(user);
         
         // Log the result for debugging
         System.out.println("Created investment: " + savedInvestment.getSymbol() + 
@@ -155,7 +191,10 @@ public class InvestmentService {
             investment.setSector(updatedInvestment.getSector());
             investment.setNotes(updatedInvestment.getNotes());
             investment.setUpdatedAt(LocalDateTime.now());
-            return investmentRepository.save(investment);
+            Investment saved = investmentRepository.save(investment);
+            dayChangeService.upsertHolding(saved);
+            priceStreamService.updateHoldings(user);
+            return saved;
         }
         throw new RuntimeException("Investment not found");
     }
@@ -164,6 +203,8 @@ public class InvestmentService {
         Optional<Investment> investment = investmentRepository.findByIdAndUser(id, user);
         if (investment.isPresent()) {
             investmentRepository.delete(investment.get());
+            dayChangeService.removeHolding(id);
+            priceStreamService.updateHoldings(user);
         } else {
             throw new RuntimeException("Investment not found");
         }
@@ -212,6 +253,11 @@ public class InvestmentService {
             summary.put("gainLossPercentage", gainLossPercentage);
             summary.put("totalHoldings", investments.size());
             summary.put("isProfit", totalGainLoss.compareTo(BigDecimal.ZERO) >= 0);
+
+            // Today's move over live-priced holdings, kept current as quotes arrive
+            Map<String, Object> dayChange = dayChangeService.getPortfolioDayChange(user.getId());
+            summary.put("dayChange", dayChange.get("dayChange"));
+            summary.put("dayChangePercent", dayChange.get("dayChangePercent"));
             
             System.out.println("Portfolio summary calculated: " + investments.size() + " investments, Total: " + totalInvestment);
             
@@ -226,12 +272,19 @@ public class InvestmentService {
             summary.put("gainLossPercentage", BigDecimal.ZERO);
             summary.put("totalHoldings", 0);
             summary.put("isProfit", true);
+            summary.put("dayChange", BigDecimal.ZERO);
+            summary.put("dayChangePercent", BigDecimal.ZERO);
             summary.put("error", "Unable to fetch investment data: " + e.getMessage());
         }
         
         return summary;
     }
 
+    // Today's biggest gainers and losers among the user's live-priced holdings
+    public Map<String, Object> getDayMovers(User user, int limit) {
+        return dayChangeService.getDayMovers(user.getId(), limit);
+    }
+
     public List<Investment> getUserInvestmentsByType(User user, InvestmentType type) {
         return investmentRepository.findByUserAndTypeOrderByCreatedAtDesc(user, type);
     }
@@ -313,86 +366,189 @@ public class InvestmentService {
             return;
         }
 
-        // Separate investments by type
-        List<Investment> stockInvestments = investments.stream()
-                .filter(inv -> InvestmentType.STOCK.equals(inv.getType()))
-                .collect(Collectors.toList());
-
-        List<Investment> mutualFundInvestments = investments.stream()
-                .filter(inv -> InvestmentType.MUTUAL_FUND.equals(inv.getType()))
-                .collect(Collectors.toList());
+        updateRoutedPrices(investments);
+    }
 
-        // Update stock prices
-        if (!stockInvestments.isEmpty()) {
-            updateStockPrices(stockInvestments);
+    // Global refresh across all users: each distinct symbol is fetched once and
+    // applied with one set-based UPDATE, so cost scales with symbols, not users x holdings
+    public int updateAllMarketPrices() {
+        if (!priceUpdateEnabled) {
+            return 0;
         }
 
-        // Update mutual fund NAVs
-        if (!mutualFundInvestments.isEmpty()) {
-            updateMutualFundPrices(mutualFundInvestments, user);
+        Map<InvestmentType, List<String>> symbolsByType = new EnumMap<>(InvestmentType.class);
+        for (Object[] row : investmentRepository.findDistinctLivePriceSymbols()) {
+            String symbol = (String) row[0];
+            InvestmentType type = (InvestmentType) row[1];
+            if (symbol != null && type != null) {
+                symbolsByType.computeIfAbsent(type, k -> new ArrayList<>()).add(symbol);
+            }
         }
-    }
 
-    // Update stock prices using Yahoo Finance
-    private void updateStockPrices(List<Investment> stockInvestments) {
-        // Group investments by symbol to avoid duplicate API calls
-        Map<String, List<Investment>> investmentsBySymbol = stockInvestments.stream()
-                .collect(Collectors.groupingBy(Investment::getSymbol));
-
-        // Get all unique symbols
-        List<String> symbols = new ArrayList<>(investmentsBySymbol.keySet());
+        Map<InvestmentType, Map<String, BigDecimal>> prices = refreshMarketPrices(symbolsByType);
+        return (int) prices.values().stream()
+                .flatMap(typePrices -> typePrices.values().stream())
+                .filter(Objects::nonNull)
+                .count();
+    }
 
-        try {
-            // Fetch current prices for all symbols at once
-            Map<String, BigDecimal> currentPrices = yahooFinanceService.getCurrentPrices(symbols);
+    // Refresh only the given symbols for all users (used by the adaptive scheduler).
+    // Returns the price applied per type and symbol, null where the fetch failed.
+    public Map<InvestmentType, Map<String, BigDecimal>> refreshMarketPrices(Map<InvestmentType, List<String>> symbolsByType) {
+        Map<InvestmentType, Map<String, BigDecimal>> appliedPrices = new EnumMap<>(InvestmentType.class);
+        if (!priceUpdateEnabled) {
+            return appliedPrices;
+        }
 
-            // Update each investment with fetched prices
-            for (Map.Entry<String, List<Investment>> entry : investmentsBySymbol.entrySet()) {
-                String symbol = entry.getKey();
-                List<Investment> symbolInvestments = entry.getValue();
-                BigDecimal currentPrice = currentPrices.get(symbol);
+        int symbolsUpdated = 0;
+        int symbolsRequested = 0;
+        Map<PriceProvider, Integer> pricedByProvider = new LinkedHashMap<>();
+
+        // Each type's provider fetches its batches in parallel with the other providers
+        Map<InvestmentType, Map<String, PriceProvider.Price>> fetched = priceProviderRouter.fetchPrices(symbolsByType);
+        for (Map.Entry<InvestmentType, List<String>> entry : symbolsByType.entrySet()) {
+            InvestmentType type = entry.getKey();
+            PriceProvider provider = priceProviderRouter.getProvider(type);
+            if (provider == null) {
+                continue;
+            }
 
-                for (Investment investment : symbolInvestments) {
-                    updateInvestmentPrice(investment, currentPrice, symbol, "YAHOO_FINANCE");
+            Map<String, PriceProvider.Price> prices = fetched.getOrDefault(type, Collections.emptyMap());
+            Map<String, BigDecimal> typePrices = appliedPrices.computeIfAbsent(type, k -> new HashMap<>());
+            pricedByProvider.putIfAbsent(provider, 0);
+            dayChangeService.recordPrices(type, prices);
+            for (String symbol : entry.getValue()) {
+                symbolsRequested++;
+                try {
+                    PriceProvider.Price price = prices.get(symbol);
+                    BigDecimal currentPrice = price != null ? price.getPrice() : null;
+                    BigDecimal dailyReturn = price != null ? price.getDailyReturn() : null;
+                    typePrices.put(symbol, currentPrice);
+                    if (currentPrice != null) {
+                        pricedByProvider.merge(provider, 1, Integer::sum);
+                    }
+                    if (applyPriceToAllHoldings(symbol, type, currentPrice, dailyReturn, provider.getPriceSource())) {
+                        symbolsUpdated++;
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error in global price update for " + symbol + ": " + e.getMessage());
                 }
             }
+        }
 
-        } catch (Exception e) {
-            System.err.println("Error updating stock prices: " + e.getMessage());
-            // Mark all stock investments with error
-            for (Investment investment : stockInvestments) {
-                investment.setLastPriceError("Stock price update failed: " + e.getMessage());
-                investmentRepository.save(investment);
+        System.out.println("Global price update: " + symbolsUpdated + " of " +
+                          symbolsRequested + " distinct symbols refreshed");
+        pricedByProvider.forEach((provider, priced) ->
+                providerHealthService.recordCycle(provider.getName(), priced, provider.getDataAsOfMillis()));
+
+        // Push the new prices to open price streams
+        priceStreamService.publishPrices(appliedPrices);
+        return appliedPrices;
+    }
+
+    // Append today's close for every held stock to the local price history.
+    // Symbols without history yet are range-backfilled instead (which includes today).
+    public int recordDailyCloses() {
+        List<String> stockSymbols = investmentRepository.findDistinctLivePriceSymbols().stream()
+                .filter(row -> InvestmentType.STOCK.equals(row[1]))
+                .map(row -> (String) row[0])
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        if (stockSymbols.isEmpty()) {
+            return 0;
+        }
+
+        LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+        Map<String, BigDecimal> closes = yahooFinanceService.getCurrentPrices(stockSymbols);
+        int recorded = 0;
+
+        for (String symbol : stockSymbols) {
+            try {
+                if (!priceHistoryService.hasHistory(symbol)) {
+                    if (yahooFinanceService.backfillHistory(symbol) > 0) {
+                        recorded++;
+                    }
+                } else if (closes.get(symbol) != null) {
+                    priceHistoryService.appendDailyClose(symbol, today, closes.get(symbol));
+                    recorded++;
+                }
+            } catch (Exception e) {
+                System.err.println("Error recording daily close for " + symbol + ": " + e.getMessage());
             }
         }
+
+        System.out.println("Recorded daily closes for " + recorded + " of " + stockSymbols.size() + " symbols");
+        return recorded;
     }
 
-    // Update mutual fund NAVs using AMFI
-    private void updateMutualFundPrices(List<Investment> mutualFundInvestments, User user) {
-        try {
-            for (Investment investment : mutualFundInvestments) {
-                try {
-                    BigDecimal currentNav = mutualFundService.getCurrentNav(investment.getSymbol());
-                    BigDecimal dailyReturn = mutualFundService.getDailyReturn(investment.getSymbol());
+    // Apply one fetched price to every live-enabled holding of a symbol with a single UPDATE.
+    // Rows whose price is within the epsilon are left untouched; real changes go to the tick log.
+    private boolean applyPriceToAllHoldings(String symbol, InvestmentType type, BigDecimal currentPrice,
+                                            BigDecimal dailyReturn, String priceSource) {
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal epsilon = priceTickService.getEpsilon();
+        if (currentPrice != null && currentPrice.compareTo(BigDecimal.ZERO) > 0) {
+            if (dailyReturn != null) {
+                investmentRepository.updateLivePriceAndDailyReturnBySymbol(symbol, type, currentPrice, dailyReturn, priceSource, epsilon, now);
+            } else {
+                investmentRepository.updateLivePriceBySymbol(symbol, type, currentPrice, priceSource, epsilon, now);
+            }
+            priceTickService.record(symbol, type, currentPrice);
+            return true;
+        }
 
-                    updateInvestmentPrice(investment, currentNav, investment.getSymbol(), "AMFI_NAV");
+        investmentRepository.markLivePriceUnavailableBySymbol(symbol, type, "Live price unavailable for " + symbol, now);
+        return false;
+    }
 
-                    // Update daily return
-                    investment.setDailyReturn(dailyReturn);
-                    investmentRepository.save(investment);
-                } catch (Exception e) {
-                    investment.setLastPriceError("NAV fetch failed: " + e.getMessage());
-                    investmentRepository.save(investment);
+    // Per-user refresh: each distinct symbol is fetched once through its type's provider
+    private void updateRoutedPrices(List<Investment> investments) {
+        Map<InvestmentType, List<String>> symbolsByType = new EnumMap<>(InvestmentType.class);
+        for (Investment investment : investments) {
+            if (investment.getSymbol() != null && priceProviderRouter.supports(investment.getType())) {
+                List<String> symbols = symbolsByType.computeIfAbsent(investment.getType(), k -> new ArrayList<>());
+                if (!symbols.contains(investment.getSymbol())) {
+                    symbols.add(investment.getSymbol());
                 }
             }
+        }
+        if (symbolsByType.isEmpty()) {
+            return;
+        }
+
+        Map<InvestmentType, Map<String, PriceProvider.Price>> fetched;
+        try {
+            fetched = priceProviderRouter.fetchPrices(symbolsByType);
         } catch (Exception e) {
-            System.err.println("Error updating mutual fund NAVs: " + e.getMessage());
-            // Mark all mutual fund investments with error
-            for (Investment investment : mutualFundInvestments) {
-                investment.setLastPriceError("Mutual fund NAV update failed: " + e.getMessage());
+            System.err.println("Error updating prices: " + e.getMessage());
+            return;
+        }
+        fetched.forEach(dayChangeService::recordPrices);
+
+        Map<InvestmentType, Map<String, BigDecimal>> appliedPrices = new EnumMap<>(InvestmentType.class);
+        for (Investment investment : investments) {
+            PriceProvider provider = priceProviderRouter.getProvider(investment.getType());
+            if (provider == null || investment.getSymbol() == null) {
+                continue;
+            }
+            try {
+                PriceProvider.Price price = fetched.getOrDefault(investment.getType(), Collections.emptyMap())
+                        .get(investment.getSymbol());
+                updateInvestmentPrice(investment, price != null ? price.getPrice() : null,
+                        price != null ? price.getDailyReturn() : null, investment.getSymbol(), provider.getPriceSource());
+                if (price != null && price.getPrice() != null && price.getPrice().compareTo(BigDecimal.ZERO) > 0) {
+                    appliedPrices.computeIfAbsent(investment.getType(), k -> new HashMap<>())
+                            .put(investment.getSymbol(), price.getPrice());
+                }
+            } catch (Exception e) {
+                investment.setLastPriceError("Price update failed: " + e.getMessage());
                 investmentRepository.save(investment);
             }
         }
+
+        // Push the new prices to open price streams
+        priceStreamService.publishPrices(appliedPrices);
     }
     
     // Update price for a single investment
@@ -403,17 +559,40 @@ public class InvestmentService {
 
         try {
             BigDecimal currentPrice = null;
+            BigDecimal dailyReturn = null;
             String priceSource = null;
 
+            // Yahoo runs on the fetch pool so a slow provider is cut off at the request deadline;
+            // NAVs are read from the in-memory snapshot
+            String symbol = investment.getSymbol();
             if (InvestmentType.MUTUAL_FUND.equals(investment.getType())) {
-                currentPrice = mutualFundService.getCurrentNav(investment.getSymbol());
-                priceSource = "AMFI_NAV";
+                currentPrice = mutualFundService.getCurrentNav(symbol);
+                priceSource = mutualFundService.isNavDataStale() ? "AMFI_NAV_STALE" : "AMFI_NAV";
             } else if (InvestmentType.STOCK.equals(investment.getType())) {
-                currentPrice = yahooFinanceService.getCurrentPrice(investment.getSymbol());
-                priceSource = "YAHOO_FINANCE";
+                YahooFinanceService.Quote quote = priceFetchExecutor.fetch(yahooFinanceService.getYahooHost(),
+                        () -> yahooFinanceService.getQuote(symbol));
+                if (quote != null) {
+                    currentPrice = quote.getPrice();
+                    dailyReturn = quote.getDayChangePercent();
+                    priceSource = quote.isStale() ? "YAHOO_FINANCE_STALE" : "YAHOO_FINANCE";
+                    dayChangeService.recordPrice(InvestmentType.STOCK, symbol, currentPrice, quote.getPreviousClose());
+                }
+            } else if (priceProviderRouter.supports(investment.getType())) {
+                PriceProvider.Price price = priceProviderRouter.fetchPrice(investment.getType(), symbol);
+                if (price != null) {
+                    currentPrice = price.getPrice();
+                    dailyReturn = price.getDailyReturn();
+                    priceSource = priceProviderRouter.getProvider(investment.getType()).getPriceSource();
+                    dayChangeService.recordPrice(investment.getType(), symbol, currentPrice, price.getPreviousClose());
+                }
             }
 
-            updateInvestmentPrice(investment, currentPrice, investment.getSymbol(), priceSource);
+            updateInvestmentPrice(investment, currentPrice, dailyReturn, investment.getSymbol(), priceSource);
+            if (symbol != null && investment.getType() != null
+                    && currentPrice != null && currentPrice.compareTo(BigDecimal.ZERO) > 0) {
+                priceStreamService.publishPrices(Collections.singletonMap(investment.getType(),
+                        Collections.singletonMap(symbol, currentPrice)));
+            }
         } catch (Exception e) {
             investment.setLastPriceError("Price fetch failed: " + e.getMessage());
             investmentRepository.save(investment);
@@ -422,20 +601,42 @@ public class InvestmentService {
     
     // Helper method to update investment price with proper tracking
     private void updateInvestmentPrice(Investment investment, BigDecimal currentPrice, String symbol) {
-        updateInvestmentPrice(investment, currentPrice, symbol, null);
+        updateInvestmentPrice(investment, currentPrice, null, symbol, null);
     }
 
     // Helper method to update investment price with proper tracking and custom source
-    private void updateInvestmentPrice(Investment investment, BigDecimal currentPrice, String symbol, String priceSource) {
+    // Only writes the row when something visible changed: the price moved by more than the
+    // epsilon, the daily return changed, or the source/error differs from what is stored
+    private void updateInvestmentPrice(Investment investment, BigDecimal currentPrice, BigDecimal dailyReturn,
+                                       String symbol, String priceSource) {
         if (currentPrice != null && currentPrice.compareTo(BigDecimal.ZERO) > 0) {
+            String source = priceSource != null ? priceSource : "YAHOO_FINANCE";
+            boolean returnChanged = dailyReturn != null
+                    && (investment.getDailyReturn() == null || dailyReturn.compareTo(investment.getDailyReturn()) != 0);
+            boolean changed = priceTickService.isChange(investment.getCurrentPrice(), currentPrice)
+                    || returnChanged
+                    || !source.equals(investment.getPriceSource())
+                    || investment.getLastPriceError() != null;
+            priceTickService.record(symbol, investment.getType(), currentPrice);
+            if (!changed) {
+                return;
+            }
+
             investment.setCurrentPrice(currentPrice);
-            investment.setPriceSource(priceSource != null ? priceSource : "YAHOO_FINANCE");
+            if (returnChanged) {
+                investment.setDailyReturn(dailyReturn);
+            }
+            investment.setPriceSource(source);
             investment.setLastPriceUpdate(LocalDateTime.now());
             investment.setLastPriceError(null);
         } else {
             // Keep existing price and mark as fallback
+            String error = "Live price unavailable for " + symbol;
+            if ("FALLBACK".equals(investment.getPriceSource()) && error.equals(investment.getLastPriceError())) {
+                return;
+            }
             investment.setPriceSource("FALLBACK");
-            investment.setLastPriceError("Live price unavailable for " + symbol);
+            investment.setLastPriceError(error);
         }
 
         investment.setUpdatedAt(LocalDateTime.now());
@@ -494,8 +695,15 @@ public class InvestmentService {
         Map<String, Object> status = new HashMap<>();
         status.put("yahooFinanceApiAvailable", yahooFinanceService.isApiAvailable());
         status.put("priceUpdateEnabled", priceUpdateEnabled);
-        status.put("supportedSymbolsCount", yahooFinanceService.getSupportedSymbols().size());
+        status.put("supportedSymbolsCount", yahooFinanceService.getSupportedSymbolCount());
         status.put("marketOpen", yahooFinanceService.isMarketOpen());
+        status.put("quoteCache", yahooFinanceService.getQuoteCacheStats());
+        status.put("priceFetch", priceFetchExecutor.getStats());
+        status.put("priceStream", priceStreamService.getStats());
+        status.put("httpPool", httpClientPoolMetrics.getStats());
+        status.put("priceTicks", priceTickService.getStats());
+        status.put("providerHealth", providerHealthService.getStatus());
+        status.put("priceProviders", priceProviderRouter.getStats());
 
         // Add mutual fund service status
         try {
@@ -503,6 +711,8 @@ public class InvestmentService {
             status.put("mutualFundServiceAvailable", mfStatus.get("available"));
             status.put("mutualFundCacheSize", mfStatus.get("cachedEntries"));
             status.put("mutualFundLastUpdate", mfStatus.get("lastUpdate"));
+            status.put("mutualFundDataStale", mfStatus.get("stale"));
+            status.put("mutualFundCircuitBreaker", mfStatus.get("circuitBreaker"));
         } catch (Exception e) {
             status.put("mutualFundServiceAvailable", false);
             status.put("mutualFundCacheSize", 0);
@@ -564,11 +774,13 @@ public class InvestmentService {
         }
         
         try {
-            BigDecimal price = yahooFinanceService.getCurrentPrice(symbol);
-            if (price != null) {
+            YahooFinanceService.Quote quote = yahooFinanceService.getQuote(symbol);
+            if (quote != null) {
                 result.put("symbol", symbol);
-                result.put("price", price);
-                result.put("source", "YAHOO_FINANCE");
+                result.put("price", quote.getPrice());
+                result.put("source", quote.isStale() ? "YAHOO_FINANCE_STALE" : "YAHOO_FINANCE");
+                result.put("stale", quote.isStale());
+                result.put("asOf", quote.getAsOf());
                 result.put("timestamp", LocalDateTime.now());
             } else {
                 throw new RuntimeException("Price not available");
@@ -592,6 +804,9 @@ public class InvestmentService {
             } else {
                 return "Live price unavailable for " + investment.getSymbol();
             }
+        } else if (priceProviderRouter.supports(investment.getType())) {
+            return "Live price unavailable for " + investment.getSymbol() + " from "
+                    + priceProviderRouter.getProvider(investment.getType()).getName();
         }
         return "Price fetch failed for " + investment.getSymbol();
     }
@@ -629,6 +844,10 @@ public class InvestmentService {
         map.put("livePriceEnabled", investment.getLivePriceEnabled());
         map.put("lastPriceError", investment.getLastPriceError());
         map.put("dailyReturn", investment.getDailyReturn());
+        map.put("dayChange", dayChangeService.getHoldingDayChange(investment.getType(), investment.getSymbol(), investment.getQuantity()));
+        if (InvestmentType.MUTUAL_FUND.equals(investment.getType())) {
+            map.put("periodReturns", mutualFundService.getPeriodReturns(investment.getSymbol()));
+        }
 
         return map;
     }
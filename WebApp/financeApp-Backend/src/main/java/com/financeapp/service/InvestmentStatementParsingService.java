@@ -22,6 +22,9 @@ public class InvestmentStatementParsingService {
     @Autowired
     private InvestmentService investmentService;
 
+    @Autowired
+    private YahooFinanceService yahooFinanceService;
+
     private static final Pattern ISIN_PATTERN = Pattern.compile("^[A-Z]{2}[A-Z0-9]{9}[0-9]$");
 
     public Map<String, Object> parseStatement(MultipartFile file, String platform, User user) throws IOException {
@@ -93,6 +96,15 @@ public class InvestmentStatementParsingService {
             }
         }
 
+        // Backfill daily price history for imported stocks in the background
+        List<String> stockSymbols = new ArrayList<>();
+        for (Investment investment : parsedInvestments) {
+            if (InvestmentType.STOCK.equals(investment.getType()) && investment.getSymbol() != null) {
+                stockSymbols.add(investment.getSymbol());
+            }
+        }
+        yahooFinanceService.backfillHistoryAsync(stockSymbols);
+
         Map<String, Object> result = new HashMap<>();
         result.put("platform", platform);
         result.put("totalParsed", parsedInvestments.size());
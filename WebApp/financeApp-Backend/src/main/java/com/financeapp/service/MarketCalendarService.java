@@ -0,0 +1,145 @@
+package com.financeapp.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * NSE trading calendar: weekends, exchange holidays and the IST session window.
+ * All checks are done in Asia/Kolkata regardless of the server's time zone.
+ */
+@Service
+public class MarketCalendarService {
+
+    public static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Kolkata");
+
+    // Comma-separated ISO dates on which NSE is closed for trading
+    @Value("${investment.market-calendar.holidays:}")
+    private String[] configuredHolidays;
+
+    @Value("${investment.market-calendar.session-open:09:15}")
+    private String sessionOpenTime;
+
+    @Value("${investment.market-calendar.session-close:15:30}")
+    private String sessionCloseTime;
+
+    private Set<LocalDate> holidays = Collections.emptySet();
+    private LocalTime sessionOpen;
+    private LocalTime sessionClose;
+
+    @PostConstruct
+    public void init() {
+        Set<LocalDate> parsed = new TreeSet<>();
+        if (configuredHolidays != null) {
+            for (String date : configuredHolidays) {
+                if (date == null || date.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    parsed.add(LocalDate.parse(date.trim()));
+                } catch (Exception e) {
+                    System.err.println("Ignoring invalid market holiday: " + date);
+                }
+            }
+        }
+        holidays = Collections.unmodifiableSet(parsed);
+        sessionOpen = LocalTime.parse(sessionOpenTime);
+        sessionClose = LocalTime.parse(sessionCloseTime);
+        System.out.println("Market calendar loaded with " + holidays.size() + " holidays, session "
+                + sessionOpen + "-" + sessionClose + " IST");
+    }
+
+    /**
+     * Current time in the exchange time zone
+     */
+    public ZonedDateTime now() {
+        return ZonedDateTime.now(MARKET_ZONE);
+    }
+
+    /**
+     * Current date in the exchange time zone
+     */
+    public LocalDate today() {
+        return LocalDate.now(MARKET_ZONE);
+    }
+
+    /**
+     * Whether NSE trades on the given date
+     */
+    public boolean isTradingDay(LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        return day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY && !holidays.contains(date);
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return holidays.contains(date);
+    }
+
+    /**
+     * Whether the normal trading session is in progress right now
+     */
+    public boolean isMarketOpen() {
+        return isMarketOpen(now());
+    }
+
+    public boolean isMarketOpen(ZonedDateTime time) {
+        ZonedDateTime marketTime = time.withZoneSameInstant(MARKET_ZONE);
+        LocalTime localTime = marketTime.toLocalTime();
+        return isTradingDay(marketTime.toLocalDate())
+                && !localTime.isBefore(sessionOpen)
+                && localTime.isBefore(sessionClose);
+    }
+
+    /**
+     * Start of the next trading session (today's if it hasn't opened yet)
+     */
+    public ZonedDateTime getNextSessionOpen() {
+        ZonedDateTime now = now();
+        LocalDate date = now.toLocalDate();
+        if (!isTradingDay(date) || !now.toLocalTime().isBefore(sessionOpen)) {
+            date = date.plusDays(1);
+        }
+        while (!isTradingDay(date)) {
+            date = date.plusDays(1);
+        }
+        return date.atTime(sessionOpen).atZone(MARKET_ZONE);
+    }
+
+    /**
+     * Most recent trading day on or before the given date
+     */
+    public LocalDate getLastTradingDayOnOrBefore(LocalDate date) {
+        LocalDate tradingDay = date;
+        while (!isTradingDay(tradingDay)) {
+            tradingDay = tradingDay.minusDays(1);
+        }
+        return tradingDay;
+    }
+
+    /**
+     * Get calendar status for diagnostics
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        LocalDate today = today();
+        status.put("marketOpen", isMarketOpen());
+        status.put("tradingDay", isTradingDay(today));
+        status.put("holiday", isHoliday(today));
+        status.put("sessionOpen", sessionOpen.toString());
+        status.put("sessionClose", sessionClose.toString());
+        status.put("nextSessionOpen", getNextSessionOpen().toLocalDateTime());
+        status.put("holidaysConfigured", holidays.size());
+        return status;
+    }
+}
@@ -1,27 +1,81 @@
 package com.financeapp.service;
 
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.RestClientException;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
 public class MutualFundService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private RestTemplate restTemplate;
     private static final String AMFI_NAV_URL = "https://www.amfiindia.com/spages/NAVAll.txt";
 
-    // Cache for NAV data to avoid frequent API calls
-    private Map<String, MutualFundData> navCache = new HashMap<>();
-    private Map<String, BigDecimal> previousNavCache = new HashMap<>(); // Store previous day's NAV
-    private LocalDateTime lastCacheUpdate = null;
-    private static final long CACHE_DURATION_MINUTES = 30; // Cache for 30 minutes
+    @Autowired
+    private PriceFetchExecutor priceFetchExecutor;
+
+    @Autowired
+    private NavHistoryService navHistoryService;
+
+    @Autowired
+    private ProviderHealthService providerHealthService;
+
+    @Value("${investment.price-fetch.circuit-breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${investment.price-fetch.circuit-breaker.open-duration-ms:60000}")
+    private long breakerOpenDurationMs;
+
+    private CircuitBreaker circuitBreaker;
+
+    // Current NAV data; replaced atomically by the scheduled refresh, never mutated
+    private final AtomicReference<NavSnapshot> snapshot = new AtomicReference<>(NavSnapshot.EMPTY);
+
+    // How often NAVAll.txt is re-checked; data not confirmed for two intervals is reported stale
+    @Value("${investment.mutual-fund.refresh-ms:1800000}")
+    private long refreshIntervalMs;
+
+    private final AtomicLong notModifiedResponses = new AtomicLong();
+    private static final int NOT_MODIFIED = 304;
+
+    // Set while a refresh is running so a slow download is never overlapped by the next one
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean(false);
+
+    // NAVs of the last downloaded file while their history rows have not been stored; a newer
+    // download replaces them, and every refresh retries the write
+    private volatile NavStore pendingHistory;
+
+    // Completed with whether data is loaded once the next refresh attempt has finished
+    private volatile CompletableFuture<Boolean> nextRefresh = new CompletableFuture<>();
+
+    @PostConstruct
+    public void init() {
+        circuitBreaker = new CircuitBreaker("amfi", breakerFailureThreshold, breakerOpenDurationMs);
+        priceFetchExecutor.registerCircuitBreaker(getAmfiHost(), circuitBreaker);
+    }
 
     public static class MutualFundData {
         private String schemeCode;
@@ -47,190 +101,237 @@ public class MutualFundService {
     }
 
     /**
-     * Fetch NAV data from AMFI and update cache
+     * Immutable view of one NAVAll.txt download: the compact NAV store and its search index
      */
-    private void updateNavCache() {
-        try {
-            String navData = restTemplate.getForObject(AMFI_NAV_URL, String.class);
-            if (navData != null) {
-                parseAndCacheNavData(navData);
-                lastCacheUpdate = LocalDateTime.now();
-            }
-        } catch (RestClientException e) {
-            System.err.println("Error fetching NAV data from AMFI: " + e.getMessage());
-            throw new RuntimeException("Failed to fetch NAV data from AMFI", e);
+    static final class NavSnapshot {
+        static final NavSnapshot EMPTY = new NavSnapshot(NavStore.EMPTY, SchemeSearchIndex.EMPTY, Map.of(), null, null, null, null);
+
+        private final NavStore store;
+        private final SchemeSearchIndex searchIndex;
+        private final LocalDateTime loadedAt;
+        private final LocalDateTime checkedAt;
+        private final String etag;
+        private final String lastModified;
+        // Estimated heap of this snapshot, computed once at load time
+        private final Map<String, Object> heapEstimate;
+
+        NavSnapshot(NavStore store, SchemeSearchIndex searchIndex, Map<String, Object> heapEstimate,
+                    LocalDateTime loadedAt, LocalDateTime checkedAt,
+                    String etag, String lastModified) {
+            this.store = store;
+            this.searchIndex = searchIndex;
+            this.loadedAt = loadedAt;
+            this.checkedAt = checkedAt;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.heapEstimate = heapEstimate;
+        }
+
+        /**
+         * Same data, confirmed current at the given time (after a 304)
+         */
+        NavSnapshot checkedAt(LocalDateTime time) {
+            return new NavSnapshot(store, searchIndex, heapEstimate, loadedAt, time, etag, lastModified);
+        }
+
+        boolean isEmpty() {
+            return store.size() == 0;
         }
     }
 
     /**
-     * Parse AMFI NAV data and cache it
+     * Refresh NAV data in the background; request threads only ever read the current snapshot
      */
-    private void parseAndCacheNavData(String navData) {
-        // Store current NAVs as previous NAVs before updating
-        Map<String, BigDecimal> newPreviousNavs = new HashMap<>();
-        for (Map.Entry<String, MutualFundData> entry : navCache.entrySet()) {
-            if (entry.getValue() != null) {
-                newPreviousNavs.put(entry.getKey(), entry.getValue().getNav());
-            }
+    @Scheduled(fixedDelayString = "${investment.mutual-fund.refresh-ms:1800000}", initialDelay = 0)
+    public void refreshNavSnapshot() {
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return;
         }
-        previousNavCache = newPreviousNavs;
-
-        navCache.clear();
-        String[] lines = navData.split("\n");
-
-        // Pattern to match NAV data lines: Scheme Code;ISIN;ISIN2;Scheme Name;NAV;Date
-        Pattern pattern = Pattern.compile("^([^;]+);([^;]*);([^;]*);([^;]+);([\\d.]+);(.+)$");
-
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty() || line.startsWith(";") || !line.contains(";")) {
-                continue; // Skip empty lines, headers, or invalid lines
-            }
-
-            Matcher matcher = pattern.matcher(line);
-            if (matcher.matches()) {
+        // Download on the AMFI bulkhead so the shared scheduler thread is not held up. The flag is
+        // released when the submitted task completes, which also happens if it was never run.
+        try {
+            priceFetchExecutor.runAsync(getAmfiHost(), () -> {
                 try {
-                    String schemeCode = matcher.group(1).trim();
-                    String isin = matcher.group(2).trim();
-                    String schemeName = matcher.group(4).trim();
-                    String navStr = matcher.group(5).trim();
-                    String dateStr = matcher.group(6).trim();
-
-                    BigDecimal nav = new BigDecimal(navStr);
-                    LocalDateTime date = parseAmfiDate(dateStr);
-
-                    // Use scheme code as primary key, also store by ISIN if available
-                    MutualFundData mfData = new MutualFundData(schemeCode, isin, schemeName, nav, date);
-                    navCache.put(schemeCode, mfData);
-
-                    // Also store by ISIN if available
-                    if (!isin.isEmpty()) {
-                        navCache.put(isin, mfData);
-                    }
-
-                    // Store by scheme name (normalized) for search
-                    String normalizedName = normalizeSchemeName(schemeName);
-                    navCache.put(normalizedName, mfData);
-
-                } catch (Exception e) {
-                    System.err.println("Error parsing NAV line: " + line + " - " + e.getMessage());
+                    updateNavCache();
+                } finally {
+                    recordPendingNavHistory();
                 }
-            }
+            }).whenComplete((ignored, error) -> finishRefresh(error));
+        } catch (RuntimeException e) {
+            finishRefresh(e);
         }
+    }
 
-        System.out.println("Cached " + navCache.size() + " mutual fund NAV entries");
+    private void finishRefresh(Throwable error) {
+        if (error != null) {
+            System.err.println("Error refreshing mutual fund NAV data: " + error.getMessage());
+        }
+        CompletableFuture<Boolean> finished = nextRefresh;
+        nextRefresh = new CompletableFuture<>();
+        refreshInFlight.set(false);
+        finished.complete(!snapshot.get().isEmpty());
     }
 
     /**
-     * Parse AMFI date format (e.g., "05-Sep-2025")
+     * Start a NAV download unless one is already running, and return a future that completes
+     * with whether NAV data is loaded once that download has finished
      */
-    private LocalDateTime parseAmfiDate(String dateStr) {
+    public CompletableFuture<Boolean> warmUp() {
+        CompletableFuture<Boolean> finished = nextRefresh;
+        refreshNavSnapshot();
+        return finished;
+    }
+
+    /**
+     * Fetch NAV data from AMFI and publish a new snapshot. The request is conditional on the last
+     * download's ETag / Last-Modified, so an unchanged file costs a single 304.
+     */
+    private void updateNavCache() {
+        if (!circuitBreaker.allowRequest()) {
+            throw new RuntimeException("AMFI circuit breaker is open, skipping NAV download");
+        }
+        NavSnapshot current = snapshot.get();
+        long startTime = System.currentTimeMillis();
         try {
-            // Convert "05-Sep-2025" to LocalDateTime
-            String[] parts = dateStr.split("-");
-            if (parts.length == 3) {
-                int day = Integer.parseInt(parts[0]);
-                int month = getMonthNumber(parts[1]);
-                int year = Integer.parseInt(parts[2]);
-
-                return LocalDateTime.of(year, month, day, 0, 0);
+            // null when AMFI answered 304 Not Modified
+            NavSnapshot downloaded = restTemplate.execute(AMFI_NAV_URL, HttpMethod.GET, request -> {
+                if (!current.isEmpty()) {
+                    if (current.etag != null) {
+                        request.getHeaders().setIfNoneMatch(current.etag);
+                    }
+                    if (current.lastModified != null) {
+                        request.getHeaders().set("If-Modified-Since", current.lastModified);
+                    }
+                }
+            }, response -> readNavResponse(response, current));
+            snapshot.set(downloaded != null ? downloaded : current.checkedAt(LocalDateTime.now()));
+            circuitBreaker.recordSuccess();
+            providerHealthService.recordSuccess(ProviderHealthService.AMFI, System.currentTimeMillis() - startTime);
+            if (downloaded != null) {
+                pendingHistory = downloaded.store;
             }
-        } catch (Exception e) {
-            System.err.println("Error parsing date: " + dateStr);
+        } catch (RuntimeException e) {
+            // Any failure, not only HTTP ones, has to end a half-open trial
+            circuitBreaker.recordFailure();
+            providerHealthService.recordFailure(ProviderHealthService.AMFI, System.currentTimeMillis() - startTime, e.getMessage());
+            System.err.println("Error fetching NAV data from AMFI: " + e.getMessage());
+            throw new RuntimeException("Failed to fetch NAV data from AMFI", e);
         }
-        return LocalDateTime.now();
     }
 
     /**
-     * Convert month name to number
+     * Parse a NAVAll.txt response straight off the stream; null on 304 Not Modified
      */
-    private int getMonthNumber(String monthName) {
-        switch (monthName) {
-            case "Jan": return 1;
-            case "Feb": return 2;
-            case "Mar": return 3;
-            case "Apr": return 4;
-            case "May": return 5;
-            case "Jun": return 6;
-            case "Jul": return 7;
-            case "Aug": return 8;
-            case "Sep": return 9;
-            case "Oct": return 10;
-            case "Nov": return 11;
-            case "Dec": return 12;
-            default: return 1;
+    private NavSnapshot readNavResponse(ClientHttpResponse response, NavSnapshot current) throws IOException {
+        if (response.getStatusCode().value() == NOT_MODIFIED) {
+            notModifiedResponses.incrementAndGet();
+            System.out.println("AMFI NAV data not modified since " + current.lastModified);
+            return null;
+        }
+
+        MediaType contentType = response.getHeaders().getContentType();
+        Charset charset = contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset() : StandardCharsets.ISO_8859_1;
+        long startTime = System.currentTimeMillis();
+        NavSnapshot loaded;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), charset))) {
+            loaded = loadNavData(reader, response.getHeaders().getETag(),
+                    response.getHeaders().getFirst("Last-Modified"));
         }
+        System.out.println("Parsed AMFI NAV data in " + (System.currentTimeMillis() - startTime) + "ms");
+        return loaded;
     }
 
     /**
-     * Normalize scheme name for search
+     * Whether the NAV data has not been confirmed current for two refresh intervals
      */
-    private String normalizeSchemeName(String name) {
-        return name.toLowerCase()
-                   .replaceAll("[^a-zA-Z0-9\\s]", "")
-                   .replaceAll("\\s+", " ")
-                   .trim();
+    public boolean isNavDataStale() {
+        LocalDateTime checkedAt = snapshot.get().checkedAt;
+        return checkedAt == null || checkedAt.plus(Duration.ofMillis(refreshIntervalMs * 2)).isBefore(LocalDateTime.now());
     }
 
     /**
-     * Get current NAV for a mutual fund by scheme code, ISIN, or name
+     * When the cached NAV data was last confirmed current by AMFI, or null before the first load
      */
-    public BigDecimal getCurrentNav(String identifier) {
-        // Check if cache needs update
-        if (lastCacheUpdate == null ||
-            lastCacheUpdate.plusMinutes(CACHE_DURATION_MINUTES).isBefore(LocalDateTime.now())) {
-            updateNavCache();
+    public Long getDataCheckedAtMillis() {
+        LocalDateTime checkedAt = snapshot.get().checkedAt;
+        return checkedAt != null ? checkedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null;
+    }
+
+    /**
+     * Persist the NAVs of the last downloaded file if that has not succeeded yet. A failure keeps
+     * them pending for the next refresh and never affects the published snapshot.
+     */
+    private void recordPendingNavHistory() {
+        NavStore pending = pendingHistory;
+        if (pending == null) {
+            return;
         }
+        try {
+            navHistoryService.recordNavs(pending);
+            // Refreshes never overlap, so no newer download can have replaced it meanwhile
+            pendingHistory = null;
+        } catch (Exception e) {
+            System.err.println("Error storing NAV history, retrying after the next refresh: " + e.getMessage());
+        }
+    }
 
-        MutualFundData data = navCache.get(identifier);
-        if (data == null) {
-            // Try normalized search
-            String normalized = normalizeSchemeName(identifier);
-            data = navCache.get(normalized);
+    /**
+     * Parse AMFI NAV data into a new snapshot
+     */
+    private NavSnapshot loadNavData(BufferedReader reader, String etag, String lastModified) throws IOException {
+        NavStore.Builder builder = new NavStore.Builder();
+        AmfiNavParser.parse(reader, builder::add);
+        NavStore store = builder.build();
+        if (builder.skipped() > 0) {
+            System.err.println("Skipped " + builder.skipped() + " NAV lines with a non-numeric scheme code");
         }
 
-        return data != null ? data.getNav() : null;
+        // Build the search index here, off the request path
+        SchemeSearchIndex searchIndex = new SchemeSearchIndex(store);
+
+        // Modeled heap (object and array sizes, not a heap measurement) of the compact store, of
+        // the same data in the map-of-objects layout it replaced, and of the search index
+        Map<String, Object> heapEstimate = new LinkedHashMap<>();
+        heapEstimate.put("navStoreBytes", store.estimateHeapBytes());
+        heapEstimate.put("mapLayoutBytes", store.estimateMapLayoutBytes());
+        heapEstimate.put("searchIndexBytes", searchIndex.estimateHeapBytes());
+
+        LocalDateTime now = LocalDateTime.now();
+        System.out.println("Cached " + store.size() + " mutual fund schemes (~" + store.estimateHeapBytes() / 1024
+                + " KB, " + searchIndex.trigramCount() + " search trigrams)");
+        return new NavSnapshot(store, searchIndex, Collections.unmodifiableMap(heapEstimate), now, now, etag, lastModified);
+    }
+
+    /**
+     * Get current NAV for a mutual fund by scheme code, ISIN, or name
+     */
+    public BigDecimal getCurrentNav(String identifier) {
+        NavStore store = snapshot.get().store;
+        int slot = store.slotOf(identifier);
+        return slot >= 0 ? store.getNav(slot) : null;
     }
 
     /**
      * Get mutual fund data by identifier
      */
     public MutualFundData getMutualFundData(String identifier) {
-        // Check if cache needs update
-        if (lastCacheUpdate == null ||
-            lastCacheUpdate.plusMinutes(CACHE_DURATION_MINUTES).isBefore(LocalDateTime.now())) {
-            updateNavCache();
-        }
-
-        MutualFundData data = navCache.get(identifier);
-        if (data == null) {
-            // Try normalized search
-            String normalized = normalizeSchemeName(identifier);
-            data = navCache.get(normalized);
-        }
-
-        return data;
+        NavStore store = snapshot.get().store;
+        int slot = store.slotOf(identifier);
+        return slot >= 0 ? store.toMutualFundData(slot) : null;
     }
 
     /**
-     * Search mutual funds by name
+     * Search mutual funds by name, best matches first (see SchemeSearchIndex for the ranking)
      */
     public List<Map<String, Object>> searchMutualFunds(String query) {
         if (query == null || query.trim().length() < 2) {
             return new ArrayList<>();
         }
 
-        // Check if cache needs update
-        if (lastCacheUpdate == null ||
-            lastCacheUpdate.plusMinutes(CACHE_DURATION_MINUTES).isBefore(LocalDateTime.now())) {
-            updateNavCache();
-        }
-
-        String searchQuery = query.toLowerCase().trim();
-        return navCache.values().stream()
-            .filter(data -> data.getSchemeName().toLowerCase().contains(searchQuery))
-            .distinct()
-            .limit(20)
+        NavSnapshot current = snapshot.get();
+        return Arrays.stream(current.searchIndex.search(query, 20))
+            .mapToObj(current.store::toMutualFundData)
             .map(data -> {
                 Map<String, Object> result = new HashMap<>();
                 result.put("symbol", data.getSchemeCode());
@@ -283,29 +384,23 @@ public class MutualFundService {
      * Check if mutual fund service is available
      */
     public boolean isServiceAvailable() {
-        try {
-            updateNavCache();
-            return !navCache.isEmpty();
-        } catch (Exception e) {
-            return false;
-        }
+        return !circuitBreaker.isOpen() && !snapshot.get().isEmpty();
     }
 
     /**
-     * Calculate daily return for a mutual fund
+     * Calculate daily return for a mutual fund: latest NAV against the previous published NAV
      */
     public BigDecimal getDailyReturn(String identifier) {
-        BigDecimal currentNav = getCurrentNav(identifier);
-        BigDecimal previousNav = previousNavCache.get(identifier);
-
-        if (currentNav == null || previousNav == null || previousNav.compareTo(BigDecimal.ZERO) == 0) {
-            return null; // Cannot calculate return
-        }
+        MutualFundData data = getMutualFundData(identifier);
+        return data != null ? navHistoryService.getReturn(data.getSchemeCode(), "1D") : null;
+    }
 
-        // Calculate percentage change: (current - previous) / previous * 100
-        BigDecimal change = currentNav.subtract(previousNav);
-        return change.divide(previousNav, 4, BigDecimal.ROUND_HALF_UP)
-                    .multiply(new BigDecimal("100"));
+    /**
+     * 1D/1W/1M/1Y/3Y returns of a mutual fund from the stored NAV history, or null if unknown
+     */
+    public Map<String, BigDecimal> getPeriodReturns(String identifier) {
+        MutualFundData data = getMutualFundData(identifier);
+        return data != null ? navHistoryService.getReturns(data.getSchemeCode()) : null;
     }
 
     /**
@@ -323,20 +418,39 @@ public class MutualFundService {
         result.put("name", data.getSchemeName());
         result.put("nav", data.getNav());
         result.put("date", data.getDate());
-        result.put("dailyReturn", getDailyReturn(identifier));
+        Map<String, BigDecimal> returns = navHistoryService.getReturns(data.getSchemeCode());
+        result.put("dailyReturn", returns.get("1D"));
+        result.put("returns", returns);
         result.put("type", "MUTUAL_FUND");
 
         return result;
     }
 
+    /**
+     * Host used as the rate-limit key for AMFI requests
+     */
+    public String getAmfiHost() {
+        return URI.create(AMFI_NAV_URL).getHost();
+    }
+
     /**
      * Get service status
      */
     public Map<String, Object> getServiceStatus() {
         Map<String, Object> status = new HashMap<>();
+        NavSnapshot current = snapshot.get();
         status.put("available", isServiceAvailable());
-        status.put("cachedEntries", navCache.size());
-        status.put("lastUpdate", lastCacheUpdate);
+        status.put("cachedEntries", current.store.size());
+        status.put("heap", current.heapEstimate);
+        status.put("loadedAt", current.loadedAt);
+        status.put("lastUpdate", current.checkedAt);
+        status.put("stale", isNavDataStale());
+        status.put("refreshing", refreshInFlight.get());
+        status.put("lastModified", current.lastModified);
+        status.put("notModifiedResponses", notModifiedResponses.get());
+        status.put("circuitBreaker", circuitBreaker.getStats());
+        status.put("navHistory", navHistoryService.getStats());
+        status.put("navHistoryPending", pendingHistory != null);
         return status;
     }
 }
\ No newline at end of file
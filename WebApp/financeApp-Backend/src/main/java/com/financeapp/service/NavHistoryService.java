@@ -0,0 +1,210 @@
+package com.financeapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Daily NAV history of mutual fund schemes and the period returns derived from it.
+ * Each AMFI publish is written to nav_history in one JDBC batch, containing only schemes whose
+ * NAV date moved on. Returns are computed from a window of recent NAVs held in memory per
+ * scheme, loaded from the table the first time a scheme is asked for.
+ */
+@Service
+public class NavHistoryService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO nav_history (scheme_code, nav_date, nav) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE nav = VALUES(nav)";
+
+    // Lookback per period; 1D is the previous published NAV rather than a calendar offset
+    private static final Map<String, Period> PERIODS = new LinkedHashMap<>();
+    static {
+        PERIODS.put("1D", Period.ZERO);
+        PERIODS.put("1W", Period.ofWeeks(1));
+        PERIODS.put("1M", Period.ofMonths(1));
+        PERIODS.put("1Y", Period.ofYears(1));
+        PERIODS.put("3Y", Period.ofYears(3));
+    }
+
+    // A base NAV may be this many days older than the lookback date (holidays, missing publishes)
+    private static final int MAX_BASE_GAP_DAYS = 7;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Days of NAVs kept in memory per scheme; must cover the longest period (3Y)
+    @Value("${investment.nav-history.window-days:1110}")
+    private int windowDays;
+
+    @Value("${investment.nav-history.batch-size:1000}")
+    private int batchSize;
+
+    // Latest stored NAV date per scheme code, loaded from the table before the first write
+    private Map<Integer, LocalDate> lastStoredDates;
+
+    // Recent NAVs of the schemes that have been asked for
+    private final Map<Integer, NavigableMap<LocalDate, BigDecimal>> windows = new ConcurrentHashMap<>();
+
+    private volatile int lastBatchSize = 0;
+
+    /**
+     * Store the NAVs of one AMFI publish. Only schemes with a NAV date after their last stored
+     * one are written; returns the number of rows written.
+     */
+    synchronized int recordNavs(NavStore store) {
+        if (lastStoredDates == null) {
+            Map<Integer, LocalDate> stored = new HashMap<>();
+            jdbcTemplate.query("SELECT scheme_code, MAX(nav_date) FROM nav_history GROUP BY scheme_code",
+                    (RowCallbackHandler) rs -> stored.put(rs.getInt(1), rs.getDate(2).toLocalDate()));
+            lastStoredDates = stored;
+        }
+
+        List<NavRow> rows = new ArrayList<>();
+        for (int slot = 0; slot < store.size(); slot++) {
+            int schemeCode = store.getSchemeCode(slot);
+            LocalDate navDate = store.getNavDate(slot);
+            LocalDate lastStored = lastStoredDates.get(schemeCode);
+            if (lastStored == null || navDate.isAfter(lastStored)) {
+                rows.add(new NavRow(schemeCode, navDate, store.getNav(slot)));
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        long startTime = System.currentTimeMillis();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, batchSize, (ps, row) -> {
+            ps.setInt(1, row.schemeCode);
+            ps.setDate(2, Date.valueOf(row.navDate));
+            ps.setBigDecimal(3, row.nav);
+        });
+
+        for (NavRow row : rows) {
+            lastStoredDates.put(row.schemeCode, row.navDate);
+            NavigableMap<LocalDate, BigDecimal> window = windows.get(row.schemeCode);
+            if (window != null) {
+                window.put(row.navDate, row.nav);
+                window.headMap(LocalDate.now().minusDays(windowDays)).clear();
+            }
+        }
+        lastBatchSize = rows.size();
+        System.out.println("Stored " + rows.size() + " NAVs in nav_history in " + (System.currentTimeMillis() - startTime) + "ms");
+        return rows.size();
+    }
+
+    /**
+     * 1D, 1W, 1M, 1Y and 3Y returns of a scheme in percent, measured from its latest stored NAV.
+     * 3Y is annualized (CAGR); the others are absolute. A period is null when the history does
+     * not reach back far enough.
+     */
+    public Map<String, BigDecimal> getReturns(String schemeCode) {
+        Map<String, BigDecimal> returns = new LinkedHashMap<>();
+        NavigableMap<LocalDate, BigDecimal> window = getWindow(schemeCode);
+        for (String period : PERIODS.keySet()) {
+            returns.put(period, window != null ? computeReturn(window, period) : null);
+        }
+        return returns;
+    }
+
+    /**
+     * Return of a scheme over one period (see getReturns), or null if unavailable
+     */
+    public BigDecimal getReturn(String schemeCode, String period) {
+        NavigableMap<LocalDate, BigDecimal> window = getWindow(schemeCode);
+        return window != null && PERIODS.containsKey(period) ? computeReturn(window, period) : null;
+    }
+
+    private BigDecimal computeReturn(NavigableMap<LocalDate, BigDecimal> window, String period) {
+        Map.Entry<LocalDate, BigDecimal> latest = window.lastEntry();
+        if (latest == null) {
+            return null;
+        }
+
+        Map.Entry<LocalDate, BigDecimal> base;
+        if ("1D".equals(period)) {
+            base = window.lowerEntry(latest.getKey());
+        } else {
+            LocalDate target = latest.getKey().minus(PERIODS.get(period));
+            base = window.floorEntry(target);
+            if (base != null && base.getKey().isBefore(target.minusDays(MAX_BASE_GAP_DAYS))) {
+                base = null;
+            }
+        }
+        if (base == null || base.getValue().signum() == 0) {
+            return null;
+        }
+
+        if ("3Y".equals(period)) {
+            double growth = latest.getValue().doubleValue() / base.getValue().doubleValue();
+            return BigDecimal.valueOf((Math.pow(growth, 1.0 / 3) - 1) * 100).setScale(4, RoundingMode.HALF_UP);
+        }
+        // Calculate percentage change: (current - previous) / previous * 100
+        return latest.getValue().subtract(base.getValue())
+                .divide(base.getValue(), 4, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100"));
+    }
+
+    private NavigableMap<LocalDate, BigDecimal> getWindow(String schemeCode) {
+        Integer code = parseSchemeCode(schemeCode);
+        if (code == null) {
+            return null;
+        }
+        return windows.computeIfAbsent(code, k -> {
+            NavigableMap<LocalDate, BigDecimal> window = new ConcurrentSkipListMap<>();
+            jdbcTemplate.query("SELECT nav_date, nav FROM nav_history WHERE scheme_code = ? AND nav_date >= ? ORDER BY nav_date",
+                    (RowCallbackHandler) rs -> window.put(rs.getDate(1).toLocalDate(), rs.getBigDecimal(2)),
+                    k, Date.valueOf(LocalDate.now().minusDays(windowDays)));
+            return window;
+        });
+    }
+
+    private static Integer parseSchemeCode(String schemeCode) {
+        if (schemeCode == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(schemeCode.trim());
+        } catch (NumberFormatException e) {
+            return null; // Not an AMFI scheme code (ISIN or name)
+        }
+    }
+
+    /**
+     * Get history statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("schemesInMemory", windows.size());
+        stats.put("windowDays", windowDays);
+        stats.put("lastBatchSize", lastBatchSize);
+        return stats;
+    }
+
+    private static final class NavRow {
+        private final int schemeCode;
+        private final LocalDate navDate;
+        private final BigDecimal nav;
+
+        NavRow(int schemeCode, LocalDate navDate, BigDecimal nav) {
+            this.schemeCode = schemeCode;
+            this.navDate = navDate;
+            this.nav = nav;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.financeapp.service;
+
+import com.financeapp.service.MutualFundService.MutualFundData;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Compact, immutable store of one NAVAll.txt publish.
+ * Each scheme occupies one slot in parallel arrays: NAVs as longs scaled by 10^4, NAV dates as
+ * epoch days, and the scheme name and ISIN stored once. Scheme codes map to slots through an
+ * open-addressing int map; ISINs and normalized names are secondary indexes onto the same slots
+ * that hold only hashes, so no key string is stored twice.
+ * MutualFundData objects are only created when a caller asks for one.
+ */
+final class NavStore {
+
+    // AMFI publishes NAVs with up to four decimals
+    static final int NAV_SCALE = 4;
+
+    static final NavStore EMPTY = new Builder().build();
+
+    private final int size;
+    private final int[] schemeCodes;
+    private final long[] navs;
+    private final int[] navDays;
+    private final String[] names;
+    private final String[] isins;
+
+    private final IntSlotMap codeIndex;
+    private final StringSlotIndex isinIndex;
+    private final StringSlotIndex nameIndex;
+
+    private NavStore(Builder builder) {
+        size = builder.size;
+        schemeCodes = Arrays.copyOf(builder.schemeCodes, size);
+        navs = Arrays.copyOf(builder.navs, size);
+        navDays = Arrays.copyOf(builder.navDays, size);
+        names = Arrays.copyOf(builder.names, size);
+        isins = Arrays.copyOf(builder.isins, size);
+
+        codeIndex = new IntSlotMap(size);
+        isinIndex = new StringSlotIndex(size, (slot, isin) -> isin.equals(isins[slot]));
+        nameIndex = new StringSlotIndex(size, (slot, name) -> AmfiNavParser.normalizesTo(names[slot], name));
+        for (int slot = 0; slot < size; slot++) {
+            codeIndex.put(schemeCodes[slot], slot);
+            if (isins[slot] != null) {
+                isinIndex.put(isins[slot], slot);
+            }
+            nameIndex.put(AmfiNavParser.normalizeSchemeName(names[slot]), slot);
+        }
+    }
+
+    /**
+     * Slot of a scheme by scheme code, ISIN, or (normalized) scheme name; -1 if unknown
+     */
+    int slotOf(String identifier) {
+        if (identifier == null || identifier.isEmpty()) {
+            return -1;
+        }
+        if (isDigits(identifier)) {
+            int slot = codeIndex.get(Integer.parseInt(identifier));
+            if (slot >= 0) {
+                return slot;
+            }
+        }
+        int slot = isinIndex.get(identifier);
+        if (slot < 0) {
+            slot = nameIndex.get(identifier);
+        }
+        if (slot < 0) {
+            slot = nameIndex.get(AmfiNavParser.normalizeSchemeName(identifier));
+        }
+        return slot;
+    }
+
+    int size() { return size; }
+    int getSchemeCode(int slot) { return schemeCodes[slot]; }
+    String getSchemeName(int slot) { return names[slot]; }
+    String getIsin(int slot) { return isins[slot] != null ? isins[slot] : ""; }
+    BigDecimal getNav(int slot) { return BigDecimal.valueOf(navs[slot], NAV_SCALE); }
+    LocalDate getNavDate(int slot) { return LocalDate.ofEpochDay(navDays[slot]); }
+
+    MutualFundData toMutualFundData(int slot) {
+        return new MutualFundData(String.valueOf(schemeCodes[slot]), getIsin(slot), names[slot],
+                getNav(slot), getNavDate(slot).atStartOfDay());
+    }
+
+    /**
+     * Approximate retained heap of this store (64-bit JVM, compressed oops, Latin-1 strings)
+     */
+    long estimateHeapBytes() {
+        long bytes = array(4L * size) * 2   // scheme codes, NAV days
+                + array(8L * size)             // NAVs
+                + array(4L * size) * 2         // name and ISIN references
+                + codeIndex.estimateHeapBytes() + isinIndex.estimateHeapBytes() + nameIndex.estimateHeapBytes();
+        for (int slot = 0; slot < size; slot++) {
+            bytes += string(names[slot].length());
+            if (isins[slot] != null) {
+                bytes += string(isins[slot].length());
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Approximate heap the same data took as a HashMap of MutualFundData registered under scheme
+     * code, ISIN and normalized name (the layout this store replaced)
+     */
+    long estimateMapLayoutBytes() {
+        long entries = 0;
+        long bytes = 0;
+        for (int slot = 0; slot < size; slot++) {
+            bytes += 32                                             // MutualFundData
+                    + 40                                            // BigDecimal NAV
+                    + string(String.valueOf(schemeCodes[slot]).length())
+                    + string(names[slot].length())
+                    + string(AmfiNavParser.normalizeSchemeName(names[slot]).length());
+            entries += 2;
+            if (isins[slot] != null) {
+                bytes += string(isins[slot].length());
+                entries++;
+            }
+        }
+        long table = Integer.highestOneBit((int) Math.max(1, entries * 4 / 3)) * 2L;
+        return bytes + entries * 32 /* HashMap.Node */ + array(4 * table);
+    }
+
+    private static long array(long payloadBytes) {
+        return align(16 + payloadBytes);
+    }
+
+    private static long string(int length) {
+        return 24 + array(length);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static boolean isDigits(String text) {
+        if (text.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects parsed schemes; a scheme code seen again replaces its earlier line
+     */
+    static final class Builder {
+        private int size;
+        private int[] schemeCodes = new int[1024];
+        private long[] navs = new long[1024];
+        private int[] navDays = new int[1024];
+        private String[] names = new String[1024];
+        private String[] isins = new String[1024];
+        private final IntSlotMap seen = new IntSlotMap(1024);
+        private int skipped;
+
+        void add(MutualFundData data) {
+            String code = data.getSchemeCode();
+            if (!isDigits(code)) {
+                skipped++;
+                return;
+            }
+            int schemeCode = Integer.parseInt(code);
+            int slot = seen.get(schemeCode);
+            if (slot < 0) {
+                if (size == schemeCodes.length) {
+                    grow();
+                }
+                slot = size++;
+                seen.put(schemeCode, slot);
+            }
+
+            schemeCodes[slot] = schemeCode;
+            navs[slot] = data.getNav().setScale(NAV_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+            navDays[slot] = (int) data.getDate().toLocalDate().toEpochDay();
+            names[slot] = data.getSchemeName();
+            isins[slot] = data.getIsin().isEmpty() ? null : data.getIsin();
+        }
+
+        int skipped() {
+            return skipped;
+        }
+
+        NavStore build() {
+            return new NavStore(this);
+        }
+
+        private void grow() {
+            int capacity = schemeCodes.length * 2;
+            schemeCodes = Arrays.copyOf(schemeCodes, capacity);
+            navs = Arrays.copyOf(navs, capacity);
+            navDays = Arrays.copyOf(navDays, capacity);
+            names = Arrays.copyOf(names, capacity);
+            isins = Arrays.copyOf(isins, capacity);
+        }
+    }
+
+    /**
+     * Open-addressing int -> slot map with linear probing; slots are stored +1 so 0 marks empty
+     */
+    private static final class IntSlotMap {
+        private int[] keys;
+        private int[] slots;
+        private int mask;
+        private int count;
+
+        IntSlotMap(int expected) {
+            allocate(tableSize(expected));
+        }
+
+        int get(int key) {
+            for (int i = mix(key) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return slots[i] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(int key, int slot) {
+            if ((count + 1) * 2 > keys.length) {
+                int[] oldKeys = keys;
+                int[] oldSlots = slots;
+                allocate(keys.length * 2);
+                count = 0;
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldSlots[i] != 0) {
+                        put(oldKeys[i], oldSlots[i] - 1);
+                    }
+                }
+            }
+            int i = mix(key) & mask;
+            while (slots[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (slots[i] == 0) {
+                count++;
+            }
+            keys[i] = key;
+            slots[i] = slot + 1;
+        }
+
+        long estimateHeapBytes() {
+            return array(4L * keys.length) * 2;
+        }
+
+        private void allocate(int capacity) {
+            keys = new int[capacity];
+            slots = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Whether a slot's key, derived from the store's own arrays, equals the given key
+     */
+    private interface SlotKeyMatcher {
+        boolean matches(int slot, String key);
+    }
+
+    /**
+     * Open-addressing String -> slot index that keeps only key hashes and slots; a hash match is
+     * confirmed against the store's own arrays without building the slot's key, so keys are
+     * neither duplicated nor allocated during a probe
+     */
+    private static final class StringSlotIndex {
+        private final SlotKeyMatcher keyMatcher;
+        private final int[] hashes;
+        private final int[] slots;
+        private final int mask;
+
+        StringSlotIndex(int expected, SlotKeyMatcher keyMatcher) {
+            this.keyMatcher = keyMatcher;
+            int capacity = tableSize(expected);
+            hashes = new int[capacity];
+            slots = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        int get(String key) {
+            int hash = key.hashCode();
+            for (int i = mix(hash) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                if (hashes[i] == hash && keyMatcher.matches(slots[i] - 1, key)) {
+                    return slots[i] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(String key, int slot) {
+            int hash = key.hashCode();
+            int i = mix(hash) & mask;
+            while (slots[i] != 0 && !(hashes[i] == hash && keyMatcher.matches(slots[i] - 1, key))) {
+                i = (i + 1) & mask;
+            }
+            hashes[i] = hash;
+            slots[i] = slot + 1;
+        }
+
+        long estimateHeapBytes() {
+            return array(4L * hashes.length) * 2;
+        }
+
+        private static int mix(int hash) {
+            int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private static int tableSize(int expected) {
+        return Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+    }
+}
@@ -0,0 +1,122 @@
+package com.financeapp.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Symbols a provider could not resolve, with exponential backoff before they are tried again.
+ * The first failure suppresses a symbol for {@code initialBackoffMillis}; every further failure
+ * doubles that, up to {@code maxBackoffMillis}. A successful resolution forgets the symbol.
+ * Keys come from whatever symbols callers ask for, so the cache is bounded: a symbol that has
+ * not failed again within {@code maxBackoffMillis} after its backoff ended is forgotten, and
+ * at {@code maxEntries} the entry closest to the end of its backoff is evicted first.
+ */
+public class NegativeSymbolCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public NegativeSymbolCache(long initialBackoffMillis, long maxBackoffMillis) {
+        this(initialBackoffMillis, maxBackoffMillis, DEFAULT_MAX_ENTRIES);
+    }
+
+    public NegativeSymbolCache(long initialBackoffMillis, long maxBackoffMillis, int maxEntries) {
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Whether the symbol failed to resolve recently and is still backing off
+     */
+    public boolean isSuppressed(String symbol) {
+        Entry entry = entries.get(symbol);
+        if (entry == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (isForgotten(entry, now)) {
+            entries.remove(symbol, entry);
+            return false;
+        }
+        return now < entry.retryAtMillis;
+    }
+
+    /**
+     * Record a failed resolution; returns how long the symbol is now suppressed for
+     */
+    public long recordFailure(String symbol) {
+        if (entries.size() >= maxEntries && !entries.containsKey(symbol)) {
+            makeRoom();
+        }
+        Entry entry = entries.compute(symbol, (key, previous) -> {
+            int failures = previous != null && !isForgotten(previous, System.currentTimeMillis()) ? previous.failures + 1 : 1;
+            long backoff = initialBackoffMillis << Math.min(failures - 1, 30);
+            backoff = backoff <= 0 ? maxBackoffMillis : Math.min(backoff, maxBackoffMillis);
+            return new Entry(failures, System.currentTimeMillis() + backoff, backoff);
+        });
+        return entry.backoffMillis;
+    }
+
+    public void recordSuccess(String symbol) {
+        entries.remove(symbol);
+    }
+
+    // Long enough past its backoff that the failure history no longer matters
+    private boolean isForgotten(Entry entry, long now) {
+        return now - entry.retryAtMillis >= maxBackoffMillis;
+    }
+
+    /**
+     * Drop forgotten entries; if the cache is still full, evict the entry whose backoff ends first
+     */
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> isForgotten(entry, now));
+        while (entries.size() >= maxEntries) {
+            Map.Entry<String, Entry> oldest = null;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (oldest == null || candidate.getValue().retryAtMillis < oldest.getValue().retryAtMillis) {
+                    oldest = candidate;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("trackedSymbols", entries.size());
+        stats.put("maxTrackedSymbols", maxEntries);
+        stats.put("evictions", evictions.get());
+        stats.put("suppressedSymbols", entries.values().stream().filter(e -> now < e.retryAtMillis).count());
+        stats.put("initialBackoffMs", initialBackoffMillis);
+        stats.put("maxBackoffMs", maxBackoffMillis);
+        return stats;
+    }
+
+    private static final class Entry {
+        private final int failures;
+        private final long retryAtMillis;
+        private final long backoffMillis;
+
+        Entry(int failures, long retryAtMillis, long backoffMillis) {
+            this.failures = failures;
+            this.retryAtMillis = retryAtMillis;
+            this.backoffMillis = backoffMillis;
+        }
+    }
+}
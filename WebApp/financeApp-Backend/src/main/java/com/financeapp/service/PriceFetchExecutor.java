@@ -0,0 +1,336 @@
+package com.financeapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for outbound price fetches.
+ * Each host gets its own pool (a bulkhead), so a slow provider can only exhaust its own
+ * threads and queue. The pool size caps the number of requests in flight per host, every
+ * request first takes a token from its host's token bucket, and each request gets its own
+ * deadline from the moment it is submitted, so time spent queued behind other requests
+ * counts against it. A request that misses its deadline while queued never runs; one that
+ * misses it while running has its worker interrupted. A socket read does not react to that,
+ * but the HTTP client's read timeout (below the deadline) ends it, so the bulkhead slot
+ * comes back. While a host's circuit breaker is open its requests take no token.
+ */
+@Service
+public class PriceFetchExecutor {
+
+    // Maximum number of concurrent outbound requests per host (pool size)
+    @Value("${investment.price-fetch.max-in-flight:8}")
+    private int maxInFlight;
+
+    // Requests a host's bulkhead may queue before new ones are rejected
+    @Value("${investment.price-fetch.max-queued:200}")
+    private int maxQueued;
+
+    // Sustained request rate allowed per host
+    @Value("${investment.price-fetch.requests-per-second:5}")
+    private double requestsPerSecond;
+
+    // Requests a host may receive back-to-back before the rate limit applies
+    @Value("${investment.price-fetch.burst:10}")
+    private int burst;
+
+    // Deadline for a single request, measured from when it is submitted
+    @Value("${investment.price-fetch.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    // Per-host overrides of the limits above, registered by price providers with their own limits
+    private final Map<String, HostLimits> limitsByHost = new ConcurrentHashMap<>();
+    private final Map<String, ThreadPoolExecutor> executorsByHost = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> bucketsByHost = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> breakersByHost = new ConcurrentHashMap<>();
+    private volatile boolean shutdown = false;
+
+    // Host whose rate-limit token the current worker took at dispatch and has not used yet
+    private static final ThreadLocal<String> prepaidHost = new ThreadLocal<>();
+    // Host of the pool task running on the current thread; unlike prepaidHost it stays set
+    // after the token is used
+    private static final ThreadLocal<String> workerHost = new ThreadLocal<>();
+
+    @PreDestroy
+    public void shutdown() {
+        shutdown = true;
+        executorsByHost.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    /**
+     * Run one fetch per key concurrently against a single host.
+     * Results are returned in the order of the input keys; a key whose fetch failed
+     * or missed its deadline maps to null. Called from a task already running on the host's
+     * pool, the fetches run one after another on that worker instead (see {@link #fetch}).
+     */
+    public <K, V> Map<K, V> fetchAll(String host, List<K> keys, Function<K, V> fetcher) {
+        return awaitAll(host, submitAll(host, keys, fetcher));
+    }
+
+    /**
+     * Start one fetch per key without waiting, so fetches against several hosts can run at
+     * the same time; pass the result to {@link #awaitAll}
+     */
+    public <K, V> Map<K, CompletableFuture<V>> submitAll(String host, List<K> keys, Function<K, V> fetcher) {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            futures.put(key, submit(host, () -> fetcher.apply(key), true));
+        }
+        return futures;
+    }
+
+    /**
+     * Wait for fetches started with {@link #submitAll}; failed or timed out keys map to null
+     */
+    public <K, V> Map<K, V> awaitAll(String host, Map<K, CompletableFuture<V>> futures) {
+        Map<K, V> results = new LinkedHashMap<>();
+        futures.forEach((key, future) -> results.put(key, await(host, key, future)));
+        return results;
+    }
+
+    /**
+     * Give a host its own concurrency and rate limits instead of the shared defaults.
+     * Must be called before the host's first request.
+     */
+    public void configureHost(String host, int maxInFlight, double requestsPerSecond, int burst) {
+        limitsByHost.put(host, new HostLimits(maxInFlight, requestsPerSecond, burst));
+    }
+
+    /**
+     * Register the circuit breaker guarding a host's calls. While it is open, requests for the
+     * host skip the rate limit: they are short-circuited without reaching the host, so they
+     * must not use up tokens that real requests need once it closes.
+     */
+    public void registerCircuitBreaker(String host, CircuitBreaker breaker) {
+        breakersByHost.put(host, breaker);
+    }
+
+    /**
+     * Run a single fetch on the pool, subject to the same rate limit and deadline.
+     * Returns null if the fetch failed or timed out. A task already running on the host's pool
+     * runs the fetch itself after taking a token, under its own deadline: waiting on another
+     * task of the same pool could leave every worker waiting on work queued behind it.
+     */
+    public <V> V fetch(String host, Supplier<V> fetcher) {
+        return await(host, host, submit(host, fetcher, true));
+    }
+
+    /**
+     * Run a background task on the pool without waiting for it; failures are logged.
+     * Nobody waits for it, so it has no deadline and is never interrupted. The returned future
+     * completes when the task has finished, or exceptionally if the bulkhead rejected it.
+     */
+    public CompletableFuture<Void> runAsync(String host, Runnable task) {
+        CompletableFuture<Void> done = submit(host, () -> {
+            task.run();
+            return null;
+        }, false);
+        done.whenComplete((ignored, error) -> {
+            if (error != null) {
+                System.err.println("Background task on " + host + " failed: " + error.getMessage());
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Block the calling thread until the host's rate limit allows one more request.
+     * Inside a fetch submitted for the same host, the first call uses the token taken at
+     * dispatch, so a request is only charged once; later calls are follow-up requests.
+     */
+    public void throttle(String host) {
+        if (host.equals(prepaidHost.get())) {
+            prepaidHost.remove();
+            return;
+        }
+        if (isCircuitOpen(host)) {
+            return;
+        }
+        bucketFor(host).acquire();
+    }
+
+    /**
+     * Whether the current thread is running a task on the host's pool
+     */
+    public boolean isWorkerFor(String host) {
+        return host.equals(workerHost.get());
+    }
+
+    private <V> CompletableFuture<V> submit(String host, Supplier<V> fetcher, boolean withDeadline) {
+        CompletableFuture<V> result = new CompletableFuture<>();
+        if (withDeadline && isWorkerFor(host)) {
+            try {
+                throttle(host);
+                result.complete(fetcher.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+            return result;
+        }
+        if (withDeadline) {
+            // Deadline starts at submission, so queue wait and the rate limit count against it
+            result.orTimeout(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        try {
+            Future<?> worker = executorFor(host).submit(() -> {
+                if (result.isDone()) {
+                    // Missed its deadline while queued: nobody is waiting for it any more
+                    return;
+                }
+                try {
+                    workerHost.set(host);
+                    if (!isCircuitOpen(host)) {
+                        bucketFor(host).acquire();
+                        prepaidHost.set(host);
+                    }
+                    result.complete(fetcher.get());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    prepaidHost.remove();
+                    workerHost.remove();
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (error instanceof TimeoutException) {
+                    worker.cancel(true);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Bulkhead full: fail fast instead of queueing behind a slow provider
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private boolean isCircuitOpen(String host) {
+        CircuitBreaker breaker = breakersByHost.get(host);
+        return breaker != null && breaker.isOpen();
+    }
+
+    private ThreadPoolExecutor executorFor(String host) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Price fetch executor is shut down");
+        }
+        return executorsByHost.computeIfAbsent(host, h -> {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "price-fetch-" + h + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            HostLimits limits = limitsByHost.get(h);
+            int poolSize = Math.max(1, limits != null ? limits.maxInFlight : maxInFlight);
+            return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(Math.max(1, maxQueued)), threadFactory);
+        });
+    }
+
+    private <V> V await(String host, Object key, CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                System.err.println("Price fetch for " + key + " on " + host + " exceeded " + requestTimeoutMs + "ms deadline");
+            } else {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                System.err.println("Price fetch for " + key + " on " + host + " failed: " + cause.getMessage());
+            }
+            return null;
+        }
+    }
+
+    private TokenBucket bucketFor(String host) {
+        return bucketsByHost.computeIfAbsent(host, h -> {
+            HostLimits limits = limitsByHost.get(h);
+            return limits != null ? new TokenBucket(limits.requestsPerSecond, limits.burst) : new TokenBucket(requestsPerSecond, burst);
+        });
+    }
+
+    /**
+     * Get executor configuration for status reporting
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxInFlight", maxInFlight);
+        stats.put("requestsPerSecondPerHost", requestsPerSecond);
+        stats.put("requestTimeoutMs", requestTimeoutMs);
+        Map<String, Object> bulkheads = new LinkedHashMap<>();
+        executorsByHost.forEach((host, pool) -> {
+            Map<String, Object> bulkhead = new LinkedHashMap<>();
+            bulkhead.put("active", pool.getActiveCount());
+            bulkhead.put("queued", pool.getQueue().size());
+            bulkheads.put(host, bulkhead);
+        });
+        stats.put("bulkheads", bulkheads);
+        return stats;
+    }
+
+    private static final class HostLimits {
+        private final int maxInFlight;
+        private final double requestsPerSecond;
+        private final int burst;
+
+        HostLimits(int maxInFlight, double requestsPerSecond, int burst) {
+            this.maxInFlight = maxInFlight;
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    /**
+     * Simple blocking token bucket: refills continuously at {@code ratePerSecond} up to {@code capacity}
+     */
+    static class TokenBucket {
+        private final double ratePerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double ratePerSecond, int capacity) {
+            this.ratePerNano = Math.max(ratePerSecond, 0.001) / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(1, capacity);
+            this.tokens = this.capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        void acquire() {
+            while (true) {
+                long waitNanos;
+                synchronized (this) {
+                    long now = System.nanoTime();
+                    tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+                    lastRefill = now;
+                    if (tokens >= 1) {
+                        tokens -= 1;
+                        return;
+                    }
+                    waitNanos = (long) Math.ceil((1 - tokens) / ratePerNano);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for rate limit", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.financeapp.service;
+
+import com.financeapp.model.PriceHistory;
+import com.financeapp.repository.PriceHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Local store of daily OHLC bars per symbol.
+ * Bars are persisted in price_history; the most recent closes of each symbol are also
+ * kept in memory so historical lookups don't need a database or network round trip.
+ */
+@Service
+public class PriceHistoryService {
+
+    @Autowired
+    private PriceHistoryRepository priceHistoryRepository;
+
+    // Number of recent days of closes kept in memory per symbol
+    @Value("${investment.price-history.window-days:400}")
+    private int windowDays;
+
+    // Recent closes per symbol, loaded lazily from the table
+    private final Map<String, NavigableMap<LocalDate, BigDecimal>> recentCloses = new ConcurrentHashMap<>();
+
+    // Symbols known to have been backfilled, so the existence check hits the table once
+    private final Set<String> symbolsWithHistory = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Check whether a symbol has been backfilled
+     */
+    public boolean hasHistory(String symbol) {
+        String key = symbol.toUpperCase();
+        if (symbolsWithHistory.contains(key)) {
+            return true;
+        }
+        if (priceHistoryRepository.existsBySymbol(key)) {
+            symbolsWithHistory.add(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Closing price on the given date, or on the last trading day before it
+     */
+    public BigDecimal getCloseOnOrBefore(String symbol, LocalDate date) {
+        String key = symbol.toUpperCase();
+        NavigableMap<LocalDate, BigDecimal> window = getWindow(key);
+        if (!window.isEmpty() && !date.isBefore(window.firstKey())) {
+            Map.Entry<LocalDate, BigDecimal> entry = window.floorEntry(date);
+            return entry != null ? entry.getValue() : null;
+        }
+
+        // Older than the in-memory window: fall back to the table
+        Optional<PriceHistory> bar = priceHistoryRepository
+                .findTopBySymbolAndTradeDateLessThanEqualOrderByTradeDateDesc(key, date);
+        return bar.map(PriceHistory::getClosePrice).orElse(null);
+    }
+
+    /**
+     * Daily bars for a symbol from the given date onwards (for charting)
+     */
+    public List<PriceHistory> getDailyBars(String symbol, LocalDate fromDate) {
+        return priceHistoryRepository.findBySymbolAndTradeDateGreaterThanEqualOrderByTradeDateAsc(symbol.toUpperCase(), fromDate);
+    }
+
+    /**
+     * Store a range of daily bars, skipping dates that are already stored
+     */
+    public int saveDailyBars(String symbol, List<PriceHistory> bars) {
+        String key = symbol.toUpperCase();
+        if (bars.isEmpty()) {
+            return 0;
+        }
+
+        LocalDate fromDate = bars.get(0).getTradeDate();
+        LocalDate toDate = bars.get(0).getTradeDate();
+        for (PriceHistory bar : bars) {
+            if (bar.getTradeDate().isBefore(fromDate)) fromDate = bar.getTradeDate();
+            if (bar.getTradeDate().isAfter(toDate)) toDate = bar.getTradeDate();
+        }
+
+        Set<LocalDate> existingDates = new HashSet<>(priceHistoryRepository.findTradeDates(key, fromDate, toDate));
+        Map<LocalDate, PriceHistory> newBars = new HashMap<>();
+        for (PriceHistory bar : bars) {
+            if (bar.getClosePrice() != null && !existingDates.contains(bar.getTradeDate())) {
+                bar.setSymbol(key);
+                newBars.put(bar.getTradeDate(), bar);
+            }
+        }
+
+        priceHistoryRepository.saveAll(new ArrayList<>(newBars.values()));
+        symbolsWithHistory.add(key);
+
+        NavigableMap<LocalDate, BigDecimal> window = getWindow(key);
+        for (PriceHistory bar : newBars.values()) {
+            addToWindow(window, bar.getTradeDate(), bar.getClosePrice());
+        }
+
+        System.out.println("Stored " + newBars.size() + " daily bars for " + key);
+        return newBars.size();
+    }
+
+    /**
+     * Record the closing price of one trading day, replacing any earlier value for that day
+     */
+    public void appendDailyClose(String symbol, LocalDate tradeDate, BigDecimal closePrice) {
+        String key = symbol.toUpperCase();
+        PriceHistory bar = priceHistoryRepository.findBySymbolAndTradeDate(key, tradeDate)
+                .orElseGet(() -> new PriceHistory(key, tradeDate, null, null, null, closePrice, null));
+        bar.setClosePrice(closePrice);
+        priceHistoryRepository.save(bar);
+
+        symbolsWithHistory.add(key);
+        addToWindow(getWindow(key), tradeDate, closePrice);
+    }
+
+    private NavigableMap<LocalDate, BigDecimal> getWindow(String key) {
+        return recentCloses.computeIfAbsent(key, k -> {
+            NavigableMap<LocalDate, BigDecimal> window = new ConcurrentSkipListMap<>();
+            LocalDate fromDate = LocalDate.now().minusDays(windowDays);
+            for (PriceHistory bar : priceHistoryRepository.findBySymbolAndTradeDateGreaterThanEqualOrderByTradeDateAsc(k, fromDate)) {
+                window.put(bar.getTradeDate(), bar.getClosePrice());
+            }
+            return window;
+        });
+    }
+
+    private void addToWindow(NavigableMap<LocalDate, BigDecimal> window, LocalDate tradeDate, BigDecimal closePrice) {
+        LocalDate cutoff = LocalDate.now().minusDays(windowDays);
+        if (!tradeDate.isBefore(cutoff)) {
+            window.put(tradeDate, closePrice);
+        }
+        window.headMap(cutoff).clear();
+    }
+
+    /**
+     * Get store statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("symbolsWithHistory", symbolsWithHistory.size());
+        stats.put("symbolsInMemory", recentCloses.size());
+        stats.put("windowDays", windowDays);
+        return stats;
+    }
+}
@@ -0,0 +1,86 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A source of live prices for one or more investment types.
+ * Each provider declares how many symbols go into one request and how hard it may be called.
+ * PriceProviderRouter uses this to split a refresh cycle into batches and run each provider's
+ * batches in their own bulkhead, so the providers are fetched in parallel.
+ */
+public interface PriceProvider {
+
+    /**
+     * Name used for the provider's bulkhead, health tracking and status
+     */
+    String getName();
+
+    /**
+     * Value stored as Investment.priceSource for prices from this provider
+     */
+    String getPriceSource();
+
+    Set<InvestmentType> getSupportedTypes();
+
+    /**
+     * Maximum symbols per fetchPrices call
+     */
+    int getBatchSize();
+
+    /**
+     * Maximum fetchPrices calls running at once
+     */
+    int getMaxConcurrentBatches();
+
+    /**
+     * Host whose PriceFetchExecutor bulkhead and rate limit the provider's batches share with
+     * the host's other callers, or null for a bulkhead of the provider's own sized by
+     * {@link #getMaxConcurrentBatches} and {@link #getRequestsPerSecond}
+     */
+    default String getBulkheadHost() {
+        return null;
+    }
+
+    /**
+     * Sustained rate of fetchPrices calls
+     */
+    double getRequestsPerSecond();
+
+    /**
+     * Prices for one batch of symbols of a single type. A symbol without a price may be
+     * missing from the result or map to null.
+     */
+    Map<String, Price> fetchPrices(InvestmentType type, List<String> symbols);
+
+    /**
+     * Fetch time of the oldest price the provider is currently serving, or null if unknown
+     */
+    default Long getDataAsOfMillis() {
+        return null;
+    }
+
+    /**
+     * A fetched price, with the previous close and the day's return in percent if the provider
+     * knows them
+     */
+    class Price {
+        private final BigDecimal price;
+        private final BigDecimal previousClose;
+        private final BigDecimal dailyReturn;
+
+        public Price(BigDecimal price, BigDecimal previousClose, BigDecimal dailyReturn) {
+            this.price = price;
+            this.previousClose = previousClose;
+            this.dailyReturn = dailyReturn;
+        }
+
+        public BigDecimal getPrice() { return price; }
+        public BigDecimal getPreviousClose() { return previousClose; }
+        public BigDecimal getDailyReturn() { return dailyReturn; }
+    }
+}
@@ -0,0 +1,174 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Routes price lookups to the provider responsible for each investment type.
+ * A refresh cycle is split into batches of each provider's batch size. Every provider runs
+ * its batches in a PriceFetchExecutor bulkhead: its own, limited to the provider's own
+ * concurrency and rate, or the bulkhead of the host it calls when other code calls that host
+ * too, so the host sees one rate limit and one connection budget. All batches are started
+ * before any are awaited, so a slow provider does not hold up the others. Types without a
+ * provider (gold, real estate, other) are priced manually.
+ */
+@Service
+public class PriceProviderRouter {
+
+    @Autowired
+    private List<PriceProvider> providers;
+
+    @Autowired
+    private StubPriceProvider stubPriceProvider;
+
+    @Autowired
+    private PriceFetchExecutor priceFetchExecutor;
+
+    private final Map<InvestmentType, PriceProvider> providersByType = new EnumMap<>(InvestmentType.class);
+
+    @PostConstruct
+    public void init() {
+        for (PriceProvider provider : providers) {
+            if (provider == stubPriceProvider) {
+                continue;
+            }
+            for (InvestmentType type : provider.getSupportedTypes()) {
+                providersByType.put(type, provider);
+            }
+        }
+        if (stubPriceProvider.isEnabled()) {
+            System.out.println("Stub price provider enabled: live providers are bypassed");
+            for (InvestmentType type : stubPriceProvider.getSupportedTypes()) {
+                providersByType.put(type, stubPriceProvider);
+            }
+        }
+
+        for (PriceProvider provider : providers) {
+            if (provider.getBulkheadHost() != null) {
+                continue;
+            }
+            priceFetchExecutor.configureHost(bulkheadKey(provider), provider.getMaxConcurrentBatches(),
+                    provider.getRequestsPerSecond(), provider.getMaxConcurrentBatches());
+        }
+    }
+
+    /**
+     * Provider for an investment type, or null if the type has no live price source
+     */
+    public PriceProvider getProvider(InvestmentType type) {
+        return type != null ? providersByType.get(type) : null;
+    }
+
+    public boolean supports(InvestmentType type) {
+        return getProvider(type) != null;
+    }
+
+    /**
+     * Prices for every symbol, keyed by type and then symbol. Symbols of unsupported types are
+     * skipped; symbols whose batch failed map to null.
+     */
+    public Map<InvestmentType, Map<String, PriceProvider.Price>> fetchPrices(Map<InvestmentType, List<String>> symbolsByType) {
+        Map<PriceProvider, Map<Batch, CompletableFuture<Map<String, PriceProvider.Price>>>> pending = new LinkedHashMap<>();
+        for (Map.Entry<InvestmentType, List<String>> entry : symbolsByType.entrySet()) {
+            PriceProvider provider = getProvider(entry.getKey());
+            if (provider == null || entry.getValue().isEmpty()) {
+                continue;
+            }
+            List<Batch> batches = split(entry.getKey(), entry.getValue(), provider.getBatchSize());
+            pending.computeIfAbsent(provider, p -> new LinkedHashMap<>())
+                    .putAll(priceFetchExecutor.submitAll(bulkheadKey(provider), batches,
+                            batch -> provider.fetchPrices(batch.type, batch.symbols)));
+        }
+
+        Map<InvestmentType, Map<String, PriceProvider.Price>> prices = new EnumMap<>(InvestmentType.class);
+        pending.forEach((provider, futures) ->
+                priceFetchExecutor.awaitAll(bulkheadKey(provider), futures).forEach((batch, batchPrices) -> {
+                    Map<String, PriceProvider.Price> typePrices = prices.computeIfAbsent(batch.type, t -> new LinkedHashMap<>());
+                    for (String symbol : batch.symbols) {
+                        typePrices.put(symbol, batchPrices != null ? batchPrices.get(symbol) : null);
+                    }
+                }));
+        return prices;
+    }
+
+    /**
+     * Price of a single symbol through its provider's bulkhead, or null
+     */
+    public PriceProvider.Price fetchPrice(InvestmentType type, String symbol) {
+        PriceProvider provider = getProvider(type);
+        if (provider == null) {
+            return null;
+        }
+        Map<String, PriceProvider.Price> prices = priceFetchExecutor.fetch(bulkheadKey(provider),
+                () -> provider.fetchPrices(type, List.of(symbol)));
+        return prices != null ? prices.get(symbol) : null;
+    }
+
+    /**
+     * Provider per type and each provider's declared limits
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, String> routes = new LinkedHashMap<>();
+        providersByType.forEach((type, provider) -> routes.put(type.name(), provider.getName()));
+        stats.put("routes", routes);
+        Map<String, Object> limits = new LinkedHashMap<>();
+        for (PriceProvider provider : activeProviders().values()) {
+            Map<String, Object> providerLimits = new LinkedHashMap<>();
+            providerLimits.put("batchSize", provider.getBatchSize());
+            providerLimits.put("maxConcurrentBatches", provider.getMaxConcurrentBatches());
+            providerLimits.put("requestsPerSecond", provider.getRequestsPerSecond());
+            providerLimits.put("bulkhead", bulkheadKey(provider));
+            limits.put(provider.getName(), providerLimits);
+        }
+        stats.put("providers", limits);
+        return stats;
+    }
+
+    private Map<String, PriceProvider> activeProviders() {
+        Map<String, PriceProvider> active = new LinkedHashMap<>();
+        providersByType.values().forEach(provider -> active.put(provider.getName(), provider));
+        return active;
+    }
+
+    private static String bulkheadKey(PriceProvider provider) {
+        String host = provider.getBulkheadHost();
+        return host != null ? host : "provider-" + provider.getName();
+    }
+
+    private static List<Batch> split(InvestmentType type, List<String> symbols, int batchSize) {
+        int size = Math.max(1, batchSize);
+        List<Batch> batches = new ArrayList<>();
+        for (int start = 0; start < symbols.size(); start += size) {
+            batches.add(new Batch(type, symbols.subList(start, Math.min(start + size, symbols.size()))));
+        }
+        return batches;
+    }
+
+    /**
+     * Symbols of one type sent to a provider in one call; identity keys the result map
+     */
+    private static final class Batch {
+        private final InvestmentType type;
+        private final List<String> symbols;
+
+        Batch(InvestmentType type, List<String> symbols) {
+            this.type = type;
+            this.symbols = symbols;
+        }
+
+        @Override
+        public String toString() {
+            return type + " x" + symbols.size();
+        }
+    }
+}
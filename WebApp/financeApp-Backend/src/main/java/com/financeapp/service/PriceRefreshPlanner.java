@@ -0,0 +1,189 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+import com.financeapp.repository.InvestmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which held symbols are due for a price refresh.
+ * Symbols with the largest aggregate holding value across all users, and symbols that moved
+ * sharply on their last refresh, use the fast interval; everything else uses the base interval.
+ * Session gating is left to the scheduler, which only asks for a plan while NSE is trading.
+ */
+@Service
+public class PriceRefreshPlanner {
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    // Refresh interval for ordinary symbols
+    @Value("${investment.price-update.interval:300000}")
+    private long baseIntervalMs;
+
+    // Refresh interval for heavily held or volatile symbols
+    @Value("${investment.price-update.fast-interval:60000}")
+    private long fastIntervalMs;
+
+    // Number of symbols, ranked by aggregate holding value, that use the fast interval
+    @Value("${investment.price-update.hot-symbols:20}")
+    private int hotSymbols;
+
+    // Move (in percent) between two refreshes that marks a symbol as volatile
+    @Value("${investment.price-update.volatile-move-pct:1.0}")
+    private double volatileMovePct;
+
+    // How long the aggregate holdings snapshot is reused before it is queried again
+    @Value("${investment.price-update.holdings-refresh-ms:300000}")
+    private long holdingsRefreshMs;
+
+    private volatile List<HeldSymbol> heldSymbols = new ArrayList<>();
+    private volatile long heldSymbolsLoadedAt = 0;
+
+    // Keyed by type and symbol (see refreshKey): the same symbol can be held as different types
+    private final Map<String, SymbolRefreshState> refreshStates = new ConcurrentHashMap<>();
+
+    /**
+     * Symbols due for a refresh right now, grouped by investment type
+     */
+    public Map<InvestmentType, List<String>> getDueSymbols() {
+        Map<InvestmentType, List<String>> due = new EnumMap<>(InvestmentType.class);
+        long now = System.currentTimeMillis();
+        List<HeldSymbol> held = getHeldSymbols();
+        for (int rank = 0; rank < held.size(); rank++) {
+            HeldSymbol symbol = held.get(rank);
+            SymbolRefreshState state = refreshStates.get(refreshKey(symbol.type, symbol.symbol));
+            long interval = isFastLane(rank, state) ? fastIntervalMs : baseIntervalMs;
+            if (state == null || now - state.lastRefreshMillis >= interval) {
+                due.computeIfAbsent(symbol.type, k -> new ArrayList<>()).add(symbol.symbol);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * All held symbols regardless of when they were last refreshed
+     */
+    public Map<InvestmentType, List<String>> getAllSymbols() {
+        Map<InvestmentType, List<String>> all = new EnumMap<>(InvestmentType.class);
+        for (HeldSymbol symbol : getHeldSymbols()) {
+            all.computeIfAbsent(symbol.type, k -> new ArrayList<>()).add(symbol.symbol);
+        }
+        return all;
+    }
+
+    /**
+     * The most valuable held symbols of a type, largest aggregate holding first
+     */
+    public List<String> getMostHeldSymbols(InvestmentType type, int limit) {
+        return getHeldSymbols().stream()
+                .filter(symbol -> symbol.type == type)
+                .limit(limit)
+                .map(symbol -> symbol.symbol)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Record the outcome of a refresh. A failed fetch (null price) still counts as an attempt,
+     * so a failing symbol is retried on its normal interval instead of on every tick.
+     */
+    public void recordRefresh(InvestmentType type, String symbol, BigDecimal price) {
+        long now = System.currentTimeMillis();
+        refreshStates.compute(refreshKey(type, symbol), (key, state) -> {
+            SymbolRefreshState next = state != null ? state : new SymbolRefreshState();
+            if (price != null && next.lastPrice != null && next.lastPrice.signum() > 0) {
+                next.lastMovePct = Math.abs(price.subtract(next.lastPrice).doubleValue() / next.lastPrice.doubleValue() * 100);
+            }
+            if (price != null) {
+                next.lastPrice = price;
+            }
+            next.lastRefreshMillis = now;
+            return next;
+        });
+    }
+
+    public void recordRefreshes(Map<InvestmentType, Map<String, BigDecimal>> prices) {
+        prices.forEach((type, typePrices) -> typePrices.forEach((symbol, price) -> recordRefresh(type, symbol, price)));
+    }
+
+    private static String refreshKey(InvestmentType type, String symbol) {
+        return type.name() + ':' + symbol;
+    }
+
+    private boolean isFastLane(int rank, SymbolRefreshState state) {
+        return rank < hotSymbols || (state != null && state.lastMovePct >= volatileMovePct);
+    }
+
+    private List<HeldSymbol> getHeldSymbols() {
+        long now = System.currentTimeMillis();
+        if (now - heldSymbolsLoadedAt >= holdingsRefreshMs) {
+            List<HeldSymbol> loaded = new ArrayList<>();
+            for (Object[] row : investmentRepository.findLivePriceHoldingValues()) {
+                String symbol = (String) row[0];
+                InvestmentType type = (InvestmentType) row[1];
+                if (symbol != null && type != null) {
+                    double value = row[2] instanceof Number ? ((Number) row[2]).doubleValue() : 0;
+                    loaded.add(new HeldSymbol(symbol, type, value));
+                }
+            }
+            loaded.sort(Comparator.comparingDouble((HeldSymbol symbol) -> symbol.holdingValue).reversed());
+            heldSymbols = loaded;
+            heldSymbolsLoadedAt = now;
+        }
+        return heldSymbols;
+    }
+
+    /**
+     * Forget the holdings snapshot so the next plan reflects newly added or removed holdings
+     */
+    public void invalidateHoldings() {
+        heldSymbolsLoadedAt = 0;
+    }
+
+    /**
+     * Get planner statistics
+     */
+    public Map<String, Object> getStats() {
+        List<HeldSymbol> held = heldSymbols;
+        long volatileSymbols = refreshStates.values().stream()
+                .filter(state -> state.lastMovePct >= volatileMovePct)
+                .count();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("heldSymbols", held.size());
+        stats.put("hotSymbols", Math.min(hotSymbols, held.size()));
+        stats.put("volatileSymbols", volatileSymbols);
+        stats.put("baseIntervalMs", baseIntervalMs);
+        stats.put("fastIntervalMs", fastIntervalMs);
+        return stats;
+    }
+
+    private static class HeldSymbol {
+        private final String symbol;
+        private final InvestmentType type;
+        private final double holdingValue;
+
+        HeldSymbol(String symbol, InvestmentType type, double holdingValue) {
+            this.symbol = symbol;
+            this.type = type;
+            this.holdingValue = holdingValue;
+        }
+    }
+
+    private static class SymbolRefreshState {
+        private long lastRefreshMillis;
+        private BigDecimal lastPrice;
+        private double lastMovePct;
+    }
+}
@@ -0,0 +1,370 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Investment;
+import com.financeapp.model.InvestmentType;
+import com.financeapp.model.User;
+import com.financeapp.repository.InvestmentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process broadcaster for live price updates over server-sent events.
+ * Each subscriber is registered under the holdings it has, keyed by type and symbol so a price
+ * of one type never moves a holding of another, and re-registered whenever one of
+ * its user's investments is saved or deleted; when the scheduler applies new
+ * prices, one price-tick event per changed symbol and one valuation-delta event per affected
+ * subscriber are pushed, instead of clients polling the portfolio summary.
+ * Every subscriber has its own bounded queue of pending events, drained by a small sender
+ * pool one subscriber at a time, so a slow client only delays its own stream; a client whose
+ * queue overflows has fallen behind for good and is disconnected (it reconnects and gets a
+ * fresh snapshot).
+ */
+@Service
+public class PriceStreamService {
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    // Emitter timeout; clients reconnect automatically after it expires
+    @Value("${investment.price-stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    // Events a subscriber may have pending before it is disconnected as too slow
+    @Value("${investment.price-stream.max-queued-events:100}")
+    private int maxQueuedEvents;
+
+    // Threads sending events; each works on one subscriber's queue at a time
+    @Value("${investment.price-stream.sender-threads:4}")
+    private int senderThreads;
+
+    // Subscribers keyed by the type and symbol of what they hold (see streamKey)
+    private final Map<String, Set<Subscription>> subscribersBySymbol = new ConcurrentHashMap<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+
+    // Sends happen off the scheduler thread so a slow client cannot hold up price refreshes
+    private ExecutorService sender;
+
+    private final AtomicLong eventId = new AtomicLong();
+    private final AtomicLong slowDisconnects = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "price-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open a stream for a user's live-priced holdings
+     */
+    public SseEmitter subscribe(User user) {
+        SseEmitter emitter = createEmitter();
+        Subscription subscription = new Subscription(emitter, user.getId(), Math.max(1, maxQueuedEvents));
+
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(error -> unsubscribe(subscription));
+
+        subscriptions.add(subscription);
+        subscriptionsByUser.computeIfAbsent(user.getId(), k -> ConcurrentHashMap.newKeySet()).add(subscription);
+        applyHoldings(subscription, investmentRepository.findByUserOrderByCreatedAtDesc(user));
+        sendAsync(subscription, "subscribed", holdingsEvent(subscription));
+
+        System.out.println("Price stream opened for user " + user.getId() + " with " + subscription.quantities.size() + " symbols");
+        return emitter;
+    }
+
+    /**
+     * Reload a user's holdings into their open streams after an investment was saved or deleted,
+     * so new symbols start streaming, sold ones stop, and valuation deltas use the new quantities.
+     * Each stream is sent a "holdings" event with its type:symbol keys and last prices.
+     */
+    public void updateHoldings(User user) {
+        Set<Subscription> userSubscriptions = user != null ? subscriptionsByUser.get(user.getId()) : null;
+        if (userSubscriptions == null || userSubscriptions.isEmpty()) {
+            return;
+        }
+        List<Investment> investments = investmentRepository.findByUserOrderByCreatedAtDesc(user);
+        for (Subscription subscription : userSubscriptions) {
+            applyHoldings(subscription, investments);
+            sendAsync(subscription, "holdings", holdingsEvent(subscription));
+        }
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    /**
+     * Point a subscription at the given holdings and register it under exactly their keys
+     */
+    private void applyHoldings(Subscription subscription, List<Investment> investments) {
+        Map<String, BigDecimal> quantities = new HashMap<>();
+        Map<String, BigDecimal> storedPrices = new HashMap<>();
+        for (Investment investment : investments) {
+            if (!Boolean.TRUE.equals(investment.getLivePriceEnabled()) || investment.getSymbol() == null
+                    || investment.getType() == null || investment.getQuantity() == null) {
+                continue;
+            }
+            String key = streamKey(investment.getType(), investment.getSymbol());
+            quantities.merge(key, investment.getQuantity(), BigDecimal::add);
+            BigDecimal price = investment.getCurrentPrice() != null ? investment.getCurrentPrice() : investment.getPurchasePrice();
+            if (price != null) {
+                storedPrices.putIfAbsent(key, price);
+            }
+        }
+
+        synchronized (subscription) {
+            Set<String> dropped = new HashSet<>(subscription.quantities.keySet());
+            dropped.removeAll(quantities.keySet());
+            for (String key : dropped) {
+                subscription.lastPrices.remove(key);
+                removeHolder(key, subscription);
+            }
+            // A price already streamed to the client is newer than the stored one
+            storedPrices.forEach(subscription.lastPrices::putIfAbsent);
+            subscription.quantities = quantities;
+            for (String key : quantities.keySet()) {
+                subscribersBySymbol.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+            }
+        }
+        // Closed meanwhile: take back what was just registered
+        if (!subscriptions.contains(subscription)) {
+            unregister(subscription);
+        }
+    }
+
+    private static String streamKey(InvestmentType type, String symbol) {
+        return type.name() + ':' + symbol;
+    }
+
+    private static Map<String, Object> holdingsEvent(Subscription subscription) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("symbols", new ArrayList<>(subscription.quantities.keySet()));
+        event.put("prices", new HashMap<>(subscription.lastPrices));
+        return event;
+    }
+
+    /**
+     * Push prices applied by a refresh, keyed by type and then symbol, to everyone holding them.
+     * Null prices, and prices a subscriber has already seen, are skipped.
+     */
+    public void publishPrices(Map<InvestmentType, Map<String, BigDecimal>> prices) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        long timestamp = System.currentTimeMillis();
+        Map<Subscription, List<Map<String, Object>>> changesBySubscription = new HashMap<>();
+
+        prices.forEach((type, typePrices) -> typePrices.forEach((symbol, price) -> {
+            String key = streamKey(type, symbol);
+            Set<Subscription> holders = subscribersBySymbol.get(key);
+            if (price == null || holders == null || holders.isEmpty()) {
+                return;
+            }
+
+            Map<String, Object> tick = new LinkedHashMap<>();
+            tick.put("type", type.name());
+            tick.put("symbol", symbol);
+            tick.put("price", price);
+            tick.put("timestamp", timestamp);
+
+            for (Subscription holder : holders) {
+                BigDecimal lastPrice = holder.lastPrices.put(key, price);
+                if (lastPrice != null && lastPrice.compareTo(price) == 0) {
+                    continue;
+                }
+                sendAsync(holder, "price-tick", tick);
+
+                BigDecimal quantity = holder.quantities.get(key);
+                if (quantity == null || lastPrice == null) {
+                    continue;
+                }
+                Map<String, Object> change = new LinkedHashMap<>();
+                change.put("type", type.name());
+                change.put("symbol", symbol);
+                change.put("value", price.multiply(quantity).setScale(2, RoundingMode.HALF_UP));
+                change.put("delta", price.subtract(lastPrice).multiply(quantity).setScale(2, RoundingMode.HALF_UP));
+                changesBySubscription.computeIfAbsent(holder, k -> new ArrayList<>()).add(change);
+            }
+        }));
+
+        // One valuation-delta per subscriber, covering every holding that moved in this refresh
+        for (Map.Entry<Subscription, List<Map<String, Object>>> entry : changesBySubscription.entrySet()) {
+            BigDecimal totalDelta = BigDecimal.ZERO;
+            for (Map<String, Object> change : entry.getValue()) {
+                totalDelta = totalDelta.add((BigDecimal) change.get("delta"));
+            }
+
+            Map<String, Object> valuationDelta = new LinkedHashMap<>();
+            valuationDelta.put("changes", entry.getValue());
+            valuationDelta.put("totalDelta", totalDelta);
+            valuationDelta.put("timestamp", timestamp);
+            sendAsync(entry.getKey(), "valuation-delta", valuationDelta);
+        }
+    }
+
+    /**
+     * Keep idle connections alive through proxies and find clients that went away
+     */
+    @Scheduled(fixedDelayString = "${investment.price-stream.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        for (Subscription subscription : subscriptions) {
+            enqueue(subscription, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private void sendAsync(Subscription subscription, String eventName, Object data) {
+        String id = String.valueOf(eventId.incrementAndGet());
+        enqueue(subscription, SseEmitter.event().id(id).name(eventName).data(data));
+    }
+
+    private void enqueue(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        if (!subscriptions.contains(subscription)) {
+            return;
+        }
+        if (!subscription.pending.offer(event)) {
+            System.err.println("Price stream subscriber fell " + subscription.pending.size() + " events behind, disconnecting");
+            slowDisconnects.incrementAndGet();
+            unsubscribe(subscription);
+            subscription.pending.clear();
+            subscription.emitter.complete();
+            return;
+        }
+        scheduleDrain(subscription);
+    }
+
+    // At most one sender works on a subscriber at a time, so its events stay in order
+    private void scheduleDrain(Subscription subscription) {
+        if (!subscription.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(subscription));
+        } catch (RejectedExecutionException e) {
+            subscription.draining.set(false);
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscription.pending.poll()) != null) {
+                if (!subscriptions.contains(subscription)) {
+                    subscription.pending.clear();
+                    return;
+                }
+                subscription.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(subscription);
+            subscription.pending.clear();
+        } finally {
+            subscription.draining.set(false);
+        }
+        // An event queued after the last poll but before the flag was released
+        if (!subscription.pending.isEmpty()) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            unregister(subscription);
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        Set<Subscription> userSubscriptions = subscriptionsByUser.get(subscription.userId);
+        if (userSubscriptions != null) {
+            userSubscriptions.remove(subscription);
+            if (userSubscriptions.isEmpty()) {
+                subscriptionsByUser.remove(subscription.userId, userSubscriptions);
+            }
+        }
+        synchronized (subscription) {
+            for (String key : subscription.quantities.keySet()) {
+                removeHolder(key, subscription);
+            }
+        }
+    }
+
+    private void removeHolder(String key, Subscription subscription) {
+        Set<Subscription> holders = subscribersBySymbol.get(key);
+        if (holders != null) {
+            holders.remove(subscription);
+            if (holders.isEmpty()) {
+                subscribersBySymbol.remove(key, holders);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter.complete();
+        }
+        sender.shutdownNow();
+    }
+
+    /**
+     * Get stream statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", subscriptions.size());
+        stats.put("subscribedSymbols", subscribersBySymbol.size());
+        stats.put("eventsSent", eventId.get());
+        stats.put("slowDisconnects", slowDisconnects.get());
+        return stats;
+    }
+
+    /**
+     * One open stream with the holdings it was opened for
+     */
+    private static class Subscription {
+        private final SseEmitter emitter;
+        private final Long userId;
+        // By stream key; replaced as a whole when the user's holdings change
+        private volatile Map<String, BigDecimal> quantities = new HashMap<>();
+        private final Map<String, BigDecimal> lastPrices = new ConcurrentHashMap<>();
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscription(SseEmitter emitter, Long userId, int maxQueuedEvents) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.pending = new ArrayBlockingQueue<>(maxQueuedEvents);
+        }
+    }
+}
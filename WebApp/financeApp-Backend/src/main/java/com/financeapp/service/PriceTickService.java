@@ -0,0 +1,267 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+import com.financeapp.model.PriceHistory;
+import com.financeapp.model.PriceTick;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only log of price changes.
+ * A tick is recorded only when a symbol's price moved by more than the change epsilon since
+ * its last logged tick; ticks are buffered in memory and inserted with JDBC batches by the
+ * scheduled flush. Each tick carries its investment type, since a mutual fund scheme code or
+ * a crypto ticker can look like an NSE symbol. Ticks older than the retention window are
+ * deleted; exchange-listed ones (stocks and ETFs) are first rolled up into daily bars in
+ * price_history, which only holds exchange closes.
+ */
+@Service
+public class PriceTickService {
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final String INSERT_SQL = "INSERT INTO price_tick (symbol, investment_type, price, tick_time) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM price_tick WHERE investment_type = ? AND symbol = ? AND tick_time < ?";
+    // Types whose ticks are exchange prices and so belong in price_history
+    private static final String DOWNSAMPLED_TYPES_SQL = "('STOCK', 'ETF')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    // Smallest price move treated as a change
+    @Value("${investment.price-update.epsilon:0.005}")
+    private BigDecimal epsilon;
+
+    @Value("${investment.price-tick.batch-size:500}")
+    private int batchSize;
+
+    // Ticks older than this many days are downsampled into daily bars
+    @Value("${investment.price-tick.retention-days:30}")
+    private int retentionDays;
+
+    // Ticks kept in memory across failed flushes; beyond this the oldest failed ones are dropped
+    @Value("${investment.price-tick.max-pending:50000}")
+    private int maxPending;
+
+    private final Queue<PriceTick> pendingTicks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // Keyed by type and symbol (see tickKey)
+    private final Map<String, BigDecimal> lastTickPrices = new ConcurrentHashMap<>();
+    private final AtomicLong ticksWritten = new AtomicLong();
+    private final AtomicLong ticksDropped = new AtomicLong();
+
+    /**
+     * Record a symbol's latest price; ignored unless it moved by more than the epsilon since
+     * the last logged tick, so small moves add up until they make one. The tick is only
+     * buffered here; the scheduled flush writes it.
+     */
+    public void record(String symbol, InvestmentType type, BigDecimal price) {
+        if (symbol == null || type == null || price == null || price.signum() <= 0) {
+            return;
+        }
+
+        String key = tickKey(type, symbol);
+        BigDecimal previous = lastTickPrices.get(key);
+        if (previous != null && !isChange(previous, price)) {
+            return;
+        }
+        // Only a logged price becomes the new baseline; if another thread logged this symbol in
+        // the meantime, its tick stands
+        boolean claimed = previous == null
+                ? lastTickPrices.putIfAbsent(key, price) == null
+                : lastTickPrices.replace(key, previous, price);
+        if (!claimed) {
+            return;
+        }
+
+        pendingTicks.add(new PriceTick(symbol, type, price, LocalDateTime.now(MARKET_ZONE)));
+        pendingCount.incrementAndGet();
+    }
+
+    private static String tickKey(InvestmentType type, String symbol) {
+        return type.name() + ':' + symbol;
+    }
+
+    /**
+     * Whether two prices differ by more than the change epsilon
+     */
+    public boolean isChange(BigDecimal previous, BigDecimal current) {
+        return previous == null || current == null || previous.subtract(current).abs().compareTo(epsilon) > 0;
+    }
+
+    public BigDecimal getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * Insert all buffered ticks in JDBC batches. Ticks of a batch that fails go back into the
+     * buffer for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${investment.price-tick.flush-ms:5000}")
+    public synchronized void flush() {
+        List<PriceTick> ticks = new ArrayList<>();
+        PriceTick tick;
+        while ((tick = pendingTicks.poll()) != null) {
+            ticks.add(tick);
+        }
+        if (ticks.isEmpty()) {
+            return;
+        }
+        pendingCount.addAndGet(-ticks.size());
+
+        int written = 0;
+        try {
+            int size = Math.max(1, batchSize);
+            for (; written < ticks.size(); written += size) {
+                List<PriceTick> batch = ticks.subList(written, Math.min(written + size, ticks.size()));
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> {
+                    ps.setString(1, row.getSymbol());
+                    ps.setString(2, row.getInvestmentType().name());
+                    ps.setBigDecimal(3, row.getPrice());
+                    ps.setTimestamp(4, Timestamp.valueOf(row.getTickTime()));
+                });
+                ticksWritten.addAndGet(batch.size());
+            }
+        } catch (Exception e) {
+            List<PriceTick> failed = ticks.subList(written, ticks.size());
+            System.err.println("Error writing " + failed.size() + " price ticks, retrying on the next flush: " + e.getMessage());
+            requeue(failed);
+        }
+    }
+
+    /**
+     * Put ticks that failed to insert back into the buffer; the oldest are dropped (and counted)
+     * once max-pending ticks are waiting
+     */
+    private void requeue(List<PriceTick> ticks) {
+        int room = Math.max(0, maxPending - pendingCount.get());
+        int dropped = Math.max(0, ticks.size() - room);
+        pendingTicks.addAll(ticks.subList(dropped, ticks.size()));
+        pendingCount.addAndGet(ticks.size() - dropped);
+        if (dropped > 0) {
+            ticksDropped.addAndGet(dropped);
+            System.err.println("Dropped " + dropped + " unwritten price ticks, " + maxPending + " already pending");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Roll stock and ETF ticks older than the retention window up into daily OHLC bars, then
+     * delete them. Dates that already have a bar (e.g. from a Yahoo backfill) keep it. A symbol's
+     * ticks are only deleted once its bars were stored, so a failed save keeps them for the next
+     * run. Old ticks of other types (and untyped ones from before types were logged) are deleted
+     * without a rollup.
+     */
+    @Scheduled(cron = "${investment.price-tick.retention-cron:0 30 2 * * *}", zone = "Asia/Kolkata")
+    public void downsampleOldTicks() {
+        LocalDateTime cutoff = LocalDate.now(MARKET_ZONE).minusDays(retentionDays).atStartOfDay();
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff);
+
+        try {
+            DailyBarAggregator aggregator = new DailyBarAggregator();
+            jdbcTemplate.query("SELECT symbol, investment_type, price, tick_time FROM price_tick"
+                            + " WHERE investment_type IN " + DOWNSAMPLED_TYPES_SQL + " AND tick_time < ?"
+                            + " ORDER BY symbol, investment_type, tick_time",
+                    (RowCallbackHandler) rs -> aggregator.add(rs.getString(1), rs.getString(2), rs.getBigDecimal(3),
+                            rs.getTimestamp(4).toLocalDateTime()),
+                    cutoffTimestamp);
+            aggregator.finish();
+
+            // One delete per symbol keeps each statement small without a vendor-specific LIMIT
+            int deleted = 0;
+            for (String[] typeAndSymbol : aggregator.downsampledSymbols) {
+                deleted += jdbcTemplate.update(DELETE_SQL, typeAndSymbol[0], typeAndSymbol[1], cutoffTimestamp);
+            }
+            deleted += jdbcTemplate.update("DELETE FROM price_tick WHERE (investment_type IS NULL OR investment_type NOT IN "
+                    + DOWNSAMPLED_TYPES_SQL + ") AND tick_time < ?", cutoffTimestamp);
+
+            System.out.println("Downsampled price ticks before " + cutoff.toLocalDate() + ": "
+                    + aggregator.barsStored + " daily bars stored, " + deleted + " ticks deleted");
+        } catch (Exception e) {
+            System.err.println("Error downsampling price ticks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get tick log statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pendingTicks", pendingCount.get());
+        stats.put("ticksWritten", ticksWritten.get());
+        stats.put("ticksDropped", ticksDropped.get());
+        stats.put("trackedSymbols", lastTickPrices.size());
+        stats.put("retentionDays", retentionDays);
+        return stats;
+    }
+
+    /**
+     * Builds daily bars from ticks arriving ordered by symbol and time, storing each symbol's
+     * bars as soon as the next symbol starts
+     */
+    private class DailyBarAggregator {
+        private String currentSymbol;
+        private String currentType;
+        private final Map<LocalDate, PriceHistory> bars = new LinkedHashMap<>();
+        // Type and symbol of each run of ticks whose bars were stored
+        private final List<String[]> downsampledSymbols = new ArrayList<>();
+        private int barsStored = 0;
+
+        void add(String symbol, String type, BigDecimal price, LocalDateTime tickTime) {
+            if (!symbol.equals(currentSymbol) || !type.equals(currentType)) {
+                finish();
+                currentSymbol = symbol;
+                currentType = type;
+            }
+
+            LocalDate tradeDate = tickTime.toLocalDate();
+            PriceHistory bar = bars.get(tradeDate);
+            if (bar == null) {
+                bars.put(tradeDate, new PriceHistory(symbol, tradeDate, price, price, price, price, null));
+                return;
+            }
+            if (price.compareTo(bar.getHighPrice()) > 0) bar.setHighPrice(price);
+            if (price.compareTo(bar.getLowPrice()) < 0) bar.setLowPrice(price);
+            bar.setClosePrice(price);
+        }
+
+        void finish() {
+            if (currentSymbol != null && !bars.isEmpty()) {
+                try {
+                    barsStored += priceHistoryService.saveDailyBars(currentSymbol, new ArrayList<>(bars.values()));
+                    downsampledSymbols.add(new String[] { currentType, currentSymbol });
+                } catch (Exception e) {
+                    System.err.println("Error storing daily bars for " + currentSymbol + ", keeping its ticks: " + e.getMessage());
+                }
+            }
+            bars.clear();
+        }
+    }
+}
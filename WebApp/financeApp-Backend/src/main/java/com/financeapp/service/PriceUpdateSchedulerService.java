@@ -1,5 +1,6 @@
 package com.financeapp.service;
 
+import com.financeapp.model.InvestmentType;
 import com.financeapp.model.User;
 import com.financeapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,7 +8,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PriceUpdateSchedulerService {
@@ -21,28 +26,80 @@ public class PriceUpdateSchedulerService {
     @Autowired
     private YahooFinanceService yahooFinanceService;
 
+    @Autowired
+    private MarketCalendarService marketCalendarService;
+
+    @Autowired
+    private PriceRefreshPlanner priceRefreshPlanner;
+
+    @Autowired
+    private ProviderHealthService providerHealthService;
+
     @Value("${investment.price-update.enabled:true}")
     private boolean priceUpdateEnabled;
 
     @Value("${investment.price-update.market-hours-only:true}")
     private boolean marketHoursOnly;
 
+    // "global" refreshes each distinct symbol once for all users; "per-user" is the legacy loop
+    @Value("${investment.price-update.mode:global}")
+    private String updateMode;
+
+    // Interval between full refreshes in per-user mode
+    @Value("${investment.price-update.interval:300000}")
+    private long updateIntervalMs;
+
+    // Number of most-held stocks whose quotes are fetched before the open
+    @Value("${investment.price-update.prewarm-symbols:50}")
+    private int prewarmSymbols;
+
+    // Quote TTL once the session opens; a pre-warm earlier than this before the open is wasted
+    @Value("${yahoo.finance.cache.market-open-ttl-seconds:60}")
+    private long marketOpenTtlSeconds;
+
+    private volatile long lastPerUserRunMillis = 0;
+
     /**
-     * Scheduled task to update investment prices every 5 minutes
-     * Runs only if price updates are enabled and optionally only during market hours
+     * Scheduler tick. In global mode only symbols the refresh planner reports as due are
+     * fetched, so heavily held and volatile symbols refresh more often than the rest;
+     * nothing is fetched outside NSE trading sessions when market-hours-only is set.
      */
-    @Scheduled(fixedDelayString = "${investment.price-update.interval:300000}") // Default 5 minutes
+    @Scheduled(fixedDelayString = "${investment.price-update.tick-ms:30000}")
     public void updateAllInvestmentPrices() {
         if (!priceUpdateEnabled) {
             return;
         }
 
         // Check market hours if enabled
-        if (marketHoursOnly && !yahooFinanceService.isMarketOpen()) {
-            System.out.println("Market is closed, skipping price update");
+        if (marketHoursOnly && !marketCalendarService.isMarketOpen()) {
             return;
         }
 
+        if ("global".equalsIgnoreCase(updateMode)) {
+            try {
+                Map<InvestmentType, List<String>> dueSymbols = priceRefreshPlanner.getDueSymbols();
+                if (dueSymbols.isEmpty()) {
+                    return;
+                }
+                Map<InvestmentType, Map<String, BigDecimal>> prices = investmentService.refreshMarketPrices(dueSymbols);
+                priceRefreshPlanner.recordRefreshes(prices);
+            } catch (Exception e) {
+                System.err.println("Error in scheduled price update: " + e.getMessage());
+            }
+            return;
+        }
+
+        if (System.currentTimeMillis() - lastPerUserRunMillis < updateIntervalMs) {
+            return;
+        }
+        lastPerUserRunMillis = System.currentTimeMillis();
+        updatePricesPerUser();
+    }
+
+    /**
+     * Legacy refresh: loop over every user with investments
+     */
+    private void updatePricesPerUser() {
         System.out.println("Starting scheduled price update...");
 
         try {
@@ -67,14 +124,77 @@ public class PriceUpdateSchedulerService {
     }
 
     /**
-     * Manual trigger for price updates (can be called via API)
+     * Fetch quotes for the most-held stocks just before the open, so the first requests
+     * of the session are served from a warm cache. The quotes only help if they are still
+     * fresh at the open, so a run more than one open-session TTL before it is skipped.
+     */
+    @Scheduled(cron = "${investment.price-update.prewarm-cron:30 14 9 * * MON-FRI}", zone = "Asia/Kolkata")
+    public void prewarmQuotes() {
+        if (!priceUpdateEnabled || !marketCalendarService.isTradingDay(marketCalendarService.today())) {
+            return;
+        }
+
+        long secondsToOpen = Duration.between(marketCalendarService.now(), marketCalendarService.getNextSessionOpen()).getSeconds();
+        if (secondsToOpen > marketOpenTtlSeconds) {
+            System.err.println("Skipping quote pre-warm: the session opens in " + secondsToOpen
+                    + "s, after the " + marketOpenTtlSeconds + "s quote TTL");
+            return;
+        }
+
+        try {
+            priceRefreshPlanner.invalidateHoldings();
+            List<String> symbols = priceRefreshPlanner.getMostHeldSymbols(InvestmentType.STOCK, prewarmSymbols);
+            if (!symbols.isEmpty()) {
+                yahooFinanceService.getCurrentPrices(symbols);
+                System.out.println("Pre-warmed quotes for " + symbols.size() + " most-held symbols");
+            }
+        } catch (Exception e) {
+            System.err.println("Error pre-warming quotes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Final sweep after the close: apply closing prices to every holding, then append
+     * each held stock's close to the local price history
+     */
+    @Scheduled(cron = "${investment.price-history.close-cron:0 45 15 * * MON-FRI}", zone = "Asia/Kolkata")
+    public void recordDailyCloses() {
+        if (!priceUpdateEnabled || !marketCalendarService.isTradingDay(marketCalendarService.today())) {
+            return;
+        }
+
+        try {
+            // Quotes cached during the session predate the closing price
+            yahooFinanceService.clearQuoteCache();
+            int symbolsUpdated = investmentService.updateAllMarketPrices();
+            System.out.println("Closing price sweep completed for " + symbolsUpdated + " symbols");
+            investmentService.recordDailyCloses();
+        } catch (Exception e) {
+            System.err.println("Error recording daily closes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Manual trigger for price updates (can be called via API); refreshes every held symbol
      */
     public void triggerPriceUpdate() {
         if (!priceUpdateEnabled) {
             throw new RuntimeException("Price updates are disabled");
         }
 
-        updateAllInvestmentPrices();
+        if (marketHoursOnly && !marketCalendarService.isMarketOpen()) {
+            System.out.println("Market is closed, skipping price update");
+            return;
+        }
+
+        if ("global".equalsIgnoreCase(updateMode)) {
+            priceRefreshPlanner.invalidateHoldings();
+            Map<InvestmentType, Map<String, BigDecimal>> prices = investmentService.refreshMarketPrices(priceRefreshPlanner.getAllSymbols());
+            priceRefreshPlanner.recordRefreshes(prices);
+        } else {
+            lastPerUserRunMillis = System.currentTimeMillis();
+            updatePricesPerUser();
+        }
     }
 
     /**
@@ -95,8 +215,13 @@ public class PriceUpdateSchedulerService {
         PriceUpdateStatus status = new PriceUpdateStatus();
         status.setEnabled(priceUpdateEnabled);
         status.setMarketHoursOnly(marketHoursOnly);
-        status.setMarketOpen(yahooFinanceService.isMarketOpen());
+        status.setUpdateMode(updateMode);
+        status.setMarketOpen(marketCalendarService.isMarketOpen());
+        status.setTradingDay(marketCalendarService.isTradingDay(marketCalendarService.today()));
+        status.setNextSessionOpen(marketCalendarService.getNextSessionOpen().toLocalDateTime());
+        status.setRefreshPlan(priceRefreshPlanner.getStats());
         status.setApiAvailable(yahooFinanceService.isApiAvailable());
+        status.setProviderHealth(providerHealthService.getStatus());
         return status;
     }
 
@@ -108,6 +233,11 @@ public class PriceUpdateSchedulerService {
         private boolean marketHoursOnly;
         private boolean marketOpen;
         private boolean apiAvailable;
+        private String updateMode;
+        private boolean tradingDay;
+        private LocalDateTime nextSessionOpen;
+        private Map<String, Object> refreshPlan;
+        private Map<String, Object> providerHealth;
 
         // Getters and setters
         public boolean isEnabled() { return enabled; }
@@ -121,5 +251,20 @@ public class PriceUpdateSchedulerService {
 
         public boolean isApiAvailable() { return apiAvailable; }
         public void setApiAvailable(boolean apiAvailable) { this.apiAvailable = apiAvailable; }
+
+        public String getUpdateMode() { return updateMode; }
+        public void setUpdateMode(String updateMode) { this.updateMode = updateMode; }
+
+        public boolean isTradingDay() { return tradingDay; }
+        public void setTradingDay(boolean tradingDay) { this.tradingDay = tradingDay; }
+
+        public LocalDateTime getNextSessionOpen() { return nextSessionOpen; }
+        public void setNextSessionOpen(LocalDateTime nextSessionOpen) { this.nextSessionOpen = nextSessionOpen; }
+
+        public Map<String, Object> getRefreshPlan() { return refreshPlan; }
+        public void setRefreshPlan(Map<String, Object> refreshPlan) { this.refreshPlan = refreshPlan; }
+
+        public Map<String, Object> getProviderHealth() { return providerHealth; }
+        public void setProviderHealth(Map<String, Object> providerHealth) { this.providerHealth = providerHealth; }
     }
 }
\ No newline at end of file
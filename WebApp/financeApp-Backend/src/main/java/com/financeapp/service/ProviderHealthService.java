@@ -0,0 +1,164 @@
+package com.financeapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Health and freshness of the market data providers (Yahoo Finance, AMFI).
+ * Providers record every outbound call and every refresh cycle here; latency percentiles and
+ * the error rate over the last calls are recomputed as each call is recorded, so status reads
+ * are O(1) and never touch the network.
+ */
+@Service
+public class ProviderHealthService {
+
+    public static final String YAHOO = "yahoo";
+    public static final String AMFI = "amfi";
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Kolkata");
+
+    // Number of most recent calls the latency percentiles and error rate are computed over
+    @Value("${investment.provider-health.window-size:200}")
+    private int windowSize;
+
+    private final Map<String, ProviderHealth> providers = new ConcurrentHashMap<>();
+
+    public void recordSuccess(String provider, long latencyMillis) {
+        health(provider).recordCall(latencyMillis, null);
+    }
+
+    public void recordFailure(String provider, long latencyMillis, String error) {
+        health(provider).recordCall(latencyMillis, error != null ? error : "unknown error");
+    }
+
+    /**
+     * Record the outcome of a refresh cycle: symbols that got a price and the fetch time of the
+     * oldest price still cached (null if nothing is cached)
+     */
+    public void recordCycle(String provider, int symbolsRefreshed, Long oldestCachedAtMillis) {
+        ProviderHealth health = health(provider);
+        health.symbolsRefreshedLastCycle = symbolsRefreshed;
+        health.oldestCachedAtMillis = oldestCachedAtMillis;
+        health.lastCycleAtMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Health of Yahoo Finance and AMFI, plus any other provider that has reported
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (String provider : new String[] { YAHOO, AMFI }) {
+            status.put(provider, getStatus(provider));
+        }
+        for (String provider : providers.keySet()) {
+            status.putIfAbsent(provider, getStatus(provider));
+        }
+        return status;
+    }
+
+    public Map<String, Object> getStatus(String provider) {
+        ProviderHealth health = health(provider);
+        LatencyStats latency = health.latency;
+        long now = System.currentTimeMillis();
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("lastSuccess", toDateTime(health.lastSuccessAtMillis));
+        status.put("lastFailure", toDateTime(health.lastFailureAtMillis));
+        status.put("lastError", health.lastError);
+        status.put("latencyP50Ms", latency.p50);
+        status.put("latencyP95Ms", latency.p95);
+        status.put("latencyP99Ms", latency.p99);
+        status.put("errorRate", latency.errorRate);
+        status.put("sampleSize", latency.samples);
+        status.put("symbolsRefreshedLastCycle", health.symbolsRefreshedLastCycle);
+        status.put("lastCycle", toDateTime(health.lastCycleAtMillis));
+        Long oldest = health.oldestCachedAtMillis;
+        status.put("oldestCachedPriceAgeSeconds", oldest != null ? (now - oldest) / 1000 : null);
+        return status;
+    }
+
+    private ProviderHealth health(String provider) {
+        return providers.computeIfAbsent(provider, p -> new ProviderHealth(windowSize));
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return epochMillis > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), MARKET_ZONE) : null;
+    }
+
+    /**
+     * Ring buffer of recent call latencies and outcomes for one provider
+     */
+    private static final class ProviderHealth {
+        private final long[] latencies;
+        private final boolean[] failures;
+        private int next;
+        private int count;
+
+        private volatile long lastSuccessAtMillis;
+        private volatile long lastFailureAtMillis;
+        private volatile String lastError;
+        private volatile LatencyStats latency = LatencyStats.EMPTY;
+        private volatile int symbolsRefreshedLastCycle;
+        private volatile Long oldestCachedAtMillis;
+        private volatile long lastCycleAtMillis;
+
+        ProviderHealth(int windowSize) {
+            latencies = new long[Math.max(1, windowSize)];
+            failures = new boolean[latencies.length];
+        }
+
+        synchronized void recordCall(long latencyMillis, String error) {
+            latencies[next] = latencyMillis;
+            failures[next] = error != null;
+            next = (next + 1) % latencies.length;
+            count = Math.min(count + 1, latencies.length);
+
+            if (error == null) {
+                lastSuccessAtMillis = System.currentTimeMillis();
+            } else {
+                lastFailureAtMillis = System.currentTimeMillis();
+                lastError = error;
+            }
+
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int failed = 0;
+            for (int i = 0; i < count; i++) {
+                if (failures[i]) failed++;
+            }
+            latency = new LatencyStats(percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                    Math.round(failed * 10000.0 / count) / 10000.0, count);
+        }
+
+        private static long percentile(long[] sorted, int percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+
+    private static final class LatencyStats {
+        static final LatencyStats EMPTY = new LatencyStats(0, 0, 0, 0.0, 0);
+
+        final long p50;
+        final long p95;
+        final long p99;
+        final double errorRate;
+        final int samples;
+
+        LatencyStats(long p50, long p95, long p99, double errorRate, int samples) {
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.errorRate = errorRate;
+            this.samples = samples;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.financeapp.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+
+/**
+ * Inverted index over the scheme names of a NavStore, built once per NAV snapshot.
+ * Substring queries intersect the posting lists of the query's character trigrams and verify the
+ * few candidates against the pre-lowercased names; word-prefix queries use a sorted token
+ * dictionary (both kept in TrigramPostings). Schemes are numbered in name order, so results sort on a packed long key, and
+ * results are returned as NavStore slots.
+ *
+ * Ranking: name starts with the query, then the query starts a word, then it appears anywhere,
+ * then (only when those leave room) every query word is a prefix of some word in the name.
+ * Ties go to the shorter name, then alphabetical order.
+ */
+final class SchemeSearchIndex {
+
+    static final SchemeSearchIndex EMPTY = new SchemeSearchIndex(NavStore.EMPTY);
+
+    private static final int RANK_NAME_PREFIX = 0;
+    private static final int RANK_WORD_PREFIX = 1;
+    private static final int RANK_SUBSTRING = 2;
+    private static final int RANK_ALL_WORDS = 3;
+
+    private final int[] slots;
+    private final String[] names;
+    private final TrigramPostings postings;
+
+    SchemeSearchIndex(NavStore store) {
+        // Number schemes in (lower-cased name, scheme code) order
+        String[] lowerNames = new String[store.size()];
+        Integer[] order = new Integer[store.size()];
+        for (int slot = 0; slot < order.length; slot++) {
+            lowerNames[slot] = store.getSchemeName(slot).toLowerCase();
+            order[slot] = slot;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer slot) -> lowerNames[slot])
+                .thenComparingInt(store::getSchemeCode));
+
+        slots = new int[order.length];
+        names = new String[order.length];
+        for (int id = 0; id < order.length; id++) {
+            slots[id] = order[id];
+            names[id] = lowerNames[order[id]];
+        }
+        postings = new TrigramPostings(names.length, id -> new String[] { names[id] }, id -> names[id]);
+    }
+
+    /**
+     * NavStore slots of the best matches for the query in relevance order, at most limit of them
+     */
+    int[] search(String query, int limit) {
+        String q = query.toLowerCase().trim();
+        if (q.isEmpty() || names.length == 0) {
+            return new int[0];
+        }
+
+        long[] hits = new long[16];
+        int hitCount = 0;
+        BitSet matched = new BitSet(names.length);
+
+        for (int id : postings.substringCandidates(q)) {
+            String name = names[id];
+            int position = name.indexOf(q);
+            if (position < 0) {
+                continue; // Trigram false positive
+            }
+            int rank = position == 0 ? RANK_NAME_PREFIX : RANK_SUBSTRING;
+            for (; position > 0 && rank != RANK_WORD_PREFIX; position = name.indexOf(q, position + 1)) {
+                if (!Character.isLetterOrDigit(name.charAt(position - 1))) {
+                    rank = RANK_WORD_PREFIX;
+                }
+            }
+            hits = TrigramPostings.append(hits, hitCount++, key(rank, id));
+            matched.set(id);
+        }
+
+        if (hitCount < limit) {
+            BitSet allWords = allWordPrefixMatches(q);
+            allWords.andNot(matched);
+            for (int id = allWords.nextSetBit(0); id >= 0; id = allWords.nextSetBit(id + 1)) {
+                hits = TrigramPostings.append(hits, hitCount++, key(RANK_ALL_WORDS, id));
+            }
+        }
+
+        Arrays.sort(hits, 0, hitCount);
+        int[] results = new int[Math.min(limit, hitCount)];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = slots[(int) (hits[i] & 0xFFFFFF)];
+        }
+        return results;
+    }
+
+    long estimateHeapBytes() {
+        long bytes = 16 + 4L * slots.length + (16 + 4L * names.length) + postings.estimateHeapBytes();
+        for (String name : names) {
+            bytes += 40 + name.length();
+        }
+        return bytes;
+    }
+
+    int trigramCount() {
+        return postings.trigramCount();
+    }
+
+    /**
+     * Schemes where every word of the query is a prefix of some word of the name
+     */
+    private BitSet allWordPrefixMatches(String q) {
+        BitSet result = null;
+        for (String word : TrigramPostings.tokenize(q)) {
+            BitSet wordMatches = new BitSet(names.length);
+            for (int t = postings.firstToken(word); t < postings.tokenCount() && postings.token(t).startsWith(word); t++) {
+                for (int id : postings.tokenPostings(t)) {
+                    wordMatches.set(id);
+                }
+            }
+            if (result == null) {
+                result = wordMatches;
+            } else {
+                result.and(wordMatches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : new BitSet();
+    }
+
+    // Sort key: rank, then name length, then scheme id (which follows name order)
+    private long key(int rank, int id) {
+        return ((long) rank << 56) | ((long) Math.min(names[id].length(), 0xFFFF) << 24) | id;
+    }
+}
@@ -0,0 +1,229 @@
+package com.financeapp.service;
+
+import com.financeapp.model.StockSymbol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search index over the active stock symbols, rebuilt whenever the symbol cache is refilled.
+ * Stocks are numbered in symbol order. A query's candidates are the intersection of its trigram
+ * postings over symbol, company name and sector (every stock for one- and two-letter queries;
+ * see TrigramPostings).
+ * Each candidate is then ranked against the pre-lowercased fields.
+ *
+ * Ranking is the same as the old SQL search: symbol equals the query, symbol starts with it,
+ * company name starts with it, then it appears anywhere in symbol, name or sector. Ties are
+ * broken by symbol. If that leaves room, typo matches follow: every word of the query is within
+ * a small edit distance of the symbol or of the start of a word of the name. The first letter
+ * has to be right, which keeps the comparisons to one letter's slice of the sorted arrays.
+ * Typo matches are ranked by distance, then symbol.
+ */
+final class StockSearchIndex {
+
+    static final StockSearchIndex EMPTY = new StockSearchIndex(Collections.emptyList());
+
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_SYMBOL_PREFIX = 1;
+    private static final int RANK_NAME_PREFIX = 2;
+    private static final int RANK_CONTAINS = 3;
+    private static final int RANK_TYPO = 4;
+
+    // Query words shorter than this must match exactly; longer ones allow one edit, and two from TWO_EDIT_LENGTH
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int TWO_EDIT_LENGTH = 8;
+
+    private final StockSymbol[] stocks;
+    private final String[] symbols;
+    private final String[] names;
+    private final String[] sectors;
+    private final TrigramPostings postings;
+
+    StockSearchIndex(List<StockSymbol> source) {
+        List<StockSymbol> sorted = new ArrayList<>(source);
+        sorted.sort(Comparator.comparing(stock -> stock.getSymbol().toLowerCase()));
+
+        stocks = sorted.toArray(new StockSymbol[0]);
+        symbols = new String[stocks.length];
+        names = new String[stocks.length];
+        sectors = new String[stocks.length];
+        for (int id = 0; id < stocks.length; id++) {
+            symbols[id] = stocks[id].getSymbol().toLowerCase();
+            names[id] = stocks[id].getCompanyName() != null ? stocks[id].getCompanyName().toLowerCase() : "";
+            sectors[id] = stocks[id].getSector() != null ? stocks[id].getSector().toLowerCase() : "";
+        }
+        postings = new TrigramPostings(stocks.length, id -> new String[] { symbols[id], names[id], sectors[id] },
+                id -> names[id]);
+    }
+
+    /**
+     * Best matches for the query in relevance order, at most limit of them
+     */
+    List<StockSymbol> search(String query, int limit) {
+        String q = query.toLowerCase().trim();
+        if (q.isEmpty() || stocks.length == 0) {
+            return Collections.emptyList();
+        }
+
+        long[] hits = new long[16];
+        int hitCount = 0;
+        BitSet matched = new BitSet(stocks.length);
+
+        for (int id : postings.substringCandidates(q)) {
+            int rank;
+            if (symbols[id].equals(q)) {
+                rank = RANK_EXACT;
+            } else if (symbols[id].startsWith(q)) {
+                rank = RANK_SYMBOL_PREFIX;
+            } else if (names[id].startsWith(q)) {
+                rank = RANK_NAME_PREFIX;
+            } else if (symbols[id].contains(q) || names[id].contains(q) || sectors[id].contains(q)) {
+                rank = RANK_CONTAINS;
+            } else {
+                continue; // Trigram false positive
+            }
+            hits = TrigramPostings.append(hits, hitCount++, key(rank, 0, id));
+            matched.set(id);
+        }
+
+        if (hitCount < limit) {
+            Map<Integer, Integer> typoMatches = typoMatches(q);
+            for (Map.Entry<Integer, Integer> match : typoMatches.entrySet()) {
+                if (!matched.get(match.getKey())) {
+                    hits = TrigramPostings.append(hits, hitCount++, key(RANK_TYPO, match.getValue(), match.getKey()));
+                }
+            }
+        }
+
+        Arrays.sort(hits, 0, hitCount);
+        List<StockSymbol> results = new ArrayList<>(Math.min(limit, hitCount));
+        for (int i = 0; i < hitCount && i < limit; i++) {
+            results.add(stocks[(int) (hits[i] & 0xFFFFFF)]);
+        }
+        return results;
+    }
+
+    int trigramCount() {
+        return postings.trigramCount();
+    }
+
+    /**
+     * Stocks where every query word is close to the symbol or to the start of a name word,
+     * mapped to the total edit distance of the best match per word
+     */
+    private Map<Integer, Integer> typoMatches(String q) {
+        List<String> words = TrigramPostings.tokenize(q);
+        if (words.isEmpty() || words.stream().noneMatch(word -> word.length() >= MIN_TYPO_LENGTH)) {
+            return Collections.emptyMap();
+        }
+
+        Map<Integer, Integer> result = null;
+        for (String word : words) {
+            int maxEdits = word.length() >= TWO_EDIT_LENGTH ? 2 : word.length() >= MIN_TYPO_LENGTH ? 1 : 0;
+            Map<Integer, Integer> wordMatches = new HashMap<>();
+            // Only candidates sharing the first letter are compared; both arrays are sorted
+            String first = word.substring(0, 1);
+            for (int id = firstIndex(symbols, first); id < symbols.length && symbols[id].startsWith(first); id++) {
+                int distance = prefixDistance(word, symbols[id], maxEdits);
+                if (distance <= maxEdits) {
+                    wordMatches.merge(id, distance, Math::min);
+                }
+            }
+            for (int t = postings.firstToken(first); t < postings.tokenCount() && postings.token(t).startsWith(first); t++) {
+                int distance = prefixDistance(word, postings.token(t), maxEdits);
+                if (distance <= maxEdits) {
+                    for (int id : postings.tokenPostings(t)) {
+                        wordMatches.merge(id, distance, Math::min);
+                    }
+                }
+            }
+
+            if (result == null) {
+                result = wordMatches;
+            } else {
+                Map<Integer, Integer> previous = result;
+                result = new HashMap<>();
+                for (Map.Entry<Integer, Integer> match : wordMatches.entrySet()) {
+                    Integer distance = previous.get(match.getKey());
+                    if (distance != null) {
+                        result.put(match.getKey(), distance + match.getValue());
+                    }
+                }
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static int firstIndex(String[] sorted, String prefix) {
+        int index = Arrays.binarySearch(sorted, prefix);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Smallest edit distance between the word and a prefix of the candidate whose length is
+     * within maxEdits of the word's; anything above maxEdits is reported as maxEdits + 1
+     */
+    private static int prefixDistance(String word, String candidate, int maxEdits) {
+        if (candidate.length() < word.length() - maxEdits) {
+            return maxEdits + 1;
+        }
+        if (maxEdits == 0) {
+            return candidate.startsWith(word) ? 0 : 1;
+        }
+        int best = maxEdits + 1;
+        int maxLength = Math.min(candidate.length(), word.length() + maxEdits);
+        for (int length = Math.max(0, word.length() - maxEdits); length <= maxLength && best > 0; length++) {
+            best = Math.min(best, editDistance(word, candidate, length, maxEdits));
+        }
+        return best;
+    }
+
+    /**
+     * Optimal string alignment distance (adjacent transpositions count as one edit) between the
+     * word and the first length characters of the candidate, cut off above maxEdits
+     */
+    private static int editDistance(String word, String candidate, int length, int maxEdits) {
+        int[] previous2 = new int[length + 1];
+        int[] previous = new int[length + 1];
+        int[] current = new int[length + 1];
+        for (int j = 0; j <= length; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= word.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= length; j++) {
+                int cost = word.charAt(i - 1) == candidate.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && word.charAt(i - 1) == candidate.charAt(j - 2)
+                        && word.charAt(i - 2) == candidate.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[length], maxEdits + 1);
+    }
+
+    // Sort key: rank, then typo distance, then stock id (which follows symbol order)
+    private static long key(int rank, int distance, int id) {
+        return ((long) rank << 56) | ((long) Math.min(distance, 0xFF) << 24) | id;
+    }
+}
@@ -1,103 +1,426 @@
 package com.financeapp.service;
 
+import com.financeapp.model.DataSyncState;
+import com.financeapp.model.ResolvedYahooSymbol;
 import com.financeapp.model.StockSymbol;
+import com.financeapp.repository.DataSyncStateRepository;
+import com.financeapp.repository.ResolvedYahooSymbolRepository;
 import com.financeapp.repository.StockSymbolRepository;
+import com.opencsv.CSVReader;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * NSE symbol master: stock_symbols kept in step with the symbol file, and an in-memory cache of
+ * the active symbols. The file is applied only when its SHA-256 differs from the last applied
+ * one. An empty table gets one bulk insert; otherwise the file is diffed against the rows by
+ * symbol and only inserts, changed rows and deactivations are written, in JDBC batches. The
+ * cache is rebuilt from the file's rows and swapped in as a single reference.
+ * After each load the cache is also written to a binary snapshot (see SymbolSnapshot); a boot
+ * whose symbol file still matches the snapshot fills the cache from it without the database.
+ * Single-row changes (resolved Yahoo symbols) only mark the snapshot dirty once committed; it is
+ * rewritten at most every snapshot-flush-ms, and one write runs at a time.
+ * Yahoo symbols resolved for names with no stock_symbols row are kept in resolved_yahoo_symbol
+ * and held apart from the cache, so a cache rebuild does not drop them.
+ */
 @Service
 public class StockSymbolLoaderService {
     
+    private static final String SYNC_SOURCE = "nse-symbol-master";
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_symbols (symbol, company_name, series, listing_date, paid_up_value, market_lot, " +
+            "isin_number, face_value, sector, yahoo_symbol, is_active, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE company_name = VALUES(company_name), series = VALUES(series), " +
+            "isin_number = VALUES(isin_number), is_active = VALUES(is_active), updated_at = VALUES(updated_at)";
+    
+    private static final String UPDATE_SQL =
+            "UPDATE stock_symbols SET company_name = ?, series = ?, listing_date = ?, paid_up_value = ?, market_lot = ?, " +
+            "isin_number = ?, face_value = ?, is_active = TRUE, updated_at = ? WHERE symbol = ?";
+    
+    private static final String DEACTIVATE_SQL =
+            "UPDATE stock_symbols SET is_active = FALSE, updated_at = ? WHERE symbol = ?";
+    
+    private static final String SELECT_IDS_SQL = "SELECT id, symbol FROM stock_symbols";
+    
     @Autowired
     private StockSymbolRepository stockSymbolRepository;
     
-    // In-memory cache for O(1) access
-    private final Map<String, StockSymbol> symbolCache = new ConcurrentHashMap<>();
-    private final Map<String, String> symbolToYahooMapping = new ConcurrentHashMap<>();
+    @Autowired
+    private DataSyncStateRepository dataSyncStateRepository;
+    
+    @Autowired
+    private ResolvedYahooSymbolRepository resolvedYahooSymbolRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ResourceLoader resourceLoader;
+    
+    // Symbol file to sync from; a file: location lets a newer download replace the bundled copy
+    @Value("${investment.stock-symbols.source:classpath:stocksData.csv}")
+    private String sourceLocation;
+    
+    // Rows per JDBC batch for inserts, updates and deactivations
+    @Value("${investment.stock-symbols.batch-size:1000}")
+    private int batchSize;
+    
+    // Binary snapshot of the cache for fast startup; empty disables it
+    @Value("${investment.stock-symbols.snapshot-path:data/symbol-master.snap}")
+    private String snapshotPath;
+    
+    private volatile long lastLoadMillis = 0;
+    private volatile String lastLoadSource = "none";
+    // Checksum of the symbol file the cached rows correspond to
+    private volatile String sourceChecksum;
+    // Set after a committed row change the snapshot does not have yet
+    private volatile boolean snapshotDirty = false;
+    private volatile Map<String, Object> lastSync = Map.of();
+    
+    // In-memory cache for O(1) access; replaced as a whole so readers never see a half-built one
+    private volatile SymbolCache cache = SymbolCache.EMPTY;
+    // Yahoo symbols of names that are not in the symbol master, by upper-case name
+    private final Map<String, String> resolvedYahooSymbols = new ConcurrentHashMap<>();
     private final DateTimeFormatter[] dateFormatters = {
         DateTimeFormatter.ofPattern("dd-MMM-yyyy"),
         DateTimeFormatter.ofPattern("dd-MM-yyyy"),
         DateTimeFormatter.ofPattern("yyyy-MM-dd")
     };
     
+    /**
+     * Startup load: apply the symbol file if it changed since the last sync, then make sure the
+     * cache is filled
+     */
     @Transactional
     public void loadStockSymbolsFromCSV() {
         try {
-            // Check if data already exists
-            long count = stockSymbolRepository.countActiveSymbols();
-            if (count > 0) {
-                System.out.println("Stock symbols already loaded (" + count + " symbols). Loading cache from database...");
+            if (!syncFromFile()) {
+                System.out.println("Stock symbol file unchanged since last sync. Loading cache from database...");
                 loadCacheFromDatabase();
-                return;
-            }
-            
-            System.out.println("Loading stock symbols from CSV file: stocksData.csv");
-            
-            ClassPathResource resource = new ClassPathResource("stocksData.csv");
-            BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream()));
-            
-            String line;
-            int processed = 0;
-            int skipped = 0;
-            boolean isFirstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                try {
-                    // Skip header
-                    if (isFirstLine) {
-                        isFirstLine = false;
-                        continue;
-                    }
-                    
-                    StockSymbol symbol = parseCSVLine(line);
-                    if (symbol != null) {
-                        stockSymbolRepository.save(symbol);
-                        processed++;
-                        
-                        if (processed % 500 == 0) {
-                            System.out.println("Processed " + processed + " stock symbols...");
-                        }
-                    } else {
-                        skipped++;
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error processing line: " + line + " - " + e.getMessage());
-                    skipped++;
-                }
             }
-            
-            reader.close();
-            
-            System.out.println("Stock symbol loading completed:");
-            System.out.println("- Processed: " + processed);
-            System.out.println("- Skipped: " + skipped);
-            
-            // Load into cache
-            loadCacheFromDatabase();
-            
         } catch (Exception e) {
             System.err.println("Error loading stock symbols from CSV: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
-    private StockSymbol parseCSVLine(String line) {
+    /**
+     * Scheduled refresh, also run after a snapshot load: applies the symbol file if the table
+     * is empty or its last applied checksum differs from the file's, otherwise touches neither
+     * the table nor the cache
+     */
+    @Transactional
+    public boolean syncStockSymbols() {
+        try {
+            return syncFromFile();
+        } catch (Exception e) {
+            System.err.println("Error syncing stock symbols: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Fill the cache from the binary snapshot if its header names the current symbol file;
+     * returns false (and leaves the cache alone) when the snapshot is missing or stale.
+     * The database is not touched: whether stock_symbols still holds that file is checked by
+     * the sync that follows a snapshot load.
+     */
+    public boolean loadFromSnapshot() {
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return false;
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            String checksum = checksum(readSource());
+            List<StockSymbol> symbols = SymbolSnapshot.read(Path.of(snapshotPath), checksum);
+            if (symbols == null) {
+                System.out.println("Symbol snapshot " + snapshotPath + " missing or stale; loading from database");
+                return false;
+            }
+            fillCache(symbols);
+            sourceChecksum = checksum;
+            lastLoadSource = "snapshot";
+            lastLoadMillis = System.currentTimeMillis() - startTime;
+            System.out.println("Loaded " + symbols.size() + " stock symbols from snapshot in " + lastLoadMillis + "ms");
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error reading symbol snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Write the current cache to the binary snapshot; called after a load or sync has committed.
+     * Writers share the snapshot's temporary file, so they run one at a time.
+     */
+    public synchronized void writeSnapshot() {
+        String checksum = sourceChecksum;
+        if (snapshotPath == null || snapshotPath.isBlank() || checksum == null) {
+            return;
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            List<StockSymbol> symbols = new ArrayList<>(cache.symbols.values());
+            SymbolSnapshot.write(Path.of(snapshotPath), checksum, symbols);
+            System.out.println("Wrote symbol snapshot (" + symbols.size() + " symbols) in " +
+                              (System.currentTimeMillis() - startTime) + "ms");
+        } catch (Exception e) {
+            System.err.println("Error writing symbol snapshot: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Rewrite the snapshot if committed changes are missing from it
+     */
+    @Scheduled(fixedDelayString = "${investment.stock-symbols.snapshot-flush-ms:60000}")
+    public void flushSnapshot() {
+        if (snapshotDirty) {
+            // Cleared first, so a change committed during the write is picked up next time
+            snapshotDirty = false;
+            writeSnapshot();
+        }
+    }
+    
+    // Mark the snapshot dirty once the current transaction commits (at once outside one)
+    private void markSnapshotDirtyAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            snapshotDirty = true;
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                snapshotDirty = true;
+            }
+        });
+    }
+    
+    /**
+     * Apply the symbol file to stock_symbols and rebuild the cache from it; returns false when
+     * the file matches the last applied checksum and nothing was done
+     */
+    private boolean syncFromFile() throws Exception {
+        long startTime = System.currentTimeMillis();
+        byte[] content = readSource();
+        String checksum = checksum(content);
+    
+        DataSyncState state = dataSyncStateRepository.findById(SYNC_SOURCE).orElse(null);
+        boolean tableEmpty = stockSymbolRepository.count() == 0;
+        if (!tableEmpty && state != null && checksum.equals(state.getChecksum())) {
+            sourceChecksum = checksum;
+            return false;
+        }
+    
+        System.out.println("Syncing stock symbols from " + sourceLocation);
+        Map<String, StockSymbol> parsed = parseSymbolFile(content);
+        long parsedAt = System.currentTimeMillis();
+    
+        Map<String, Object> sync = new LinkedHashMap<>();
+        if (tableEmpty) {
+            bulkInsert(new ArrayList<>(parsed.values()));
+            sync.put("inserted", parsed.size());
+        } else {
+            sync.putAll(applyChanges(parsed));
+        }
+        long writtenAt = System.currentTimeMillis();
+        if (!Integer.valueOf(0).equals(sync.get("inserted"))) {
+            readBackIds(parsed);
+        }
+        long idsReadAt = System.currentTimeMillis();
+    
+        // The cache is filled from the file's rows; only their generated ids are read back
+        fillCache(new ArrayList<>(parsed.values()));
+        dataSyncStateRepository.save(new DataSyncState(SYNC_SOURCE, checksum, parsed.size()));
+        sourceChecksum = checksum;
+    
+        lastLoadSource = "file";
+        lastLoadMillis = System.currentTimeMillis() - startTime;
+        sync.put("checksum", checksum);
+        sync.put("parseMs", parsedAt - startTime);
+        sync.put("writeMs", writtenAt - parsedAt);
+        sync.put("idReadMs", idsReadAt - writtenAt);
+        sync.put("totalMs", lastLoadMillis);
+        sync.put("syncedAt", LocalDateTime.now());
+        lastSync = sync;
+        System.out.println("Stock symbol sync completed: " + sync);
+        return true;
+    }
+    
+    private byte[] readSource() throws IOException {
+        Resource resource = resourceLoader.getResource(sourceLocation);
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+    
+    private static String checksum(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+    
+    private Map<String, StockSymbol> parseSymbolFile(byte[] content) throws Exception {
+        // Duplicate symbols in the file keep their first row
+        Map<String, StockSymbol> parsed = new LinkedHashMap<>();
+        try (CSVReader reader = new CSVReader(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+            reader.skip(1); // header
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                StockSymbol symbol = parseCSVRow(row);
+                if (symbol != null && parsed.putIfAbsent(symbol.getSymbol().toUpperCase(), symbol) == null) {
+                    symbol.applyInsertDefaults();
+                }
+            }
+        }
+        return parsed;
+    }
+    
+    /**
+     * Diff the file's rows against stock_symbols by symbol and write only the differences.
+     * Rows kept from the table carry their id, sector and (possibly resolved) Yahoo symbol into
+     * the parsed rows, so the cache built from them matches the table.
+     */
+    private Map<String, Object> applyChanges(Map<String, StockSymbol> parsed) {
+        Map<String, StockSymbol> existing = new HashMap<>();
+        for (StockSymbol row : stockSymbolRepository.findAll()) {
+            existing.put(row.getSymbol().toUpperCase(), row);
+        }
+    
+        List<StockSymbol> inserts = new ArrayList<>();
+        List<StockSymbol> updates = new ArrayList<>();
+        for (Map.Entry<String, StockSymbol> entry : parsed.entrySet()) {
+            StockSymbol symbol = entry.getValue();
+            StockSymbol row = existing.get(entry.getKey());
+            if (row == null) {
+                inserts.add(symbol);
+                continue;
+            }
+            if (!row.isActive() || !sameListing(row, symbol)) {
+                updates.add(symbol);
+            }
+            symbol.setId(row.getId());
+            symbol.setSector(row.getSector());
+            symbol.setYahooSymbol(row.getYahooSymbol());
+            symbol.setCreatedAt(row.getCreatedAt());
+        }
+    
+        List<String> deactivations = new ArrayList<>();
+        existing.forEach((key, row) -> {
+            if (row.isActive() && !parsed.containsKey(key)) {
+                deactivations.add(row.getSymbol());
+            }
+        });
+    
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        bulkInsert(inserts);
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, batchSize, (ps, symbol) -> {
+            ps.setString(1, symbol.getCompanyName());
+            ps.setString(2, symbol.getSeries());
+            ps.setObject(3, symbol.getListingDate() != null ? Date.valueOf(symbol.getListingDate()) : null, Types.DATE);
+            ps.setObject(4, symbol.getPaidUpValue(), Types.DOUBLE);
+            ps.setObject(5, symbol.getMarketLot(), Types.INTEGER);
+            ps.setString(6, symbol.getIsinNumber());
+            ps.setObject(7, symbol.getFaceValue(), Types.DOUBLE);
+            ps.setTimestamp(8, now);
+            ps.setString(9, symbol.getSymbol());
+        });
+        jdbcTemplate.batchUpdate(DEACTIVATE_SQL, deactivations, batchSize, (ps, symbol) -> {
+            ps.setTimestamp(1, now);
+            ps.setString(2, symbol);
+        });
+    
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("inserted", inserts.size());
+        changes.put("updated", updates.size());
+        changes.put("deactivated", deactivations.size());
+        changes.put("unchanged", parsed.size() - inserts.size() - updates.size());
+        return changes;
+    }
+    
+    /**
+     * Give inserted rows their generated ids. Batched inserts do not hand back a key per row
+     * (and ON DUPLICATE KEY rows have none to return), so the ids are read in one pass over
+     * (id, symbol); rows kept from the table already carry theirs.
+     */
+    private void readBackIds(Map<String, StockSymbol> parsed) {
+        jdbcTemplate.query(SELECT_IDS_SQL, (RowCallbackHandler) rs -> {
+            StockSymbol symbol = parsed.get(rs.getString(2).toUpperCase());
+            if (symbol != null && symbol.getId() == null) {
+                symbol.setId(rs.getLong(1));
+            }
+        });
+    }
+    
+    // Whether the stored row already has every field the file provides
+    private static boolean sameListing(StockSymbol row, StockSymbol symbol) {
+        return Objects.equals(row.getCompanyName(), symbol.getCompanyName())
+                && Objects.equals(row.getSeries(), symbol.getSeries())
+                && Objects.equals(row.getListingDate(), symbol.getListingDate())
+                && Objects.equals(row.getPaidUpValue(), symbol.getPaidUpValue())
+                && Objects.equals(row.getMarketLot(), symbol.getMarketLot())
+                && Objects.equals(row.getIsinNumber(), symbol.getIsinNumber())
+                && Objects.equals(row.getFaceValue(), symbol.getFaceValue());
+    }
+    
+    /**
+     * Insert symbols with JDBC batches; with rewriteBatchedStatements on the datasource URL the
+     * MySQL driver sends each batch as one multi-row INSERT. Rows whose symbol already exists
+     * (inactive leftovers) are reactivated with the file's values.
+     */
+    private void bulkInsert(List<StockSymbol> symbols) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, symbols, batchSize, (ps, symbol) -> {
+            ps.setString(1, symbol.getSymbol());
+            ps.setString(2, symbol.getCompanyName());
+            ps.setString(3, symbol.getSeries());
+            ps.setObject(4, symbol.getListingDate() != null ? Date.valueOf(symbol.getListingDate()) : null, Types.DATE);
+            ps.setObject(5, symbol.getPaidUpValue(), Types.DOUBLE);
+            ps.setObject(6, symbol.getMarketLot(), Types.INTEGER);
+            ps.setString(7, symbol.getIsinNumber());
+            ps.setObject(8, symbol.getFaceValue(), Types.DOUBLE);
+            ps.setString(9, symbol.getSector());
+            ps.setString(10, symbol.getYahooSymbol());
+            ps.setBoolean(11, symbol.isActive());
+            ps.setTimestamp(12, Timestamp.valueOf(symbol.getCreatedAt()));
+            ps.setTimestamp(13, Timestamp.valueOf(symbol.getUpdatedAt()));
+        });
+    }
+    
+    private StockSymbol parseCSVRow(String[] parts) {
         // CSV format: SYMBOL,NAME OF COMPANY, SERIES, DATE OF LISTING, PAID UP VALUE, MARKET LOT, ISIN NUMBER, FACE VALUE
         
-        String[] parts = line.split(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
-        
         if (parts.length < 3) {
             return null;
         }
@@ -105,14 +428,14 @@ public class StockSymbolLoaderService {
         try {
             String symbol = cleanValue(parts[0]);
             String companyName = cleanValue(parts[1]);
-            String series = parts.length > 2 ? cleanValue(parts[2]) : "EQ";
+            String series = cleanValue(parts[2]);
             
             // Skip invalid symbols
             if (symbol.isEmpty() || companyName.isEmpty()) {
                 return null;
             }
             
-            StockSymbol stockSymbol = new StockSymbol(symbol, companyName, series);
+            StockSymbol stockSymbol = new StockSymbol(symbol, companyName, series.isEmpty() ? "EQ" : series);
             
             // Parse optional fields
             if (parts.length > 3) {
@@ -162,7 +485,7 @@ public class StockSymbolLoaderService {
             return stockSymbol;
             
         } catch (Exception e) {
-            System.err.println("Error parsing CSV line: " + line + " - " + e.getMessage());
+            System.err.println("Error parsing CSV row: " + String.join(",", parts) + " - " + e.getMessage());
             return null;
         }
     }
@@ -187,29 +510,32 @@ public class StockSymbolLoaderService {
     public void loadCacheFromDatabase() {
         System.out.println("Loading stock symbols into memory cache...");
         
-        List<StockSymbol> symbols = stockSymbolRepository.findByIsActiveTrue();
-        
-        symbolCache.clear();
-        symbolToYahooMapping.clear();
+        long startTime = System.currentTimeMillis();
         
-        for (StockSymbol symbol : symbols) {
-            symbolCache.put(symbol.getSymbol().toUpperCase(), symbol);
-            if (symbol.getYahooSymbol() != null) {
-                symbolToYahooMapping.put(symbol.getSymbol().toUpperCase(), symbol.getYahooSymbol());
-            }
-        }
+        List<StockSymbol> symbols = stockSymbolRepository.findByIsActiveTrue();
+        fillCache(symbols);
+        lastLoadSource = "database";
+        lastLoadMillis = System.currentTimeMillis() - startTime;
         
-        System.out.println("Loaded " + symbols.size() + " stock symbols into cache");
+        System.out.println("Loaded " + symbols.size() + " stock symbols into cache in " + lastLoadMillis + "ms");
         System.out.println("Memory usage: ~" + (symbols.size() * 200 / 1024) + "KB");
     }
     
+    private void fillCache(List<StockSymbol> symbols) {
+        cache = new SymbolCache(symbols);
+    }
+    
     // Fast lookup methods using cache
     public StockSymbol findBySymbol(String symbol) {
-        return symbolCache.get(symbol.toUpperCase());
+        return cache.symbols.get(symbol.toUpperCase());
     }
     
     public String getYahooSymbol(String symbol) {
-        String yahooSymbol = symbolToYahooMapping.get(symbol.toUpperCase());
+        String key = symbol.toUpperCase();
+        String yahooSymbol = cache.yahooSymbols.get(key);
+        if (yahooSymbol == null) {
+            yahooSymbol = resolvedYahooSymbols.get(key);
+        }
         if (yahooSymbol != null) {
             return yahooSymbol;
         }
@@ -217,17 +543,68 @@ public class StockSymbolLoaderService {
         return symbol.toUpperCase() + ".NS";
     }
     
+    /**
+     * Record a Yahoo symbol that was verified to quote, so it survives restarts. Listed symbols
+     * get it written to stock_symbols.yahoo_symbol; other names (e.g. holdings imported by
+     * company name) to resolved_yahoo_symbol.
+     */
+    @Transactional
+    public void saveResolvedYahooSymbol(String symbol, String yahooSymbol) {
+        String key = symbol.toUpperCase();
+        SymbolCache current = cache;
+        StockSymbol stockSymbol = current.symbols.get(key);
+        if (stockSymbol == null) {
+            if (!yahooSymbol.equals(resolvedYahooSymbols.put(key, yahooSymbol))) {
+                resolvedYahooSymbolRepository.save(new ResolvedYahooSymbol(key, yahooSymbol));
+            }
+            return;
+        }
+        current.yahooSymbols.put(key, yahooSymbol);
+        if (!yahooSymbol.equals(stockSymbol.getYahooSymbol())) {
+            stockSymbolRepository.findBySymbol(stockSymbol.getSymbol()).ifPresent(row -> {
+                row.setYahooSymbol(yahooSymbol);
+                current.symbols.put(key, stockSymbolRepository.save(row));
+                markSnapshotDirtyAfterCommit();
+            });
+        }
+    }
+    
+    /**
+     * Load the Yahoo symbols resolved for unlisted names in earlier runs; called at startup
+     */
+    public void loadResolvedYahooSymbols() {
+        try {
+            for (ResolvedYahooSymbol row : resolvedYahooSymbolRepository.findAll()) {
+                resolvedYahooSymbols.put(row.getSymbol().toUpperCase(), row.getYahooSymbol());
+            }
+            System.out.println("Loaded " + resolvedYahooSymbols.size() + " resolved Yahoo symbols for unlisted names");
+        } catch (Exception e) {
+            System.err.println("Error loading resolved Yahoo symbols: " + e.getMessage());
+        }
+    }
+    
     public Map<String, String> getAllYahooSymbolMappings() {
-        return new HashMap<>(symbolToYahooMapping);
+        Map<String, String> mappings = new HashMap<>(resolvedYahooSymbols);
+        mappings.putAll(cache.yahooSymbols);
+        return mappings;
     }
     
+    /**
+     * Ranked autocomplete over the cached symbols (see StockSearchIndex); never queries the database
+     */
     public List<StockSymbol> searchSymbols(String query) {
-        // Use database search for complex queries with ranking
-        return stockSymbolRepository.searchSymbols(query);
+        return cache.searchIndex().search(query, 20);
+    }
+    
+    /**
+     * Build the current cache's search index ahead of the first autocomplete request
+     */
+    public void warmSearchIndex() {
+        cache.searchIndex();
     }
     
     public boolean isSymbolSupported(String symbol) {
-        return symbolCache.containsKey(symbol.toUpperCase());
+        return cache.symbols.containsKey(symbol.toUpperCase());
     }
     
     public List<StockSymbol> getPopularStocks() {
@@ -239,14 +616,57 @@ public class StockSymbolLoaderService {
     }
     
     public int getCacheSize() {
-        return symbolCache.size();
+        return cache.symbols.size();
     }
     
     public Map<String, Object> getCacheStats() {
+        SymbolCache current = cache;
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalSymbols", symbolCache.size());
-        stats.put("yahooMappings", symbolToYahooMapping.size());
-        stats.put("memoryUsageKB", symbolCache.size() * 200 / 1024);
+        stats.put("totalSymbols", current.symbols.size());
+        stats.put("yahooMappings", current.yahooSymbols.size());
+        stats.put("resolvedUnlisted", resolvedYahooSymbols.size());
+        stats.put("memoryUsageKB", current.symbols.size() * 200 / 1024);
+        stats.put("lastLoadMs", lastLoadMillis);
+        stats.put("lastLoadSource", lastLoadSource);
+        stats.put("searchTrigrams", current.searchIndex != null ? current.searchIndex.trigramCount() : 0);
+        stats.put("lastSync", lastSync);
         return stats;
     }
+    
+    /**
+     * One generation of the symbol cache: lookups, Yahoo mappings and the search index built
+     * from the same rows. The search index is built on first use, so filling the cache at boot
+     * only costs the two maps.
+     */
+    private static final class SymbolCache {
+        static final SymbolCache EMPTY = new SymbolCache(List.of());
+        
+        private final Map<String, StockSymbol> symbols = new ConcurrentHashMap<>();
+        private final Map<String, String> yahooSymbols = new ConcurrentHashMap<>();
+        private final List<StockSymbol> rows;
+        private volatile StockSearchIndex searchIndex;
+        
+        SymbolCache(List<StockSymbol> rows) {
+            this.rows = rows;
+            for (StockSymbol symbol : rows) {
+                symbols.put(symbol.getSymbol().toUpperCase(), symbol);
+                if (symbol.getYahooSymbol() != null) {
+                    yahooSymbols.put(symbol.getSymbol().toUpperCase(), symbol.getYahooSymbol());
+                }
+            }
+        }
+        
+        StockSearchIndex searchIndex() {
+            StockSearchIndex index = searchIndex;
+            if (index == null) {
+                synchronized (this) {
+                    if (searchIndex == null) {
+                        searchIndex = rows.isEmpty() ? StockSearchIndex.EMPTY : new StockSearchIndex(rows);
+                    }
+                    index = searchIndex;
+                }
+            }
+            return index;
+        }
+    }
 }
\ No newline at end of file
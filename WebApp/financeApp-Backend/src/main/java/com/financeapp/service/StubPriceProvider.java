@@ -0,0 +1,106 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local price provider for tests and load runs. When enabled, the router sends every
+ * supported type here instead of Yahoo/AMFI. Each symbol starts at a price derived from its
+ * name, which also serves as its previous close, and random-walks by up to max-move-pct per
+ * fetch; an optional latency simulates a remote provider.
+ */
+@Service
+public class StubPriceProvider implements PriceProvider {
+
+    @Value("${investment.price-providers.stub.enabled:false}")
+    private boolean enabled;
+
+    @Value("${investment.price-providers.stub.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${investment.price-providers.stub.max-move-pct:0.5}")
+    private double maxMovePct;
+
+    @Value("${investment.price-providers.stub.batch-size:100}")
+    private int batchSize;
+
+    private final Map<String, BigDecimal> lastPrices = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public String getPriceSource() {
+        return "STUB";
+    }
+
+    @Override
+    public Set<InvestmentType> getSupportedTypes() {
+        return EnumSet.of(InvestmentType.STOCK, InvestmentType.MUTUAL_FUND, InvestmentType.ETF,
+                InvestmentType.BOND, InvestmentType.CRYPTO, InvestmentType.GOLD);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int getMaxConcurrentBatches() {
+        return 8;
+    }
+
+    @Override
+    public double getRequestsPerSecond() {
+        return 1000;
+    }
+
+    @Override
+    public Map<String, Price> fetchPrices(InvestmentType type, List<String> symbols) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Map<String, Price> prices = new HashMap<>();
+        for (String symbol : symbols) {
+            BigDecimal previousClose = initialPrice(symbol);
+            BigDecimal previous = lastPrices.getOrDefault(symbol, previousClose);
+            double move = ThreadLocalRandom.current().nextDouble(-maxMovePct, maxMovePct);
+            BigDecimal price = previous.multiply(BigDecimal.valueOf(1 + move / 100)).setScale(2, RoundingMode.HALF_UP);
+            lastPrices.put(symbol, price);
+            BigDecimal dailyReturn = price.subtract(previousClose)
+                    .divide(previousClose, 6, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100))
+                    .setScale(4, RoundingMode.HALF_UP);
+            prices.put(symbol, new Price(price, previousClose, dailyReturn));
+        }
+        return prices;
+    }
+
+    // Stable starting price between 10 and 5000 per symbol
+    private static BigDecimal initialPrice(String symbol) {
+        int bucket = Math.floorMod(symbol.toUpperCase().hashCode(), 499_000);
+        return BigDecimal.valueOf(1000 + bucket, 2);
+    }
+}
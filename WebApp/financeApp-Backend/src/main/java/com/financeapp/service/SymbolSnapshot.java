@@ -0,0 +1,164 @@
+package com.financeapp.service;
+
+import com.financeapp.model.StockSymbol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of the active symbol master, read back through a memory-mapped file so the
+ * symbol cache can be filled at startup without a database query.
+ *
+ * Layout: magic "SYMS", format version, SHA-256 of the symbol file the rows came from, row
+ * count, CRC32 of the row section, then the rows. Strings are UTF-8 with an int length prefix.
+ * Missing numbers are stored as a sentinel (NaN, Integer.MIN_VALUE, Long.MIN_VALUE).
+ * A snapshot whose version, source checksum or CRC does not match, or that ends early, is ignored.
+ */
+final class SymbolSnapshot {
+
+    private static final int MAGIC = 0x53594D53; // "SYMS"
+    // 2: string lengths widened from short to int
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 32 + 4 + 8;
+
+    private SymbolSnapshot() {}
+
+    /**
+     * Write the rows to path through a temporary file, so a reader never maps a partial snapshot
+     */
+    static void write(Path path, String sourceChecksum, List<StockSymbol> symbols) throws IOException {
+        ByteArrayOutputStream rowBytes = new ByteArrayOutputStream(symbols.size() * 128);
+        DataOutputStream rows = new DataOutputStream(rowBytes);
+        for (StockSymbol symbol : symbols) {
+            rows.writeLong(symbol.getId() != null ? symbol.getId() : Long.MIN_VALUE);
+            writeString(rows, symbol.getSymbol());
+            writeString(rows, symbol.getCompanyName());
+            writeString(rows, symbol.getSeries());
+            rows.writeLong(symbol.getListingDate() != null ? symbol.getListingDate().toEpochDay() : Long.MIN_VALUE);
+            rows.writeDouble(symbol.getPaidUpValue() != null ? symbol.getPaidUpValue() : Double.NaN);
+            rows.writeInt(symbol.getMarketLot() != null ? symbol.getMarketLot() : Integer.MIN_VALUE);
+            writeString(rows, symbol.getIsinNumber());
+            rows.writeDouble(symbol.getFaceValue() != null ? symbol.getFaceValue() : Double.NaN);
+            writeString(rows, symbol.getSector());
+            writeString(rows, symbol.getYahooSymbol());
+        }
+        byte[] body = rowBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.put(HexFormat.of().parseHex(sourceChecksum));
+        header.putInt(symbols.size());
+        header.putLong(crc.getValue());
+        header.flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(new ByteBuffer[] { header, ByteBuffer.wrap(body) });
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Rows of the snapshot at path, or null when it is missing, from another format version,
+     * built from a different symbol file, corrupt or truncated
+     */
+    static List<StockSymbol> read(Path path, String expectedSourceChecksum) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_BYTES) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            byte[] sourceChecksum = new byte[32];
+            buffer.get(sourceChecksum);
+            if (!HexFormat.of().formatHex(sourceChecksum).equalsIgnoreCase(expectedSourceChecksum)) {
+                return null;
+            }
+            int count = buffer.getInt();
+            long expectedCrc = buffer.getLong();
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice());
+            if (count < 0 || crc.getValue() != expectedCrc) {
+                return null;
+            }
+            return readRows(buffer, count);
+        } catch (BufferUnderflowException e) {
+            // Fewer rows than the header promises
+            return null;
+        }
+    }
+
+    private static List<StockSymbol> readRows(ByteBuffer buffer, int count) {
+        List<StockSymbol> symbols = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = buffer.getLong();
+            StockSymbol symbol = new StockSymbol(readString(buffer), readString(buffer), readString(buffer));
+            symbol.setId(id != Long.MIN_VALUE ? id : null);
+            long listingDate = buffer.getLong();
+            symbol.setListingDate(listingDate != Long.MIN_VALUE ? LocalDate.ofEpochDay(listingDate) : null);
+            double paidUpValue = buffer.getDouble();
+            symbol.setPaidUpValue(Double.isNaN(paidUpValue) ? null : paidUpValue);
+            int marketLot = buffer.getInt();
+            symbol.setMarketLot(marketLot != Integer.MIN_VALUE ? marketLot : null);
+            symbol.setIsinNumber(readString(buffer));
+            double faceValue = buffer.getDouble();
+            symbol.setFaceValue(Double.isNaN(faceValue) ? null : faceValue);
+            symbol.setSector(readString(buffer));
+            symbol.setYahooSymbol(readString(buffer));
+            symbols.add(symbol);
+        }
+        return symbols;
+    }
+
+    // Length-prefixed UTF-8; a length of -1 stands for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,184 @@
+package com.financeapp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+/**
+ * Posting lists shared by the search indexes (StockSearchIndex, SchemeSearchIndex).
+ * Documents are numbered 0..size-1 by the index that owns them. Every character trigram of a
+ * document's fields maps to the sorted ids containing it, and every word of its word field to a
+ * sorted token dictionary, so substring candidates are an intersection of trigram postings and
+ * word-prefix lookups a range of the dictionary.
+ */
+final class TrigramPostings {
+
+    private final int[] allIds;
+    private final Map<Long, int[]> trigramPostings;
+    private final String[] tokens;
+    private final int[][] tokenPostings;
+
+    /**
+     * Post the trigrams of every field and the words of the word field of each document; fields
+     * are expected lower-cased
+     */
+    TrigramPostings(int size, IntFunction<String[]> fields, IntFunction<String> wordField) {
+        allIds = new int[size];
+        Map<Long, PostingList> trigrams = new HashMap<>();
+        TreeMap<String, PostingList> tokenMap = new TreeMap<>();
+        for (int id = 0; id < size; id++) {
+            allIds[id] = id;
+            for (String field : fields.apply(id)) {
+                for (int i = 0; i + 3 <= field.length(); i++) {
+                    trigrams.computeIfAbsent(trigram(field, i), key -> new PostingList()).add(id);
+                }
+            }
+            for (String token : tokenize(wordField.apply(id))) {
+                tokenMap.computeIfAbsent(token, key -> new PostingList()).add(id);
+            }
+        }
+
+        trigramPostings = new HashMap<>(trigrams.size() * 2);
+        trigrams.forEach((key, postings) -> trigramPostings.put(key, postings.toArray()));
+        tokens = tokenMap.keySet().toArray(new String[0]);
+        tokenPostings = new int[tokens.length][];
+        int t = 0;
+        for (PostingList postings : tokenMap.values()) {
+            tokenPostings[t++] = postings.toArray();
+        }
+    }
+
+    /**
+     * Documents that may contain the query in a field: the intersection of its trigram
+     * postings, or every document when the query is too short to have a trigram
+     */
+    int[] substringCandidates(String q) {
+        if (q.length() < 3) {
+            return allIds;
+        }
+
+        List<int[]> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            int[] postings = trigramPostings.get(trigram(q, i));
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.length));
+
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    int tokenCount() {
+        return tokens.length;
+    }
+
+    String token(int t) {
+        return tokens[t];
+    }
+
+    int[] tokenPostings(int t) {
+        return tokenPostings[t];
+    }
+
+    /**
+     * Index of the first dictionary token that is not below the prefix; tokens starting with
+     * the prefix follow it
+     */
+    int firstToken(String prefix) {
+        int index = Arrays.binarySearch(tokens, prefix);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    int trigramCount() {
+        return trigramPostings.size();
+    }
+
+    long estimateHeapBytes() {
+        long bytes = 16 + 4L * allIds.length;
+        for (int[] postings : trigramPostings.values()) {
+            bytes += 16 + 4L * postings.length + 32 + 24; // array, map node, boxed key
+        }
+        for (int t = 0; t < tokens.length; t++) {
+            bytes += 40 + tokens[t].length() + 16 + 4L * tokenPostings[t].length;
+        }
+        return bytes;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    // Append to a growable array of packed sort keys, returning the (possibly new) array
+    static long[] append(long[] array, int index, long value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        array[index] = value;
+        return array;
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Growable sorted list of document ids; ids arrive in increasing order, so repeats are adjacent
+     */
+    private static final class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
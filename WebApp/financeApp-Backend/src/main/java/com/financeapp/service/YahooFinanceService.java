@@ -2,23 +2,47 @@ package com.financeapp.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeapp.model.PriceHistory;
+import com.financeapp.model.StockSymbol;
+import com.financeapp.repository.InvestmentRepository;
 import com.financeapp.service.StockSymbolLoaderService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -28,18 +52,101 @@ import java.util.stream.Collectors;
 @Service
 public class YahooFinanceService {
     
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Kolkata");
+    
+    private static final Pattern ISIN_IN_NOTES = Pattern.compile("ISIN:\\s*([A-Z]{2}[A-Z0-9]{9}[0-9])");
+    
     @Autowired
     private StockSymbolLoaderService stockSymbolLoaderService;
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private PriceFetchExecutor priceFetchExecutor;
+    
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+    
+    @Autowired
+    private MarketCalendarService marketCalendarService;
+
+    @Autowired
+    private ProviderHealthService providerHealthService;
+    
+    @Autowired
+    private InvestmentRepository investmentRepository;
+    
+    // Shared pooled client with timeouts (see HttpClientConfig)
+    @Autowired
+    private RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     @Value("${yahoo.finance.api.base-url:https://query1.finance.yahoo.com/v8/finance/chart}")
     private String yahooFinanceBaseUrl;
     
+    @Value("${yahoo.finance.api.spark-url:https://query1.finance.yahoo.com/v8/finance/spark}")
+    private String yahooSparkUrl;
+    
+    @Value("${yahoo.finance.api.search-url:https://query1.finance.yahoo.com/v1/finance/search}")
+    private String yahooSearchUrl;
+    
+    // Backoff for symbols no candidate Yahoo symbol could be found for; doubles per failed resolution
+    @Value("${yahoo.finance.resolution.initial-backoff-ms:900000}")
+    private long resolutionInitialBackoffMs;
+    
+    @Value("${yahoo.finance.resolution.max-backoff-ms:86400000}")
+    private long resolutionMaxBackoffMs;
+    
+    // Range fetched when a symbol's daily history is first backfilled
+    @Value("${investment.price-history.backfill-range:5y}")
+    private String backfillRange;
+    
+    // Backoff for symbols Yahoo has no daily bars for; doubles per empty backfill
+    @Value("${investment.price-history.empty-backfill-backoff-ms:21600000}")
+    private long emptyBackfillBackoffMs;
+    
+    @Value("${investment.price-history.empty-backfill-max-backoff-ms:604800000}")
+    private long emptyBackfillMaxBackoffMs;
+    
     @Value("${yahoo.finance.api.enabled:true}")
     private boolean yahooFinanceEnabled;
     
+    // Maximum number of symbols packed into one multi-symbol quote request
+    @Value("${yahoo.finance.api.batch-size:20}")
+    private int batchSize;
+    
+    // Quote TTL while the market is open / closed
+    @Value("${yahoo.finance.cache.market-open-ttl-seconds:60}")
+    private long marketOpenTtlSeconds;
+    
+    @Value("${yahoo.finance.cache.market-closed-ttl-seconds:1800}")
+    private long marketClosedTtlSeconds;
+    
+    // Longest a caller waits for a quote fetch another caller already started
+    @Value("${investment.price-fetch.request-timeout-ms:10000}")
+    private long coalescedWaitMs;
+    
+    @Value("${investment.price-fetch.circuit-breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+    
+    @Value("${investment.price-fetch.circuit-breaker.open-duration-ms:60000}")
+    private long breakerOpenDurationMs;
+    
+    private CircuitBreaker circuitBreaker;
+    private NegativeSymbolCache unresolvedSymbols;
+    private NegativeSymbolCache emptyBackfills;
+    private final AtomicLong symbolsResolved = new AtomicLong();
+    
+    // Quote cache keyed by Yahoo symbol, plus in-flight fetches for single-flight coalescing
+    private final Map<String, Quote> quoteCache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Quote>> inFlightQuotes = new ConcurrentHashMap<>();
+    // Yahoo symbols with a background revalidation queued or running
+    private final Set<String> revalidatingQuotes = ConcurrentHashMap.newKeySet();
+    // Symbols with a background symbol resolution queued or running
+    private final Set<String> resolvingSymbols = ConcurrentHashMap.newKeySet();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+    
     // Indian stock symbol to Yahoo Finance symbol mapping (adding .NS for NSE)
     private final Map<String, String> symbolToYahooSymbol = new HashMap<>();
     
@@ -47,6 +154,14 @@ public class YahooFinanceService {
         initializeSymbolMapping();
     }
     
+    @PostConstruct
+    public void init() {
+        circuitBreaker = new CircuitBreaker("yahoo", breakerFailureThreshold, breakerOpenDurationMs);
+        priceFetchExecutor.registerCircuitBreaker(getYahooHost(), circuitBreaker);
+        unresolvedSymbols = new NegativeSymbolCache(resolutionInitialBackoffMs, resolutionMaxBackoffMs);
+        emptyBackfills = new NegativeSymbolCache(emptyBackfillBackoffMs, emptyBackfillMaxBackoffMs);
+    }
+    
     private void initializeSymbolMapping() {
         // Popular Indian stocks - NSE symbols for Yahoo Finance
         symbolToYahooSymbol.put("RELIANCE", "RELIANCE.NS");
@@ -93,9 +208,25 @@ public class YahooFinanceService {
     }
     
     /**
-     * Fetches current price for a single stock symbol
+     * Fetches current price for a single stock symbol (may be a stale quote, see {@link #getQuote})
      */
     public BigDecimal getCurrentPrice(String symbol) {
+        Quote quote = getQuote(symbol);
+        return quote != null ? quote.getPrice() : null;
+    }
+    
+    /**
+     * Quote for a single symbol for interactive request paths.
+     * An expired cached quote is returned at once, marked stale, while a single background
+     * refresh replaces it; only a symbol that was never quoted waits for the network.
+     * While the circuit breaker is open the last good quote is served without a refresh.
+     * A symbol whose mapping returns no price gets null; its resolution runs in the background.
+     */
+    public Quote getQuote(String symbol) {
+        if (!yahooFinanceEnabled) {
+            return null;
+        }
+        
         try {
             String yahooSymbol = getYahooSymbol(symbol);
             if (yahooSymbol == null) {
@@ -103,8 +234,22 @@ public class YahooFinanceService {
                 return null;
             }
             
-            Map<String, BigDecimal> prices = getCurrentPrices(List.of(symbol));
-            return prices.get(symbol);
+            Quote cached = quoteCache.get(yahooSymbol);
+            if (cached != null && !cached.isExpired(getQuoteTtlMillis())) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+            if (cached != null) {
+                staleServed.incrementAndGet();
+                revalidateQuoteAsync(yahooSymbol);
+                return cached.asStale();
+            }
+            
+            Quote quote = getQuotesByYahooSymbol(List.of(yahooSymbol)).get(yahooSymbol);
+            if (quote == null) {
+                resolveUnpricedSymbolAsync(symbol, yahooSymbol);
+            }
+            return quote;
         } catch (Exception e) {
             System.err.println("Error fetching current price for " + symbol + ": " + e.getMessage());
             return null;
@@ -112,10 +257,71 @@ public class YahooFinanceService {
     }
     
     /**
-     * Fetches current prices for multiple stock symbols
+     * Refresh one expired quote in the background, at most once at a time per symbol
+     */
+    private void revalidateQuoteAsync(String yahooSymbol) {
+        if (circuitBreaker.isOpen() || !revalidatingQuotes.add(yahooSymbol)) {
+            return;
+        }
+        // Released when the task completes, including when the bulkhead rejected it
+        try {
+            priceFetchExecutor.runAsync(getYahooHost(), () -> getQuotesByYahooSymbol(List.of(yahooSymbol)))
+                    .whenComplete((ignored, error) -> revalidatingQuotes.remove(yahooSymbol));
+        } catch (Exception e) {
+            revalidatingQuotes.remove(yahooSymbol);
+        }
+    }
+    
+    /**
+     * Look for a working Yahoo symbol in the background, at most once at a time per symbol.
+     * Resolution may take several throttled calls, so request paths never wait for it; the
+     * quote it finds is cached for the next lookup.
+     */
+    private void resolveUnpricedSymbolAsync(String symbol, String failedYahooSymbol) {
+        String upperSymbol = symbol.toUpperCase();
+        if (circuitBreaker.isOpen() || !resolvingSymbols.add(upperSymbol)) {
+            return;
+        }
+        // Released when the task completes, including when the bulkhead rejected it
+        try {
+            priceFetchExecutor.runAsync(getYahooHost(), () -> resolveUnpricedSymbol(upperSymbol, failedYahooSymbol))
+                    .whenComplete((ignored, error) -> resolvingSymbols.remove(upperSymbol));
+        } catch (Exception e) {
+            resolvingSymbols.remove(upperSymbol);
+        }
+    }
+    
+    /**
+     * Fetches current prices for multiple stock symbols (see {@link #getCurrentQuotes})
      */
     public Map<String, BigDecimal> getCurrentPrices(List<String> symbols) {
-        Map<String, BigDecimal> result = new HashMap<>();
+        Map<String, BigDecimal> prices = new HashMap<>();
+        getCurrentQuotes(symbols).forEach((symbol, quote) -> prices.put(symbol, quote != null ? quote.getPrice() : null));
+        return prices;
+    }
+    
+    /**
+     * Fetches current quotes (price and previous close) for multiple stock symbols.
+     * Fresh quotes are served from the quote cache; the remaining symbols are packed into
+     * multi-symbol spark requests of {@code batchSize} each, so a refresh costs one round
+     * trip per chunk instead of one per holding.
+     */
+    public Map<String, Quote> getCurrentQuotes(List<String> symbols) {
+        return getCurrentQuotes(symbols, this::fetchQuotesFromNetwork);
+    }
+    
+    /**
+     * Quotes for one provider batch of stock symbols, for callers that already run on a
+     * rate-limited bulkhead: cache misses cost a single chart or spark request on the calling
+     * thread, without further throttling or per-symbol fallback. Symbols Yahoo did not price
+     * map to null and are resolved in the background; the others keep their quotes.
+     */
+    public Map<String, Quote> getBatchQuotes(List<String> symbols) {
+        return getCurrentQuotes(symbols, this::fetchSingleRequest);
+    }
+    
+    private Map<String, Quote> getCurrentQuotes(List<String> symbols, Function<List<String>, Map<String, Quote>> fetcher) {
+        Map<String, Quote> result = new HashMap<>();
         
         if (!yahooFinanceEnabled) {
             // If Yahoo Finance is disabled, return null prices (will use purchase price as fallback)
@@ -124,101 +330,442 @@ public class YahooFinanceService {
         }
         
         try {
-            // Process each symbol individually for better error handling
+            // Group NSE symbols by their Yahoo symbol so each Yahoo symbol is requested once
+            Map<String, List<String>> symbolsByYahooSymbol = new LinkedHashMap<>();
             for (String symbol : symbols) {
                 String yahooSymbol = getYahooSymbol(symbol);
                 if (yahooSymbol == null) {
-                    System.err.println("Symbol not supported: " + symbol);
                     result.put(symbol, null);
                     continue;
                 }
-                
-                try {
-                    BigDecimal price = fetchPriceFromYahoo(yahooSymbol);
-                    result.put(symbol, price);
-                    
-                    if (price != null) {
-                        System.out.println("Fetched price for " + symbol + " (" + yahooSymbol + "): " + price);
+                symbolsByYahooSymbol.computeIfAbsent(yahooSymbol, k -> new ArrayList<>()).add(symbol);
+            }
+            
+            Map<String, Quote> quotes = getQuotesByYahooSymbol(new ArrayList<>(symbolsByYahooSymbol.keySet()), fetcher);
+            
+            // Map Yahoo results back to the requested NSE symbols
+            for (Map.Entry<String, List<String>> entry : symbolsByYahooSymbol.entrySet()) {
+                String yahooSymbol = entry.getKey();
+                Quote quote = quotes.get(yahooSymbol);
+                if (quote == null) {
+                    resolveUnpricedSymbolAsync(entry.getValue().get(0), yahooSymbol);
+                }
+                for (String symbol : entry.getValue()) {
+                    result.put(symbol, quote);
+                    if (quote == null) {
+                        System.err.println("No price returned for " + symbol + " (" + yahooSymbol + ")");
                     }
-                } catch (Exception e) {
-                    System.err.println("Error fetching price for " + symbol + ": " + e.getMessage());
-                    result.put(symbol, null);
                 }
             }
             
         } catch (Exception e) {
             System.err.println("Error fetching prices from Yahoo Finance: " + e.getMessage());
             // Return null prices if API fails (will fallback to purchase price)
-            symbols.forEach(symbol -> result.put(symbol, null));
+            symbols.forEach(symbol -> result.putIfAbsent(symbol, null));
         }
         
         return result;
     }
     
     /**
-     * Fetch price from Yahoo Finance API for a single symbol
+     * As {@link #getBatchQuotes}, for symbols that are already Yahoo tickers (e.g. BTC-INR),
+     * without the NSE symbol mapping
      */
-    private BigDecimal fetchPriceFromYahoo(String yahooSymbol) {
+    public Map<String, Quote> getBatchQuotesForYahooSymbols(List<String> yahooSymbols) {
+        if (!yahooFinanceEnabled) {
+            return new HashMap<>();
+        }
         try {
-            String url = yahooFinanceBaseUrl + "/" + yahooSymbol + "?interval=1d&range=1mo";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-            headers.set("Accept", "application/json");
-            
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            // Make API call
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class);
+            return getQuotesByYahooSymbol(yahooSymbols, this::fetchSingleRequest);
+        } catch (Exception e) {
+            System.err.println("Error fetching prices from Yahoo Finance: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+    
+    private Map<String, Quote> getQuotesByYahooSymbol(List<String> yahooSymbols) {
+        return getQuotesByYahooSymbol(yahooSymbols, this::fetchQuotesFromNetwork);
+    }
+    
+    /**
+     * Resolve quotes for Yahoo symbols through the quote cache.
+     * Cache misses claim a single-flight slot; a miss that finds another caller already
+     * fetching the same symbol waits for that fetch instead of issuing its own; the misses
+     * this caller owns are fetched with {@code fetcher}. A coalesced wait is bounded, and on
+     * a Yahoo pool worker it does not happen at all: the owner may be queueing its requests on
+     * that same pool, so the worker takes the last cached quote (or none) instead.
+     */
+    private Map<String, Quote> getQuotesByYahooSymbol(List<String> yahooSymbols, Function<List<String>, Map<String, Quote>> fetcher) {
+        Map<String, Quote> quotes = new HashMap<>();
+        Map<String, CompletableFuture<Quote>> ownedFetches = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Quote>> coalescedFetches = new HashMap<>();
+        long ttlMillis = getQuoteTtlMillis();
+        
+        for (String yahooSymbol : yahooSymbols) {
+            Quote cached = quoteCache.get(yahooSymbol);
+            if (cached != null && !cached.isExpired(ttlMillis)) {
+                cacheHits.incrementAndGet();
+                quotes.put(yahooSymbol, cached);
+                continue;
+            }
             
-            if (response.getStatusCode().is2xxSuccessful()) {
-                return parsePriceFromResponse(response.getBody());
+            CompletableFuture<Quote> fetch = new CompletableFuture<>();
+            CompletableFuture<Quote> existing = inFlightQuotes.putIfAbsent(yahooSymbol, fetch);
+            if (existing != null) {
+                coalescedRequests.incrementAndGet();
+                coalescedFetches.put(yahooSymbol, existing);
             } else {
-                System.err.println("Yahoo Finance API returned status: " + response.getStatusCode());
-                return null;
+                cacheMisses.incrementAndGet();
+                ownedFetches.put(yahooSymbol, fetch);
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error calling Yahoo Finance API for " + yahooSymbol + ": " + e.getMessage());
-            return null;
         }
+        
+        if (!ownedFetches.isEmpty()) {
+            try {
+                Map<String, Quote> fetched = fetcher.apply(new ArrayList<>(ownedFetches.keySet()));
+                for (Map.Entry<String, CompletableFuture<Quote>> entry : ownedFetches.entrySet()) {
+                    Quote quote = fetched.get(entry.getKey());
+                    if (quote != null) {
+                        quoteCache.put(entry.getKey(), quote);
+                    }
+                    quotes.put(entry.getKey(), quote);
+                    entry.getValue().complete(quote);
+                }
+            } finally {
+                // Always release single-flight slots, even if the fetch blew up
+                for (Map.Entry<String, CompletableFuture<Quote>> entry : ownedFetches.entrySet()) {
+                    entry.getValue().complete(null);
+                    inFlightQuotes.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        
+        boolean onYahooWorker = priceFetchExecutor.isWorkerFor(getYahooHost());
+        for (Map.Entry<String, CompletableFuture<Quote>> entry : coalescedFetches.entrySet()) {
+            Quote quote = null;
+            try {
+                quote = onYahooWorker
+                        ? entry.getValue().getNow(null)
+                        : entry.getValue().get(coalescedWaitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Timed out or failed: fall back to whatever was cached
+            }
+            if (quote == null) {
+                Quote stale = quoteCache.get(entry.getKey());
+                if (stale != null) {
+                    staleServed.incrementAndGet();
+                    quote = stale.asStale();
+                }
+            }
+            quotes.put(entry.getKey(), quote);
+        }
+        
+        return quotes;
+    }
+    
+    /**
+     * Fetch quotes for Yahoo symbols from the network, chunked into multi-symbol requests
+     */
+    private Map<String, Quote> fetchQuotesFromNetwork(List<String> yahooSymbols) {
+        Map<String, Quote> quotes = new HashMap<>();
+        int chunkSize = Math.max(1, batchSize);
+        
+        List<List<String>> chunks = new ArrayList<>();
+        for (int start = 0; start < yahooSymbols.size(); start += chunkSize) {
+            chunks.add(yahooSymbols.subList(start, Math.min(start + chunkSize, yahooSymbols.size())));
+        }
+        
+        // Chunks are fetched concurrently on the Yahoo bulkhead, even a single one, so request
+        // threads never block on the rate limit or a slow response; results come back in chunk order
+        Map<List<String>, Map<String, Quote>> quotesByChunk = priceFetchExecutor.fetchAll(getYahooHost(), chunks, this::fetchChunk);
+        
+        // Symbols of failed batch requests are retried one request each, every one its own pool
+        // task with its own deadline, so a slow Yahoo cannot take the whole chunk down with it
+        List<String> fallbackSymbols = new ArrayList<>();
+        for (List<String> chunk : chunks) {
+            if (chunk.size() > 1 && quotesByChunk.get(chunk) == null) {
+                fallbackSymbols.addAll(chunk);
+            }
+        }
+        Map<String, Quote> fallbackQuotes = new HashMap<>();
+        if (!fallbackSymbols.isEmpty() && !circuitBreaker.isOpen()) {
+            System.err.println("Batch quote request failed, falling back to per-symbol requests for " + fallbackSymbols.size() + " symbols");
+            fallbackQuotes = priceFetchExecutor.fetchAll(getYahooHost(), fallbackSymbols, this::fetchQuoteFromYahoo);
+        }
+        
+        for (List<String> chunk : chunks) {
+            Map<String, Quote> chunkQuotes = quotesByChunk.get(chunk);
+            for (String yahooSymbol : chunk) {
+                Quote quote = chunkQuotes != null ? chunkQuotes.get(yahooSymbol) : fallbackQuotes.get(yahooSymbol);
+                quotes.put(yahooSymbol, quote);
+                if (quote != null) {
+                    System.out.println("Fetched price for " + yahooSymbol + ": " + quote.getPrice());
+                }
+            }
+        }
+        
+        return quotes;
+    }
+    
+    /**
+     * Quote TTL: short while the market is trading, long once prices stop moving
+     */
+    private long getQuoteTtlMillis() {
+        long ttlSeconds = isMarketOpen() ? marketOpenTtlSeconds : marketClosedTtlSeconds;
+        return ttlSeconds * 1000;
+    }
+    
+    /**
+     * Drop all cached quotes so the next lookup goes to Yahoo (e.g. for the closing sweep)
+     */
+    public void clearQuoteCache() {
+        quoteCache.clear();
+    }
+    
+    /**
+     * Fetch time of the oldest cached quote, or null if the cache is empty
+     */
+    public Long getOldestQuoteMillis() {
+        return quoteCache.values().stream()
+                .map(Quote::getFetchedAtMillis)
+                .min(Long::compare)
+                .orElse(null);
+    }
+
+    /**
+     * Number of explicitly mapped symbols
+     */
+    public int getSupportedSymbolCount() {
+        return symbolToYahooSymbol.size();
+    }
+
+    /**
+     * Get quote cache statistics
+     */
+    public Map<String, Object> getQuoteCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("cachedQuotes", quoteCache.size());
+        stats.put("inFlightFetches", inFlightQuotes.size());
+        stats.put("hits", cacheHits.get());
+        stats.put("misses", cacheMisses.get());
+        stats.put("coalesced", coalescedRequests.get());
+        stats.put("staleServed", staleServed.get());
+        stats.put("ttlSeconds", getQuoteTtlMillis() / 1000);
+        stats.put("circuitBreaker", circuitBreaker.getStats());
+        stats.put("symbolsResolved", symbolsResolved.get());
+        stats.put("unresolvedSymbols", unresolvedSymbols.getStats());
+        stats.put("resolvingSymbols", resolvingSymbols.size());
+        stats.put("emptyBackfills", emptyBackfills.getStats());
+        return stats;
+    }
+    
+    /**
+     * Fetch one chunk of Yahoo symbols with one request: the chart endpoint for a single symbol,
+     * the spark endpoint otherwise. Returns null if the spark request failed, so the caller can
+     * fall back to per-symbol requests.
+     */
+    private Map<String, Quote> fetchChunk(List<String> yahooSymbols) {
+        if (yahooSymbols.size() == 1) {
+            Map<String, Quote> quotes = new HashMap<>();
+            quotes.put(yahooSymbols.get(0), fetchQuoteFromYahoo(yahooSymbols.get(0)));
+            return quotes;
+        }
+        return fetchQuotesFromYahooBatch(yahooSymbols);
+    }
+    
+    /**
+     * Fetch Yahoo symbols with exactly one request: the chart endpoint for a single symbol,
+     * the spark endpoint otherwise. Symbols without a quote are left out.
+     */
+    private Map<String, Quote> fetchSingleRequest(List<String> yahooSymbols) {
+        Map<String, Quote> quotes = new HashMap<>();
+        if (yahooSymbols.size() == 1) {
+            Quote quote = fetchQuoteFromYahoo(yahooSymbols.get(0));
+            if (quote != null) {
+                quotes.put(yahooSymbols.get(0), quote);
+            }
+            return quotes;
+        }
+        Map<String, Quote> batchQuotes = fetchQuotesFromYahooBatch(yahooSymbols);
+        return batchQuotes != null ? batchQuotes : quotes;
+    }
+    
+    /**
+     * Fetch quotes for several Yahoo symbols with a single spark request.
+     * Returns null if the request itself failed, so the caller can fall back.
+     */
+    private Map<String, Quote> fetchQuotesFromYahooBatch(List<String> yahooSymbols) {
+        String body = getFromYahoo(sparkUri(yahooSparkUrl, yahooSymbols), String.valueOf(yahooSymbols));
+        return body != null ? parseBatchQuotesFromResponse(body) : null;
+    }
+    
+    /**
+     * Spark request URI for a batch of Yahoo symbols. The symbol list is encoded strictly, so
+     * tickers such as M&M.NS or ^NSEI cannot break up the query string.
+     */
+    static URI sparkUri(String sparkUrl, List<String> yahooSymbols) {
+        return UriComponentsBuilder.fromHttpUrl(sparkUrl)
+                .queryParam("symbols", "{symbols}")
+                .queryParam("interval", "1d")
+                .queryParam("range", "1d")
+                .encode()
+                .buildAndExpand(String.join(",", yahooSymbols))
+                .toUri();
     }
     
     /**
-     * Parse price from Yahoo Finance API response
+     * Parse price and previous close from a Yahoo Finance spark response, keyed by Yahoo symbol
      */
-    private BigDecimal parsePriceFromResponse(String responseBody) {
+    private Map<String, Quote> parseBatchQuotesFromResponse(String responseBody) {
         try {
+            Map<String, Quote> quotes = new HashMap<>();
+            long fetchedAt = System.currentTimeMillis();
             JsonNode root = objectMapper.readTree(responseBody);
-            JsonNode chart = root.get("chart");
+            JsonNode spark = root.get("spark");
             
-            if (chart != null && chart.has("result")) {
-                JsonNode results = chart.get("result");
-                if (results.isArray() && results.size() > 0) {
-                    JsonNode result = results.get(0);
-                    JsonNode meta = result.get("meta");
+            if (spark != null && spark.has("result") && spark.get("result").isArray()) {
+                for (JsonNode result : spark.get("result")) {
+                    JsonNode symbolNode = result.get("symbol");
+                    JsonNode responses = result.get("response");
+                    if (symbolNode == null || responses == null || !responses.isArray() || responses.size() == 0) {
+                        continue;
+                    }
                     
+                    JsonNode meta = responses.get(0).get("meta");
                     if (meta != null && meta.has("regularMarketPrice")) {
-                        double price = meta.get("regularMarketPrice").asDouble();
-                        return BigDecimal.valueOf(price);
+                        BigDecimal previousClose = decimalAt(meta, "previousClose");
+                        quotes.put(symbolNode.asText(), new Quote(BigDecimal.valueOf(meta.get("regularMarketPrice").asDouble()),
+                                previousClose != null ? previousClose : decimalAt(meta, "chartPreviousClose"), fetchedAt, false));
                     }
                 }
+                return quotes;
             }
             
-            System.err.println("Could not find regularMarketPrice in Yahoo Finance response");
+            System.err.println("Could not find spark results in Yahoo Finance response");
             return null;
             
         } catch (Exception e) {
-            System.err.println("Error parsing Yahoo Finance response: " + e.getMessage());
+            System.err.println("Error parsing Yahoo Finance spark response: " + e.getMessage());
             return null;
         }
     }
     
+    /**
+     * Fetch the quote for a single symbol from the Yahoo Finance chart API
+     */
+    private Quote fetchQuoteFromYahoo(String yahooSymbol) {
+        // range=1d is the smallest chart payload that still carries the price and previous close
+        // in meta; the parser reads them straight off the stream and stops before the OHLC arrays
+        String url = yahooFinanceBaseUrl + "/" + yahooSymbol + "?interval=1d&range=1d";
+        Quote quote = getFromYahoo(url, yahooSymbol, response -> YahooQuoteParser.readQuote(response.getBody()));
+        if (quote == null) {
+            System.err.println("Could not find regularMarketPrice in Yahoo Finance response for " + yahooSymbol);
+        }
+        return quote;
+    }
+    
+    /**
+     * GET an encoded Yahoo Finance URI through the circuit breaker and return the body as a string
+     */
+    private String getFromYahoo(URI uri, String description) {
+        return getFromYahoo(uri, description,
+                response -> new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8), null);
+    }
+    
+    /**
+     * GET a Yahoo Finance URL through the circuit breaker, handing the response stream to the extractor.
+     * Returns null if the breaker is open or the call failed.
+     * A 404 or 400 (an unknown or malformed symbol) means Yahoo is up, so it does not count as a
+     * failure; 429 and 403 are how Yahoo throttles, so they count like any other error.
+     */
+    private <T> T getFromYahoo(String url, String description, ResponseExtractor<T> extractor) {
+        return getFromYahoo(url, description, extractor, null);
+    }
+    
+    /**
+     * As above; {@code answered} is set when Yahoo responded with data or with 404, which tells
+     * a "no such symbol" apart from a call that never got an answer. A 400 is not taken as an
+     * answer about the symbol, since a malformed request says nothing about whether it exists.
+     */
+    private <T> T getFromYahoo(String url, String description, ResponseExtractor<T> extractor, AtomicBoolean answered) {
+        return getFromYahoo(restTemplate.getUriTemplateHandler().expand(url), description, extractor, answered);
+    }
+    
+    /**
+     * As above, for a URI that is already encoded
+     */
+    private <T> T getFromYahoo(URI uri, String description, ResponseExtractor<T> extractor, AtomicBoolean answered) {
+        if (!circuitBreaker.allowRequest()) {
+            System.err.println("Yahoo Finance circuit breaker open, skipping request for " + description);
+            return null;
+        }
+        
+        long startTime = System.currentTimeMillis();
+        try {
+            // Non-2xx responses are raised as exceptions by the RestTemplate error handler
+            T result = restTemplate.execute(uri, HttpMethod.GET, request -> {
+                request.getHeaders().set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+                request.getHeaders().set("Accept", "application/json");
+            }, extractor);
+            circuitBreaker.recordSuccess();
+            providerHealthService.recordSuccess(ProviderHealthService.YAHOO, System.currentTimeMillis() - startTime);
+            if (answered != null) {
+                answered.set(true);
+            }
+            return result;
+            
+        } catch (HttpClientErrorException e) {
+            int status = e.getStatusCode().value();
+            if (status == 404 || status == 400) {
+                circuitBreaker.recordSuccess();
+                providerHealthService.recordSuccess(ProviderHealthService.YAHOO, System.currentTimeMillis() - startTime);
+                if (answered != null && status == 404) {
+                    answered.set(true);
+                }
+                System.err.println("Yahoo Finance has no data for " + description + ": " + e.getMessage());
+            } else {
+                circuitBreaker.recordFailure();
+                providerHealthService.recordFailure(ProviderHealthService.YAHOO, System.currentTimeMillis() - startTime, e.getMessage());
+                System.err.println("Yahoo Finance API rejected request for " + description + ": " + e.getMessage());
+            }
+            return null;
+        } catch (Exception e) {
+            circuitBreaker.recordFailure();
+            providerHealthService.recordFailure(ProviderHealthService.YAHOO, System.currentTimeMillis() - startTime, e.getMessage());
+            System.err.println("Error calling Yahoo Finance API for " + description + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Whether Yahoo calls are currently being short-circuited
+     */
+    public boolean isCircuitOpen() {
+        return circuitBreaker.isOpen();
+    }
+    
+    /**
+     * Host used as the rate-limit key for Yahoo requests
+     */
+    public String getYahooHost() {
+        try {
+            return URI.create(yahooFinanceBaseUrl).getHost();
+        } catch (Exception e) {
+            return "query1.finance.yahoo.com";
+        }
+    }
+    
     /**
      * Get Yahoo Finance symbol for a given symbol with smart fallback
      */
     private String getYahooSymbol(String symbol) {
+        // Symbols that recently failed to resolve are skipped until their backoff expires
+        if (unresolvedSymbols.isSuppressed(symbol.toUpperCase())) {
+            return null;
+        }
+        
         // First try the database-loaded cache
         String yahooSymbol = stockSymbolLoaderService.getYahooSymbol(symbol);
         if (yahooSymbol != null) {
@@ -235,6 +782,132 @@ public class YahooFinanceService {
         return upperSymbol + ".NS";
     }
     
+    /**
+     * Find a Yahoo symbol that quotes for a symbol whose current mapping returned no price.
+     * Candidates are tried one call at a time: the current mapping again (a batch miss is not
+     * proof), SYMBOL.NS, SYMBOL.BO, then what a Yahoo search for the symbol's ISIN returns.
+     * The first one that quotes becomes the symbol's mapping for good. If Yahoo answered for
+     * every candidate without a price, the symbol is backed off; if a call got no answer
+     * (network error, open breaker) nothing is concluded and the next cycle tries again.
+     * Returns the quote found, or null.
+     */
+    private Quote resolveUnpricedSymbol(String symbol, String failedYahooSymbol) {
+        if (circuitBreaker.isOpen()) {
+            return null;
+        }
+        
+        String upperSymbol = symbol.toUpperCase();
+        String baseSymbol = upperSymbol.replaceFirst("\\.(NS|BO)$", "");
+        Deque<String> candidates = new ArrayDeque<>(List.of(failedYahooSymbol, baseSymbol + ".NS", baseSymbol + ".BO"));
+        Set<String> tried = new LinkedHashSet<>();
+        boolean searchedIsin = false;
+        
+        while (true) {
+            String candidate = candidates.poll();
+            if (candidate == null) {
+                // Exchange suffixes exhausted: ask Yahoo which listings it has for the ISIN
+                String isin = searchedIsin ? null : findIsin(upperSymbol);
+                searchedIsin = true;
+                if (isin == null) {
+                    break;
+                }
+                AtomicBoolean answered = new AtomicBoolean();
+                candidates.addAll(searchYahooSymbolsByIsin(isin, answered));
+                if (!answered.get()) {
+                    return null;
+                }
+                continue;
+            }
+            if (!tried.add(candidate)) {
+                continue;
+            }
+            
+            AtomicBoolean answered = new AtomicBoolean();
+            Quote quote = probeQuote(candidate, answered);
+            if (quote != null) {
+                onSymbolResolved(upperSymbol, candidate, quote);
+                return quote;
+            }
+            if (!answered.get()) {
+                return null;
+            }
+        }
+        
+        long backoffMs = unresolvedSymbols.recordFailure(upperSymbol);
+        System.err.println("Could not resolve " + upperSymbol + " on Yahoo Finance (tried " + tried
+                + "); skipping it for " + backoffMs / 60000 + " min");
+        return null;
+    }
+    
+    private Quote probeQuote(String yahooSymbol, AtomicBoolean answered) {
+        priceFetchExecutor.throttle(getYahooHost());
+        String url = yahooFinanceBaseUrl + "/" + yahooSymbol + "?interval=1d&range=1d";
+        return getFromYahoo(url, yahooSymbol, response -> YahooQuoteParser.readQuote(response.getBody()), answered);
+    }
+    
+    private void onSymbolResolved(String symbol, String yahooSymbol, Quote quote) {
+        quoteCache.put(yahooSymbol, quote);
+        unresolvedSymbols.recordSuccess(symbol);
+        if (!yahooSymbol.equals(stockSymbolLoaderService.getYahooSymbol(symbol))) {
+            stockSymbolLoaderService.saveResolvedYahooSymbol(symbol, yahooSymbol);
+            symbolsResolved.incrementAndGet();
+            System.out.println("Resolved " + symbol + " to Yahoo symbol " + yahooSymbol);
+        }
+    }
+    
+    /**
+     * ISIN of a symbol: from the listed stock, else from the notes of imported holdings
+     */
+    private String findIsin(String symbol) {
+        StockSymbol stockSymbol = stockSymbolLoaderService.findBySymbol(symbol);
+        if (stockSymbol != null && stockSymbol.getIsinNumber() != null && !stockSymbol.getIsinNumber().isBlank()) {
+            return stockSymbol.getIsinNumber().trim();
+        }
+        try {
+            for (String notes : investmentRepository.findIsinNotesBySymbol(symbol)) {
+                Matcher matcher = ISIN_IN_NOTES.matcher(notes);
+                if (matcher.find()) {
+                    return matcher.group(1);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error looking up ISIN for " + symbol + ": " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Yahoo symbols listed for an ISIN, NSE listings before BSE ones
+     */
+    private List<String> searchYahooSymbolsByIsin(String isin, AtomicBoolean answered) {
+        priceFetchExecutor.throttle(getYahooHost());
+        String url = yahooSearchUrl + "?q=" + isin + "&quotesCount=5&newsCount=0";
+        String body = getFromYahoo(url, "ISIN " + isin,
+                response -> new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8), answered);
+        
+        List<String> nse = new ArrayList<>();
+        List<String> bse = new ArrayList<>();
+        if (body != null) {
+            try {
+                JsonNode quotes = objectMapper.readTree(body).get("quotes");
+                if (quotes != null && quotes.isArray()) {
+                    for (JsonNode quote : quotes) {
+                        String yahooSymbol = quote.path("symbol").asText("");
+                        if (yahooSymbol.endsWith(".NS")) {
+                            nse.add(yahooSymbol);
+                        } else if (yahooSymbol.endsWith(".BO")) {
+                            bse.add(yahooSymbol);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Error parsing Yahoo Finance search response for ISIN " + isin + ": " + e.getMessage());
+            }
+        }
+        nse.addAll(bse);
+        return nse;
+    }
+    
     /**
      * Check if API integration is available
      */
@@ -263,6 +936,10 @@ public class YahooFinanceService {
      * With smart fallback, we support most NSE symbols
      */
     public boolean isSymbolSupported(String symbol) {
+        if (symbol == null || unresolvedSymbols.isSuppressed(symbol.toUpperCase())) {
+            return false;
+        }
+        
         // Check database cache first
         if (stockSymbolLoaderService.isSymbolSupported(symbol)) {
             return true;
@@ -276,7 +953,7 @@ public class YahooFinanceService {
         
         // With smart fallback (.NS suffix), we support most symbols
         // Only exclude obviously invalid symbols
-        if (symbol == null || symbol.trim().isEmpty() || symbol.length() > 20) {
+        if (symbol.trim().isEmpty() || symbol.length() > 20) {
             return false;
         }
         
@@ -285,103 +962,178 @@ public class YahooFinanceService {
     }
     
     /**
-     * Get market status (simplified - you can enhance this)
+     * Get market status from the NSE calendar (IST session window, weekends and holidays)
      */
     public boolean isMarketOpen() {
-        // Simplified market hours check (9:15 AM to 3:30 PM IST on weekdays)
-        // You can enhance this with actual market calendar API
-        java.time.LocalTime now = java.time.LocalTime.now();
-        java.time.DayOfWeek dayOfWeek = java.time.LocalDate.now().getDayOfWeek();
-        
-        boolean isWeekday = dayOfWeek.getValue() >= 1 && dayOfWeek.getValue() <= 5;
-        boolean isMarketHours = now.isAfter(java.time.LocalTime.of(9, 15)) && 
-                               now.isBefore(java.time.LocalTime.of(15, 30));
-        
-        return isWeekday && isMarketHours;
+        return marketCalendarService.isMarketOpen();
     }
     
     /**
-     * Fetch historical price for a symbol on a specific date using Yahoo Finance
+     * Closing price for a symbol on a specific date (or the last trading day before it).
+     * Served from the local price history; a symbol is range-backfilled from Yahoo once,
+     * on its first lookup, instead of one network call per date.
      */
     public BigDecimal getHistoricalPrice(String symbol, LocalDateTime purchaseDate) {
         try {
-            String yahooSymbol = getYahooSymbol(symbol);
-            if (yahooSymbol == null || !isApiAvailable()) {
+            if (!priceHistoryService.hasHistory(symbol) && backfillHistory(symbol) == 0) {
                 return null;
             }
-            
-            // Convert LocalDateTime to Unix timestamp
-            Instant startInstant = purchaseDate.toInstant(ZoneOffset.UTC);
-            Instant endInstant = purchaseDate.plusDays(1).toInstant(ZoneOffset.UTC);
-            
-            long period1 = startInstant.getEpochSecond();
-            long period2 = endInstant.getEpochSecond();
-            
-            String url = yahooFinanceBaseUrl + "/" + yahooSymbol + 
-                        "?period1=" + period1 + "&period2=" + period2 + "&interval=1d";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-            headers.set("Accept", "application/json");
-            
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, String.class);
-            
-            if (response.getStatusCode().is2xxSuccessful()) {
-                return parseHistoricalPriceFromResponse(response.getBody());
-            }
-            
+            return priceHistoryService.getCloseOnOrBefore(symbol, purchaseDate.toLocalDate());
         } catch (Exception e) {
             System.err.println("Error fetching historical price for " + symbol + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Backfill the daily price history of a symbol over the configured range.
+     * When Yahoo answers without any bars the symbol is backed off, so a symbol that has no
+     * history does not cost a network call on every lookup.
+     */
+    public int backfillHistory(String symbol) {
+        String upperSymbol = symbol.toUpperCase();
+        if (emptyBackfills.isSuppressed(upperSymbol)) {
+            return 0;
+        }
+        String yahooSymbol = getYahooSymbol(symbol);
+        if (yahooSymbol == null || !isApiAvailable()) {
+            return 0;
         }
         
-        // Fallback to current price if historical price is not available
-        return getCurrentPrice(symbol);
+        AtomicBoolean answered = new AtomicBoolean();
+        List<PriceHistory> bars = fetchDailyBars(yahooSymbol, backfillRange, answered);
+        if (bars.isEmpty()) {
+            // A failed call proves nothing; only an answer without bars is remembered
+            if (answered.get()) {
+                long backoffMs = emptyBackfills.recordFailure(upperSymbol);
+                System.err.println("No daily bars for " + upperSymbol + " (" + yahooSymbol + "); not backfilling it again for "
+                        + backoffMs / 60000 + " min");
+            }
+            return 0;
+        }
+        emptyBackfills.recordSuccess(upperSymbol);
+        return priceHistoryService.saveDailyBars(symbol, bars);
     }
     
     /**
-     * Parse historical price from Yahoo Finance API response
+     * Backfill symbols that have no history yet in the background (e.g. after an import)
      */
-    private BigDecimal parseHistoricalPriceFromResponse(String responseBody) {
+    public void backfillHistoryAsync(Collection<String> symbols) {
+        for (String symbol : new HashSet<>(symbols)) {
+            priceFetchExecutor.runAsync(getYahooHost(), () -> {
+                if (!priceHistoryService.hasHistory(symbol)) {
+                    backfillHistory(symbol);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Fetch daily OHLC bars for a Yahoo symbol over a range such as "5y"
+     */
+    private List<PriceHistory> fetchDailyBars(String yahooSymbol, String range, AtomicBoolean answered) {
+        String url = yahooFinanceBaseUrl + "/" + yahooSymbol + "?interval=1d&range=" + range;
+        String body = getFromYahoo(url, yahooSymbol + " daily bars",
+                response -> new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8), answered);
+        return body != null ? parseDailyBarsFromResponse(body) : new ArrayList<>();
+    }
+    
+    /**
+     * Parse daily OHLC bars from a Yahoo Finance chart response
+     */
+    private List<PriceHistory> parseDailyBarsFromResponse(String responseBody) {
+        List<PriceHistory> bars = new ArrayList<>();
         try {
             JsonNode root = objectMapper.readTree(responseBody);
-            JsonNode chart = root.get("chart");
+            JsonNode results = root.path("chart").path("result");
+            if (!results.isArray() || results.size() == 0) {
+                System.err.println("Could not find chart result in Yahoo Finance response");
+                return bars;
+            }
             
-            if (chart != null && chart.has("result")) {
-                JsonNode results = chart.get("result");
-                if (results.isArray() && results.size() > 0) {
-                    JsonNode result = results.get(0);
-                    JsonNode indicators = result.get("indicators");
-                    
-                    if (indicators != null && indicators.has("quote")) {
-                        JsonNode quotes = indicators.get("quote");
-                        if (quotes.isArray() && quotes.size() > 0) {
-                            JsonNode quote = quotes.get(0);
-                            JsonNode closeArray = quote.get("close");
-                            
-                            if (closeArray != null && closeArray.isArray() && closeArray.size() > 0) {
-                                // Get the last available closing price
-                                for (int i = closeArray.size() - 1; i >= 0; i--) {
-                                    JsonNode closePrice = closeArray.get(i);
-                                    if (!closePrice.isNull()) {
-                                        double price = closePrice.asDouble();
-                                        return BigDecimal.valueOf(price);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
+            JsonNode result = results.get(0);
+            JsonNode timestamps = result.path("timestamp");
+            JsonNode quote = result.path("indicators").path("quote").path(0);
+            if (!timestamps.isArray() || quote.isMissingNode()) {
+                return bars;
             }
             
-            System.err.println("Could not find historical price in Yahoo Finance response");
-            return null;
+            for (int i = 0; i < timestamps.size(); i++) {
+                BigDecimal close = decimalAt(quote.path("close"), i);
+                if (close == null) {
+                    continue; // No trading data for this timestamp
+                }
+                
+                LocalDate tradeDate = Instant.ofEpochSecond(timestamps.get(i).asLong()).atZone(MARKET_ZONE).toLocalDate();
+                JsonNode volume = quote.path("volume").path(i);
+                bars.add(new PriceHistory(null, tradeDate,
+                        decimalAt(quote.path("open"), i),
+                        decimalAt(quote.path("high"), i),
+                        decimalAt(quote.path("low"), i),
+                        close,
+                        volume.isNumber() ? volume.asLong() : null));
+            }
             
         } catch (Exception e) {
-            System.err.println("Error parsing Yahoo Finance historical response: " + e.getMessage());
-            return null;
+            System.err.println("Error parsing Yahoo Finance daily bars: " + e.getMessage());
+        }
+        return bars;
+    }
+    
+    private BigDecimal decimalAt(JsonNode array, int index) {
+        JsonNode value = array.path(index);
+        return value.isNumber() ? BigDecimal.valueOf(value.asDouble()) : null;
+    }
+    
+    private BigDecimal decimalAt(JsonNode object, String field) {
+        JsonNode value = object.path(field);
+        return value.isNumber() ? BigDecimal.valueOf(value.asDouble()) : null;
+    }
+    
+    /**
+     * Quote with the previous session's close and the time it was fetched; stale when served past its TTL
+     */
+    public static class Quote {
+        private final BigDecimal price;
+        private final BigDecimal previousClose;
+        private final long fetchedAtMillis;
+        private final boolean stale;
+        
+        public Quote(BigDecimal price, BigDecimal previousClose, long fetchedAtMillis, boolean stale) {
+            this.price = price;
+            this.previousClose = previousClose;
+            this.fetchedAtMillis = fetchedAtMillis;
+            this.stale = stale;
+        }
+        
+        public boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - fetchedAtMillis > ttlMillis;
+        }
+        
+        public Quote asStale() {
+            return new Quote(price, previousClose, fetchedAtMillis, true);
+        }
+        
+        /**
+         * Change since the previous close in percent, or null if the previous close is unknown
+         */
+        public BigDecimal getDayChangePercent() {
+            if (previousClose == null || previousClose.signum() == 0) {
+                return null;
+            }
+            return price.subtract(previousClose)
+                    .divide(previousClose, 6, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100))
+                    .setScale(4, RoundingMode.HALF_UP);
+        }
+        
+        public BigDecimal getPrice() { return price; }
+        public BigDecimal getPreviousClose() { return previousClose; }
+        public long getFetchedAtMillis() { return fetchedAtMillis; }
+        public boolean isStale() { return stale; }
+        
+        public LocalDateTime getAsOf() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(fetchedAtMillis), MARKET_ZONE);
         }
     }
-}
\ No newline at end of file
+}
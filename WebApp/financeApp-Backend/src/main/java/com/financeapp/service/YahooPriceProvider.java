@@ -0,0 +1,111 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Yahoo Finance prices for exchange-traded holdings: NSE/BSE stocks, ETFs and listed bonds go
+ * through the usual symbol mapping; crypto is quoted as a currency pair (BTC -> BTC-INR).
+ * Batches run on the Yahoo host's bulkhead, shared with every other Yahoo call, so together they
+ * stay within one rate limit and connection budget. Each batch costs one Yahoo request made on
+ * that thread; symbols Yahoo does not price come back null without failing the batch.
+ */
+@Service
+public class YahooPriceProvider implements PriceProvider {
+
+    @Autowired
+    private YahooFinanceService yahooFinanceService;
+
+    // One batch is one multi-symbol spark request
+    @Value("${yahoo.finance.api.batch-size:20}")
+    private int batchSize;
+
+    // Limits of the shared Yahoo host bulkhead (see PriceFetchExecutor)
+    @Value("${investment.price-fetch.max-in-flight:8}")
+    private int maxConcurrentBatches;
+
+    @Value("${investment.price-fetch.requests-per-second:5}")
+    private double requestsPerSecond;
+
+    // Quote currency appended to crypto symbols that do not name a pair themselves
+    @Value("${investment.price-providers.yahoo.crypto-currency:INR}")
+    private String cryptoCurrency;
+
+    @Override
+    public String getName() {
+        return ProviderHealthService.YAHOO;
+    }
+
+    @Override
+    public String getPriceSource() {
+        return "YAHOO_FINANCE";
+    }
+
+    @Override
+    public Set<InvestmentType> getSupportedTypes() {
+        return EnumSet.of(InvestmentType.STOCK, InvestmentType.ETF, InvestmentType.BOND, InvestmentType.CRYPTO);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int getMaxConcurrentBatches() {
+        return maxConcurrentBatches;
+    }
+
+    @Override
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    @Override
+    public String getBulkheadHost() {
+        return yahooFinanceService.getYahooHost();
+    }
+
+    @Override
+    public Map<String, Price> fetchPrices(InvestmentType type, List<String> symbols) {
+        Map<String, Price> prices = new HashMap<>();
+        if (InvestmentType.CRYPTO.equals(type)) {
+            List<String> pairs = new ArrayList<>();
+            for (String symbol : symbols) {
+                pairs.add(toCryptoPair(symbol));
+            }
+            Map<String, YahooFinanceService.Quote> pairQuotes = yahooFinanceService.getBatchQuotesForYahooSymbols(pairs);
+            for (String symbol : symbols) {
+                prices.put(symbol, toPrice(pairQuotes.get(toCryptoPair(symbol))));
+            }
+            return prices;
+        }
+
+        yahooFinanceService.getBatchQuotes(symbols).forEach((symbol, quote) -> prices.put(symbol, toPrice(quote)));
+        return prices;
+    }
+
+    @Override
+    public Long getDataAsOfMillis() {
+        return yahooFinanceService.getOldestQuoteMillis();
+    }
+
+    private String toCryptoPair(String symbol) {
+        String upperSymbol = symbol.trim().toUpperCase();
+        return upperSymbol.contains("-") ? upperSymbol : upperSymbol + "-" + cryptoCurrency;
+    }
+
+    // The day's return comes from the previous close carried in the same quote
+    private static Price toPrice(YahooFinanceService.Quote quote) {
+        return quote != null ? new Price(quote.getPrice(), quote.getPreviousClose(), quote.getDayChangePercent()) : null;
+    }
+}
@@ -0,0 +1,102 @@
+package com.financeapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.financeapp.service.YahooFinanceService.Quote;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+
+/**
+ * Streaming reader for the quote fields of a Yahoo Finance chart response.
+ * Walks {@code chart.result[0].meta} token by token straight off the response stream and
+ * stops as soon as the fields it needs have been read, so the OHLC arrays that follow
+ * {@code meta} are never parsed or materialized.
+ */
+public final class YahooQuoteParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private YahooQuoteParser() {
+    }
+
+    /**
+     * Read {@code meta.regularMarketPrice} from a chart response, or null if it is absent
+     */
+    public static BigDecimal readRegularMarketPrice(InputStream body) throws IOException {
+        Quote quote = readQuote(body);
+        return quote != null ? quote.getPrice() : null;
+    }
+
+    /**
+     * Read the price and previous close from a chart response in one pass, or null if there
+     * is no price. The previous close is {@code meta.previousClose}, else
+     * {@code meta.chartPreviousClose} (the close before the chart range, which for range=1d
+     * is the same day).
+     */
+    public static Quote readQuote(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            if (!moveToField(parser, "chart") || parser.currentToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            if (!moveToField(parser, "result") || parser.currentToken() != JsonToken.START_ARRAY) {
+                return null; // "result": null on error responses
+            }
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            if (!moveToField(parser, "meta") || parser.currentToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            BigDecimal price = null;
+            BigDecimal previousClose = null;
+            BigDecimal chartPreviousClose = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value.isNumeric()) {
+                    if ("regularMarketPrice".equals(field)) {
+                        price = parser.getDecimalValue();
+                    } else if ("previousClose".equals(field)) {
+                        previousClose = parser.getDecimalValue();
+                    } else if ("chartPreviousClose".equals(field)) {
+                        chartPreviousClose = parser.getDecimalValue();
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+                if (price != null && previousClose != null) {
+                    break;
+                }
+            }
+            if (price == null) {
+                return null;
+            }
+            return new Quote(price, previousClose != null ? previousClose : chartPreviousClose,
+                    System.currentTimeMillis(), false);
+        }
+    }
+
+    /**
+     * Advance within the current object to the value of the named field, skipping the
+     * values of all fields before it. Returns false if the object ends first.
+     */
+    private static boolean moveToField(JsonParser parser, String name) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
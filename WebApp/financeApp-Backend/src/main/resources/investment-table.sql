@@ -51,5 +51,48 @@ CREATE INDEX IF NOT EXISTS idx_investment_symbol ON investments(symbol);
 CREATE INDEX IF NOT EXISTS idx_investment_type ON investments(type);
 CREATE INDEX IF NOT EXISTS idx_investment_price_source ON investments(price_source);
 
+-- Daily OHLC price history per symbol (backs historical price lookups)
+CREATE TABLE IF NOT EXISTS price_history (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    symbol VARCHAR(50) NOT NULL,
+    trade_date DATE NOT NULL,
+    open_price DECIMAL(15,4) NULL,
+    high_price DECIMAL(15,4) NULL,
+    low_price DECIMAL(15,4) NULL,
+    close_price DECIMAL(15,4) NOT NULL,
+    volume BIGINT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_price_history_symbol_date UNIQUE (symbol, trade_date)
+);
+
+-- Append-only log of price changes (tick_time in IST), rolled up into price_history after the retention window
+CREATE TABLE IF NOT EXISTS price_tick (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    symbol VARCHAR(50) NOT NULL,
+    investment_type VARCHAR(50), -- NULL only on ticks logged before types were recorded
+    price DECIMAL(15,4) NOT NULL,
+    tick_time DATETIME NOT NULL,
+
+    INDEX idx_price_tick_symbol_time (symbol, tick_time),
+    INDEX idx_price_tick_time (tick_time)
+);
+
+-- Daily published NAV per mutual fund scheme, written once per AMFI publish
+CREATE TABLE IF NOT EXISTS nav_history (
+    scheme_code INT NOT NULL,
+    nav_date DATE NOT NULL,
+    nav DECIMAL(15,4) NOT NULL,
+
+    PRIMARY KEY (scheme_code, nav_date)
+);
+
+-- Yahoo symbols resolved for names with no stock_symbols row, loaded back at startup
+CREATE TABLE IF NOT EXISTS resolved_yahoo_symbol (
+    symbol VARCHAR(50) NOT NULL PRIMARY KEY,
+    yahoo_symbol VARCHAR(50) NOT NULL,
+    resolved_at DATETIME
+);
+
 -- Verify table creation
 DESCRIBE investments;
\ No newline at end of file
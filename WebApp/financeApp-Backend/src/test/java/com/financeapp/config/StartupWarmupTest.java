@@ -0,0 +1,117 @@
+package com.financeapp.config;
+
+import com.financeapp.service.DayChangeService;
+import com.financeapp.service.MutualFundService;
+import com.financeapp.service.StockSymbolLoaderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StartupWarmupTest {
+
+    private StockSymbolLoaderService stockSymbolLoaderService;
+    private MutualFundService mutualFundService;
+    private DayChangeService dayChangeService;
+    private StartupWarmup warmup;
+
+    @BeforeEach
+    public void setUp() {
+        stockSymbolLoaderService = mock(StockSymbolLoaderService.class);
+        mutualFundService = mock(MutualFundService.class);
+        dayChangeService = mock(DayChangeService.class);
+        when(stockSymbolLoaderService.getCacheSize()).thenReturn(2000);
+        when(mutualFundService.warmUp()).thenReturn(CompletableFuture.completedFuture(true));
+
+        warmup = new StartupWarmup();
+        ReflectionTestUtils.setField(warmup, "dataLoaderStartup", mock(DataLoaderStartup.class));
+        ReflectionTestUtils.setField(warmup, "stockSymbolLoaderService", stockSymbolLoaderService);
+        ReflectionTestUtils.setField(warmup, "mutualFundService", mutualFundService);
+        ReflectionTestUtils.setField(warmup, "dayChangeService", dayChangeService);
+        ReflectionTestUtils.setField(warmup, "timeoutMs", 5000L);
+        ReflectionTestUtils.setField(warmup, "retryMs", 50L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        warmup.shutdown();
+    }
+
+    @Test
+    public void testOutOfServiceUntilEveryTaskSucceeds() throws Exception {
+        CompletableFuture<Boolean> navs = new CompletableFuture<>();
+        when(mutualFundService.warmUp()).thenReturn(navs);
+
+        assertEquals(Status.OUT_OF_SERVICE, warmup.health().getStatus());
+        warmup.run(null);
+
+        awaitTrue(() -> "READY".equals(taskState("stockSymbols")) && "READY".equals(taskState("dayChangeHoldings")));
+        assertEquals("RUNNING", taskState("mutualFundNavs"));
+        assertEquals(Status.OUT_OF_SERVICE, warmup.health().getStatus());
+
+        navs.complete(true);
+        awaitTrue(() -> warmup.health().getStatus().equals(Status.UP));
+        assertEquals(true, warmup.getStatus().get("ready"));
+    }
+
+    @Test
+    public void testFailedTaskIsRetriedAndThenReady() throws Exception {
+        // The first load finds no symbols, the second fills the cache
+        when(stockSymbolLoaderService.getCacheSize()).thenReturn(0, 2000);
+
+        warmup.run(null);
+
+        awaitTrue(() -> warmup.health().getStatus().equals(Status.UP));
+        assertEquals(2, task("stockSymbols").get("attempts"));
+        assertFalse(task("stockSymbols").containsKey("error"));
+        assertEquals(1, task("mutualFundNavs").get("attempts"));
+        verify(stockSymbolLoaderService, times(1)).warmSearchIndex();
+    }
+
+    @Test
+    public void testHealthShowsEachTaskState() throws Exception {
+        ReflectionTestUtils.setField(warmup, "retryMs", 60000L);
+        doThrow(new IllegalStateException("database unavailable")).when(dayChangeService).preloadHoldings();
+
+        warmup.run(null);
+
+        awaitTrue(() -> "FAILED".equals(taskState("dayChangeHoldings")) && "READY".equals(taskState("mutualFundNavs"))
+                && "READY".equals(taskState("stockSymbols")));
+        Health health = warmup.health();
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals(false, health.getDetails().get("ready"));
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> tasks = (Map<String, Map<String, Object>>) health.getDetails().get("tasks");
+        assertEquals(3, tasks.size());
+        assertEquals("database unavailable", tasks.get("dayChangeHoldings").get("error"));
+        assertEquals(1, tasks.get("dayChangeHoldings").get("attempts"));
+        assertNotNull(tasks.get("stockSymbols").get("durationMs"));
+    }
+
+    private String taskState(String name) {
+        Map<String, Object> task = task(name);
+        return task != null ? (String) task.get("state") : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> task(String name) {
+        return ((Map<String, Map<String, Object>>) warmup.getStatus().get("tasks")).get(name);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 5s");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.financeapp.service;
+
+import com.financeapp.service.MutualFundService.MutualFundData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Wall time and allocation for ingesting NAVAll.txt: the old path (whole body decoded into a
+ * String, split on newlines, regex per line) versus streaming the body through AmfiNavParser.
+ * Point -Damfi.navFile at a recorded NAVAll.txt; without it a synthetic file of the same shape
+ * (~14k schemes) is generated. Not part of the test run; main() runs JMH with the GC profiler
+ * and then prints the peak heap of one ingestion for each path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class AmfiNavParserBenchmark {
+
+    private static final Pattern OLD_LINE_PATTERN =
+            Pattern.compile("^([^;]+);([^;]*);([^;]*);([^;]+);([\\d.]+);(.+)$");
+
+    private byte[] navFile;
+
+    @Setup
+    public void loadNavFile() throws IOException {
+        navFile = readNavFile();
+    }
+
+    @Benchmark
+    public Map<String, MutualFundData> oldPathStringSplitRegex() {
+        return oldPath(navFile);
+    }
+
+    @Benchmark
+    public Map<String, MutualFundData> newPathStreaming() throws IOException {
+        return newPath(navFile);
+    }
+
+    private static Map<String, MutualFundData> oldPath(byte[] body) {
+        Map<String, MutualFundData> cache = new HashMap<>();
+        String navData = new String(body, StandardCharsets.ISO_8859_1);
+        for (String line : navData.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith(";") || !line.contains(";")) {
+                continue;
+            }
+            Matcher matcher = OLD_LINE_PATTERN.matcher(line);
+            if (matcher.matches()) {
+                MutualFundData data = new MutualFundData(matcher.group(1).trim(), matcher.group(2).trim(),
+                        matcher.group(4).trim(), new BigDecimal(matcher.group(5).trim()),
+                        AmfiNavParser.parseAmfiDate(matcher.group(6).trim()));
+                cache.put(data.getSchemeCode(), data);
+                if (!data.getIsin().isEmpty()) {
+                    cache.put(data.getIsin(), data);
+                }
+                cache.put(data.getSchemeName().toLowerCase()
+                        .replaceAll("[^a-zA-Z0-9\\s]", "").replaceAll("\\s+", " ").trim(), data);
+            }
+        }
+        return cache;
+    }
+
+    private static Map<String, MutualFundData> newPath(byte[] body) throws IOException {
+        Map<String, MutualFundData> cache = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.ISO_8859_1))) {
+            AmfiNavParser.parse(reader, data -> {
+                cache.put(data.getSchemeCode(), data);
+                if (!data.getIsin().isEmpty()) {
+                    cache.put(data.getIsin(), data);
+                }
+                cache.put(AmfiNavParser.normalizeSchemeName(data.getSchemeName()), data);
+            });
+        }
+        return cache;
+    }
+
+    private static byte[] readNavFile() throws IOException {
+        String recorded = System.getProperty("amfi.navFile");
+        if (recorded != null) {
+            return Files.readAllBytes(Path.of(recorded));
+        }
+
+        StringBuilder file = new StringBuilder();
+        file.append("Scheme Code;ISIN Div Payout/ ISIN Growth;ISIN Div Reinvestment;Scheme Name;Net Asset Value;Date\r\n\r\n");
+        int schemeCode = 100000;
+        for (int category = 0; category < 40; category++) {
+            file.append("Open Ended Schemes(Equity Scheme - Category ").append(category).append(")\r\n\r\n");
+            for (int house = 0; house < 35; house++) {
+                file.append("Fund House ").append(house).append(" Mutual Fund\r\n\r\n");
+                for (int scheme = 0; scheme < 10; scheme++) {
+                    schemeCode++;
+                    String nav = scheme == 9 ? "N.A." : String.format("%d.%04d", 10 + schemeCode % 900, schemeCode % 10000);
+                    file.append(schemeCode).append(";INF").append(String.format("%09d", schemeCode))
+                        .append(";").append(scheme % 2 == 0 ? "-" : "INF" + String.format("%09d", schemeCode + 1))
+                        .append(";Fund House ").append(house).append(" Category ").append(category)
+                        .append(" Fund - Direct Plan - ").append(scheme % 2 == 0 ? "Growth" : "IDCW")
+                        .append(";").append(nav).append(";").append(14 + scheme % 3).append("-Oct-2026\r\n");
+                }
+                file.append("\r\n");
+            }
+        }
+        return file.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Peak heap used while running one ingestion, above the post-GC baseline
+     */
+    private static long peakHeapBytes(Callable<?> ingestion) throws Exception {
+        System.gc();
+        long baseline = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                baseline += pool.getUsage().getUsed();
+            }
+        }
+        Object result = ingestion.call();
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        if (result == null) {
+            throw new IllegalStateException("ingestion returned nothing");
+        }
+        return peak - baseline;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(AmfiNavParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+
+        byte[] body = readNavFile();
+        System.out.println("NAVAll.txt size: " + body.length / 1024 + " KB");
+        System.out.println("Peak heap, old path: " + peakHeapBytes(() -> oldPath(body)) / 1024 + " KB");
+        System.out.println("Peak heap, new path: " + peakHeapBytes(() -> newPath(body)) / 1024 + " KB");
+    }
+}
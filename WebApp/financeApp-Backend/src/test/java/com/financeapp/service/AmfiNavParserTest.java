@@ -0,0 +1,110 @@
+package com.financeapp.service;
+
+import com.financeapp.service.MutualFundService.MutualFundData;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AmfiNavParserTest {
+
+    private static final String NAV_FILE =
+            "Scheme Code;ISIN Div Payout/ ISIN Growth;ISIN Div Reinvestment;Scheme Name;Net Asset Value;Date\r\n"
+            + "\r\n"
+            + "Open Ended Schemes(Debt Scheme - Banking and PSU Fund)\r\n"
+            + "\r\n"
+            + "Aditya Birla Sun Life Mutual Fund\r\n"
+            + "\r\n"
+            + "119551;INF209KA12Z1;INF209KA13Z9;Aditya Birla Sun Life Banking & PSU Debt Fund  - DIRECT - IDCW;108.1734;05-Sep-2025\r\n"
+            + "119552;INF209K01YM2;-;Aditya Birla Sun Life Banking & PSU Debt Fund - Direct - Growth;371.2345;05-Sep-2025\r\n"
+            + "120000;-;-;Closed Scheme Without NAV;N.A.;05-Sep-2025\r\n"
+            + " 120503 ; INF846K01EW2 ; - ; Axis ELSS Tax Saver Fund - Direct Growth ; 98.45 ; 04-Sep-2025 \r\n";
+
+    @Test
+    public void testParsesSchemeLinesOnly() throws IOException {
+        List<MutualFundData> schemes = new ArrayList<>();
+        int count = AmfiNavParser.parse(new BufferedReader(new StringReader(NAV_FILE)), schemes::add);
+
+        assertEquals(3, count);
+        assertEquals(3, schemes.size());
+        MutualFundData first = schemes.get(0);
+        assertEquals("119551", first.getSchemeCode());
+        assertEquals("INF209KA12Z1", first.getIsin());
+        assertEquals("Aditya Birla Sun Life Banking & PSU Debt Fund  - DIRECT - IDCW", first.getSchemeName());
+        assertEquals(new BigDecimal("108.1734"), first.getNav());
+        assertEquals(LocalDateTime.of(2025, 9, 5, 0, 0), first.getDate());
+    }
+
+    @Test
+    public void testTrimsFields() {
+        MutualFundData data = AmfiNavParser.parseLine(
+                " 120503 ; INF846K01EW2 ; - ; Axis ELSS Tax Saver Fund - Direct Growth ; 98.45 ; 04-Sep-2025 ", new HashMap<>());
+        assertNotNull(data);
+        assertEquals("120503", data.getSchemeCode());
+        assertEquals("INF846K01EW2", data.getIsin());
+        assertEquals("Axis ELSS Tax Saver Fund - Direct Growth", data.getSchemeName());
+        assertEquals(new BigDecimal("98.45"), data.getNav());
+        assertEquals(LocalDateTime.of(2025, 9, 4, 0, 0), data.getDate());
+    }
+
+    @Test
+    public void testSkipsNonSchemeLines() {
+        HashMap<String, LocalDateTime> dates = new HashMap<>();
+        assertNull(AmfiNavParser.parseLine("", dates));
+        assertNull(AmfiNavParser.parseLine("   ", dates));
+        assertNull(AmfiNavParser.parseLine("Aditya Birla Sun Life Mutual Fund", dates));
+        assertNull(AmfiNavParser.parseLine("Scheme Code;ISIN Div Payout/ ISIN Growth;ISIN Div Reinvestment;Scheme Name;Net Asset Value;Date", dates));
+        assertNull(AmfiNavParser.parseLine(";;;;;", dates));
+        assertNull(AmfiNavParser.parseLine("120000;-;-;Closed Scheme;N.A.;05-Sep-2025", dates));
+        assertNull(AmfiNavParser.parseLine("120000;-;-;Scheme With Too Few Fields;10.5", dates));
+        assertNull(AmfiNavParser.parseLine("120000;-;-;;10.5;05-Sep-2025", dates));
+    }
+
+    @Test
+    public void testParsesEachDateOnce() {
+        HashMap<String, LocalDateTime> dates = new HashMap<>();
+        MutualFundData first = AmfiNavParser.parseLine("1;-;-;Scheme A;10;05-Sep-2025", dates);
+        MutualFundData second = AmfiNavParser.parseLine("2;-;-;Scheme B;20;05-Sep-2025", dates);
+        assertEquals(1, dates.size());
+        assertSame(first.getDate(), second.getDate());
+    }
+
+    @Test
+    public void testParseAmfiDate() {
+        assertEquals(LocalDateTime.of(2025, 1, 31, 0, 0), AmfiNavParser.parseAmfiDate("31-Jan-2025"));
+        assertEquals(LocalDateTime.of(2024, 12, 1, 0, 0), AmfiNavParser.parseAmfiDate("01-Dec-2024"));
+    }
+
+    @Test
+    public void testNormalizeSchemeName() {
+        assertEquals("axis elss tax saver fund direct growth",
+                AmfiNavParser.normalizeSchemeName("  Axis ELSS Tax Saver Fund -  Direct\tGrowth "));
+        assertEquals("hdfc top 100 fund", AmfiNavParser.normalizeSchemeName("HDFC Top 100 Fund"));
+        assertEquals("sbiblue chip", AmfiNavParser.normalizeSchemeName("SBI-Blue Chip"));
+        assertEquals("", AmfiNavParser.normalizeSchemeName(" - "));
+    }
+
+    @Test
+    public void testNormalizesToMatchesNormalizeSchemeName() {
+        String[] names = { "  Axis ELSS Tax Saver Fund -  Direct\tGrowth ", "HDFC Top 100 Fund", "SBI-Blue Chip", " - ", "",
+                "ICICI Prudential Nifty 50 Index Fund - IDCW" };
+        for (String name : names) {
+            String normalized = AmfiNavParser.normalizeSchemeName(name);
+            assertTrue(AmfiNavParser.normalizesTo(name, normalized), name);
+            assertFalse(AmfiNavParser.normalizesTo(name, normalized + "x"), name);
+            assertFalse(AmfiNavParser.normalizesTo(name, normalized + " "), name);
+        }
+        assertFalse(AmfiNavParser.normalizesTo("HDFC Top 100 Fund", "hdfc top 100"));
+        assertFalse(AmfiNavParser.normalizesTo("HDFC Top 100 Fund", "hdfctop 100 fund"));
+        assertFalse(AmfiNavParser.normalizesTo("HDFC Top100 Fund", "hdfc top 100 fund"));
+        assertFalse(AmfiNavParser.normalizesTo("HDFC Top 100 Fund", "hdfc top 100 fund "));
+    }
+}
@@ -0,0 +1,86 @@
+package com.financeapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 50;
+
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 3, OPEN_MS);
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.allowRequest());
+        assertEquals(1L, breaker.getStats().get("rejectedCalls"));
+    }
+
+    @Test
+    public void testSuccessResetsFailureCount() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(2, breaker.getStats().get("consecutiveFailures"));
+    }
+
+    @Test
+    public void testSingleTrialAfterOpenDuration() throws Exception {
+        open();
+        Thread.sleep(OPEN_MS + 10);
+        assertFalse(breaker.isOpen());
+
+        assertTrue(breaker.allowRequest(), "First call after the open period is the trial");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest(), "Only one trial at a time");
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void testFailedTrialReopens() throws Exception {
+        open();
+        Thread.sleep(OPEN_MS + 10);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void testAbandonedTrialDoesNotStayHalfOpen() throws Exception {
+        open();
+        Thread.sleep(OPEN_MS + 10);
+        assertTrue(breaker.allowRequest());
+        // The trial never reports an outcome
+        assertFalse(breaker.allowRequest());
+
+        Thread.sleep(OPEN_MS + 10);
+        assertTrue(breaker.allowRequest(), "An abandoned trial is replaced after another open period");
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        assertTrue(breaker.isOpen());
+    }
+}
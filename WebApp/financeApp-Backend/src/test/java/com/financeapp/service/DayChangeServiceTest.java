@@ -0,0 +1,185 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Investment;
+import com.financeapp.model.InvestmentType;
+import com.financeapp.model.User;
+import com.financeapp.repository.InvestmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DayChangeServiceTest {
+
+    private InvestmentRepository investmentRepository;
+    private DayChangeService service;
+
+    @BeforeEach
+    public void setUp() {
+        LocalDateTime pricedAt = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        // TCS stored at 110 after a 10% day: previous close 100
+        rows.add(row(10L, 1L, "TCS", "2", "110", "10", pricedAt));
+        rows.add(row(11L, 1L, "INFY", "10", "1500", null, pricedAt));
+        rows.add(row(20L, 2L, "TCS", "1", "110", "10", pricedAt));
+        rows.add(row(21L, 2L, "WIPRO", null, "250", "1", pricedAt));
+
+        investmentRepository = mock(InvestmentRepository.class);
+        when(investmentRepository.findLivePriceHoldings()).thenReturn(rows);
+        service = service(300000);
+    }
+
+    @Test
+    public void testTotalsFromStoredPrices() {
+        Map<String, Object> day = service.getPortfolioDayChange(1L);
+        assertEquals(new BigDecimal("20.00"), day.get("dayChange"));
+        assertEquals(new BigDecimal("10.0000"), day.get("dayChangePercent"));
+        assertEquals(new BigDecimal("200.00"), day.get("previousCloseValue"));
+        assertEquals(new BigDecimal("220.00"), day.get("currentValue"));
+        assertEquals(1, day.get("holdingsPriced"));
+
+        Map<String, Object> empty = service.getPortfolioDayChange(99L);
+        assertEquals(new BigDecimal("0.00"), empty.get("dayChange"));
+        assertNull(empty.get("dayChangePercent"));
+        assertEquals(0, empty.get("holdingsPriced"));
+        assertNull(empty.get("asOf"));
+    }
+
+    @Test
+    public void testPriceOnlyMovesHoldersOfThatSymbol() {
+        service.recordPrice(InvestmentType.STOCK, "infy", new BigDecimal("1470"), new BigDecimal("1500"));
+
+        Map<String, Object> first = service.getPortfolioDayChange(1L);
+        assertEquals(new BigDecimal("-280.00"), first.get("dayChange"));
+        assertEquals(new BigDecimal("15200.00"), first.get("previousCloseValue"));
+        assertEquals(new BigDecimal("14920.00"), first.get("currentValue"));
+        assertEquals(2, first.get("holdingsPriced"));
+        assertNotNull(first.get("asOf"));
+
+        Map<String, Object> second = service.getPortfolioDayChange(2L);
+        assertEquals(new BigDecimal("10.00"), second.get("dayChange"));
+        assertNull(second.get("asOf"));
+    }
+
+    @Test
+    public void testMissingPreviousCloseKeepsTodays() {
+        service.recordPrice(InvestmentType.STOCK, "TCS", new BigDecimal("121"), null);
+
+        assertEquals(new BigDecimal("42.00"), service.getPortfolioDayChange(1L).get("dayChange"));
+        assertEquals(new BigDecimal("21.00"), service.getPortfolioDayChange(2L).get("dayChange"));
+        assertEquals(new BigDecimal("63.00"), service.getHoldingDayChange(InvestmentType.STOCK, "tcs", new BigDecimal("3")));
+        assertNull(service.getHoldingDayChange(InvestmentType.STOCK, "INFY", BigDecimal.ONE));
+    }
+
+    @Test
+    public void testBatchPrices() {
+        service.recordPrices(InvestmentType.STOCK, Map.of(
+                "TCS", new PriceProvider.Price(new BigDecimal("105"), new BigDecimal("100"), new BigDecimal("5")),
+                "INFY", new PriceProvider.Price(new BigDecimal("1530"), new BigDecimal("1500"), new BigDecimal("2"))));
+
+        Map<String, Object> day = service.getPortfolioDayChange(1L);
+        assertEquals(new BigDecimal("310.00"), day.get("dayChange"));
+        assertEquals(2, day.get("holdingsPriced"));
+    }
+
+    @Test
+    public void testDayMovers() {
+        service.recordPrice(InvestmentType.STOCK, "INFY", new BigDecimal("1470"), new BigDecimal("1500"));
+
+        Map<String, Object> movers = service.getDayMovers(1L, 5);
+        List<?> gainers = (List<?>) movers.get("gainers");
+        List<?> losers = (List<?>) movers.get("losers");
+        assertEquals(1, gainers.size());
+        assertEquals(1, losers.size());
+        assertEquals("TCS", ((Map<?, ?>) gainers.get(0)).get("symbol"));
+        assertEquals(new BigDecimal("20.00"), ((Map<?, ?>) gainers.get(0)).get("dayChange"));
+        assertEquals(new BigDecimal("-2.0000"), ((Map<?, ?>) losers.get(0)).get("dayChangePercent"));
+        assertEquals(new BigDecimal("-280.00"), ((Map<?, ?>) movers.get("portfolio")).get("dayChange"));
+
+        assertTrue(((List<?>) service.getDayMovers(1L, 0).get("gainers")).isEmpty());
+    }
+
+    @Test
+    public void testSavedAndDeletedHoldings() {
+        service.preloadHoldings();
+
+        // A new holding is priced from its stored price right away
+        Investment etf = investment(12L, 1L, "NIFTYBEES", InvestmentType.ETF, "5", "250", "25");
+        service.upsertHolding(etf);
+        assertEquals(new BigDecimal("270.00"), service.getPortfolioDayChange(1L).get("dayChange"));
+
+        // More units of the same holding replace its old contribution
+        etf.setQuantity(new BigDecimal("6"));
+        service.upsertHolding(etf);
+        assertEquals(new BigDecimal("320.00"), service.getPortfolioDayChange(1L).get("dayChange"));
+
+        etf.setLivePriceEnabled(false);
+        service.upsertHolding(etf);
+        assertEquals(new BigDecimal("20.00"), service.getPortfolioDayChange(1L).get("dayChange"));
+
+        service.removeHolding(10L);
+        Map<String, Object> day = service.getPortfolioDayChange(1L);
+        assertEquals(new BigDecimal("0.00"), day.get("dayChange"));
+        assertEquals(0, day.get("holdingsPriced"));
+        assertEquals(new BigDecimal("10.00"), service.getPortfolioDayChange(2L).get("dayChange"));
+
+        verify(investmentRepository, times(1)).findLivePriceHoldings();
+    }
+
+    @Test
+    public void testHoldingsReloadedOnlyAfterRefreshInterval() {
+        service.getPortfolioDayChange(1L);
+        service.recordPrice(InvestmentType.STOCK, "TCS", new BigDecimal("120"), null);
+        service.getDayMovers(1L, 5);
+        verify(investmentRepository, times(1)).findLivePriceHoldings();
+
+        DayChangeService reloading = service(0);
+        reloading.getPortfolioDayChange(1L);
+        reloading.getPortfolioDayChange(1L);
+        verify(investmentRepository, times(3)).findLivePriceHoldings();
+
+        // Recorded prices survive a reload
+        reloading.recordPrice(InvestmentType.STOCK, "TCS", new BigDecimal("120"), null);
+        assertEquals(new BigDecimal("40.00"), reloading.getPortfolioDayChange(1L).get("dayChange"));
+    }
+
+    private DayChangeService service(long holdingsRefreshMs) {
+        DayChangeService dayChangeService = new DayChangeService();
+        ReflectionTestUtils.setField(dayChangeService, "investmentRepository", investmentRepository);
+        ReflectionTestUtils.setField(dayChangeService, "holdingsRefreshMs", holdingsRefreshMs);
+        return dayChangeService;
+    }
+
+    private static Object[] row(Long id, Long userId, String symbol, String quantity, String price, String dailyReturn,
+                                LocalDateTime pricedAt) {
+        return new Object[] { id, userId, symbol, InvestmentType.STOCK, symbol + " Ltd",
+                quantity != null ? new BigDecimal(quantity) : null, new BigDecimal(price),
+                dailyReturn != null ? new BigDecimal(dailyReturn) : null, pricedAt };
+    }
+
+    private static Investment investment(Long id, Long userId, String symbol, InvestmentType type, String quantity,
+                                         String price, String dailyReturn) {
+        User user = new User();
+        user.setId(userId);
+        Investment investment = new Investment();
+        investment.setId(id);
+        investment.setUser(user);
+        investment.setSymbol(symbol);
+        investment.setName(symbol);
+        investment.setType(type);
+        investment.setQuantity(new BigDecimal(quantity));
+        investment.setCurrentPrice(new BigDecimal(price));
+        investment.setDailyReturn(new BigDecimal(dailyReturn));
+        investment.setLastPriceUpdate(LocalDateTime.now());
+        investment.setLivePriceEnabled(true);
+        return investment;
+    }
+}
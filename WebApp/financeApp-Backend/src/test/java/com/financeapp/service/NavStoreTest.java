@@ -0,0 +1,118 @@
+package com.financeapp.service;
+
+import com.financeapp.service.MutualFundService.MutualFundData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NavStoreTest {
+
+    private static final LocalDateTime NAV_DATE = LocalDateTime.of(2025, 9, 5, 0, 0);
+
+    @Test
+    public void testLookupByCodeIsinAndName() {
+        NavStore store = store();
+        int slot = store.slotOf("120503");
+        assertTrue(slot >= 0);
+        assertEquals(120503, store.getSchemeCode(slot));
+        assertEquals(slot, store.slotOf("INF846K01EW2"));
+        assertEquals(slot, store.slotOf("Axis ELSS Tax Saver Fund - Direct Growth"));
+        assertEquals(slot, store.slotOf("axis elss tax saver fund direct growth"));
+        assertEquals(slot, store.slotOf("  AXIS ELSS Tax Saver Fund -  Direct\tGrowth "));
+    }
+
+    @Test
+    public void testUnknownIdentifiers() {
+        NavStore store = store();
+        assertEquals(-1, store.slotOf("999999"));
+        assertEquals(-1, store.slotOf("INF000000000"));
+        assertEquals(-1, store.slotOf("Some Other Fund"));
+        assertEquals(-1, store.slotOf(""));
+        assertEquals(-1, store.slotOf(null));
+        assertEquals(-1, NavStore.EMPTY.slotOf("120503"));
+    }
+
+    @Test
+    public void testSchemeWithoutIsin() {
+        NavStore store = store();
+        int slot = store.slotOf("119551");
+        assertEquals("", store.getIsin(slot));
+        assertEquals(slot, store.slotOf("HDFC Top 100 Fund"));
+    }
+
+    @Test
+    public void testNonNumericCodesAreSkipped() {
+        NavStore.Builder builder = new NavStore.Builder();
+        builder.add(scheme("ABC1", "INF000K01AB1", "Not A Scheme", "1"));
+        builder.add(scheme("119551", "", "HDFC Top 100 Fund", "1"));
+        NavStore store = builder.build();
+        assertEquals(1, builder.skipped());
+        assertEquals(1, store.size());
+        assertEquals(-1, store.slotOf("Not A Scheme"));
+    }
+
+    @Test
+    public void testRepeatedCodeReplacesEarlierLine() {
+        NavStore.Builder builder = new NavStore.Builder();
+        builder.add(scheme("120503", "INF846K01EW2", "Old Name", "90"));
+        builder.add(scheme("120503", "INF846K01EW2", "Axis ELSS Tax Saver Fund - Direct Growth", "98.45"));
+        NavStore store = builder.build();
+        assertEquals(1, store.size());
+        assertEquals(-1, store.slotOf("Old Name"));
+        assertEquals(new BigDecimal("98.4500"), store.getNav(store.slotOf("120503")));
+    }
+
+    @Test
+    public void testNavIsKeptToFourDecimals() {
+        NavStore.Builder builder = new NavStore.Builder();
+        builder.add(scheme("1", "", "Scheme A", "10.12345"));
+        builder.add(scheme("2", "", "Scheme B", "10.12344"));
+        NavStore store = builder.build();
+        assertEquals(new BigDecimal("10.1235"), store.getNav(store.slotOf("1")));
+        assertEquals(new BigDecimal("10.1234"), store.getNav(store.slotOf("2")));
+    }
+
+    @Test
+    public void testToMutualFundData() {
+        NavStore store = store();
+        MutualFundData data = store.toMutualFundData(store.slotOf("INF846K01EW2"));
+        assertEquals("120503", data.getSchemeCode());
+        assertEquals("INF846K01EW2", data.getIsin());
+        assertEquals("Axis ELSS Tax Saver Fund - Direct Growth", data.getSchemeName());
+        assertEquals(new BigDecimal("98.4500"), data.getNav());
+        assertEquals(NAV_DATE, data.getDate());
+        assertEquals(LocalDate.of(2025, 9, 5), store.getNavDate(store.slotOf("120503")));
+    }
+
+    @Test
+    public void testGrowsPastInitialCapacity() {
+        NavStore.Builder builder = new NavStore.Builder();
+        for (int code = 100000; code < 105000; code++) {
+            builder.add(scheme(String.valueOf(code), "INF" + code, "Scheme " + code, "1"));
+        }
+        NavStore store = builder.build();
+        assertEquals(5000, store.size());
+        for (int code = 100000; code < 105000; code += 97) {
+            int slot = store.slotOf(String.valueOf(code));
+            assertEquals(code, store.getSchemeCode(slot));
+            assertEquals(slot, store.slotOf("INF" + code));
+            assertEquals(slot, store.slotOf("scheme " + code));
+        }
+    }
+
+    private static NavStore store() {
+        NavStore.Builder builder = new NavStore.Builder();
+        builder.add(scheme("119551", "", "HDFC Top 100 Fund", "1012.5"));
+        builder.add(scheme("120503", "INF846K01EW2", "Axis ELSS Tax Saver Fund - Direct Growth", "98.45"));
+        builder.add(scheme("118989", "INF769K01DM9", "Mirae Asset Large Cap Fund - Direct Growth", "120.7"));
+        return builder.build();
+    }
+
+    private static MutualFundData scheme(String code, String isin, String name, String nav) {
+        return new MutualFundData(code, isin, name, new BigDecimal(nav), NAV_DATE);
+    }
+}
@@ -0,0 +1,106 @@
+package com.financeapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NegativeSymbolCacheTest {
+
+    @Test
+    public void testBackoffDoublesUpToTheCap() {
+        NegativeSymbolCache cache = new NegativeSymbolCache(1000, 5000);
+        assertEquals(1000, cache.recordFailure("XYZ"));
+        assertEquals(2000, cache.recordFailure("XYZ"));
+        assertEquals(4000, cache.recordFailure("XYZ"));
+        assertEquals(5000, cache.recordFailure("XYZ"));
+        assertEquals(5000, cache.recordFailure("XYZ"));
+    }
+
+    @Test
+    public void testBackoffDoesNotOverflow() {
+        NegativeSymbolCache cache = new NegativeSymbolCache(1000, Long.MAX_VALUE);
+        long backoff = 0;
+        for (int i = 0; i < 100; i++) {
+            backoff = cache.recordFailure("XYZ");
+            assertTrue(backoff > 0, "Backoff overflowed after " + (i + 1) + " failures");
+        }
+        assertEquals(1000L << 30, backoff);
+    }
+
+    @Test
+    public void testSymbolsBackOffIndependently() {
+        NegativeSymbolCache cache = new NegativeSymbolCache(1000, 60000);
+        cache.recordFailure("AAA");
+        cache.recordFailure("AAA");
+        assertEquals(1000, cache.recordFailure("BBB"));
+        assertTrue(cache.isSuppressed("AAA"));
+        assertTrue(cache.isSuppressed("BBB"));
+        assertFalse(cache.isSuppressed("CCC"));
+    }
+
+    @Test
+    public void testSuppressionExpires() throws Exception {
+        NegativeSymbolCache cache = new NegativeSymbolCache(50, 1000);
+        cache.recordFailure("XYZ");
+        assertTrue(cache.isSuppressed("XYZ"));
+        Thread.sleep(70);
+        assertFalse(cache.isSuppressed("XYZ"));
+
+        // Still tracked: the next failure backs off longer
+        assertEquals(100, cache.recordFailure("XYZ"));
+    }
+
+    @Test
+    public void testSuccessForgetsTheSymbol() {
+        NegativeSymbolCache cache = new NegativeSymbolCache(1000, 60000);
+        cache.recordFailure("XYZ");
+        cache.recordFailure("XYZ");
+        cache.recordSuccess("XYZ");
+        assertFalse(cache.isSuppressed("XYZ"));
+        assertEquals(1000, cache.recordFailure("XYZ"));
+    }
+
+    @Test
+    public void testFullCacheEvictsTheEarliestBackoff() {
+        NegativeSymbolCache cache = new NegativeSymbolCache(1000, 60000, 2);
+        cache.recordFailure("AAA");
+        cache.recordFailure("BBB");
+        cache.recordFailure("BBB");
+        cache.recordFailure("CCC");
+
+        assertFalse(cache.isSuppressed("AAA"));
+        assertTrue(cache.isSuppressed("BBB"));
+        assertTrue(cache.isSuppressed("CCC"));
+        assertEquals(2, cache.getStats().get("trackedSymbols"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    public void testSymbolIsForgottenLongAfterItsBackoff() throws Exception {
+        NegativeSymbolCache cache = new NegativeSymbolCache(20, 40);
+        cache.recordFailure("XYZ");
+        Thread.sleep(100);
+
+        assertFalse(cache.isSuppressed("XYZ"));
+        assertEquals(0, cache.getStats().get("trackedSymbols"));
+        // Starts over instead of doubling
+        assertEquals(20, cache.recordFailure("XYZ"));
+    }
+
+    @Test
+    public void testStats() {
+        NegativeSymbolCache cache = new NegativeSymbolCache(0, 0);
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1L, stats.get("initialBackoffMs"));
+        assertEquals(1L, stats.get("maxBackoffMs"));
+
+        cache = new NegativeSymbolCache(60000, 600000);
+        cache.recordFailure("AAA");
+        cache.recordFailure("BBB");
+        stats = cache.getStats();
+        assertEquals(2, stats.get("trackedSymbols"));
+        assertEquals(2L, stats.get("suppressedSymbols"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.financeapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares sequential and concurrent refresh time for 500 symbols against a local stub
+ * of the Yahoo chart endpoint. Not part of the default test run; execute with
+ * mvn test -Dtest=PriceFetchExecutorBenchmark. Timings are only printed: wall-clock numbers
+ * depend on the machine, so only result order and completeness are asserted.
+ */
+public class PriceFetchExecutorBenchmark {
+
+    private static final int SYMBOL_COUNT = 500;
+    private static final long STUB_LATENCY_MS = 10;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    public void startStubServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v8/finance/chart", exchange -> {
+            try {
+                Thread.sleep(STUB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"chart\":{\"result\":[{\"meta\":{\"regularMarketPrice\":1234.5}}],\"error\":null}}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(64));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/v8/finance/chart";
+    }
+
+    @AfterEach
+    public void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void compareSequentialAndConcurrentRefresh() {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            symbols.add("SYM" + i + ".NS");
+        }
+
+        PriceFetchExecutor executor = new PriceFetchExecutor();
+        ReflectionTestUtils.setField(executor, "maxInFlight", 32);
+        ReflectionTestUtils.setField(executor, "requestsPerSecond", 100000.0);
+        ReflectionTestUtils.setField(executor, "burst", 1000);
+        ReflectionTestUtils.setField(executor, "maxQueued", SYMBOL_COUNT);
+        ReflectionTestUtils.setField(executor, "requestTimeoutMs", 5000L);
+
+        try {
+            long sequentialStart = System.nanoTime();
+            for (String symbol : symbols) {
+                assertNotNull(fetch(symbol));
+            }
+            long sequentialMs = (System.nanoTime() - sequentialStart) / 1_000_000;
+
+            long concurrentStart = System.nanoTime();
+            Map<String, BigDecimal> prices = executor.fetchAll("127.0.0.1", symbols, this::fetch);
+            long concurrentMs = (System.nanoTime() - concurrentStart) / 1_000_000;
+
+            System.out.println("Sequential refresh of " + SYMBOL_COUNT + " symbols: " + sequentialMs + "ms");
+            System.out.println("Concurrent refresh of " + SYMBOL_COUNT + " symbols: " + concurrentMs + "ms");
+
+            assertEquals(symbols, new ArrayList<>(prices.keySet()), "Results should keep input order");
+            assertTrue(prices.values().stream().allMatch(price -> price != null));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private BigDecimal fetch(String symbol) {
+        try {
+            String body = restTemplate.getForObject(baseUrl + "/" + symbol, String.class);
+            return BigDecimal.valueOf(objectMapper.readTree(body)
+                    .get("chart").get("result").get(0).get("meta").get("regularMarketPrice").asDouble());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
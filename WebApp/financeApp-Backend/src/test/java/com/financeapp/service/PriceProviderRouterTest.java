@@ -0,0 +1,209 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceProviderRouterTest {
+
+    private PriceFetchExecutor executor;
+    private StubPriceProvider stub;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new PriceFetchExecutor();
+        ReflectionTestUtils.setField(executor, "maxInFlight", 2);
+        ReflectionTestUtils.setField(executor, "maxQueued", 10);
+        ReflectionTestUtils.setField(executor, "requestsPerSecond", 100.0);
+        ReflectionTestUtils.setField(executor, "burst", 10);
+        ReflectionTestUtils.setField(executor, "requestTimeoutMs", 5000L);
+        stub = new StubPriceProvider();
+        ReflectionTestUtils.setField(stub, "batchSize", 100);
+        ReflectionTestUtils.setField(stub, "maxMovePct", 0.5);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testEachTypeIsRoutedToItsProvider() {
+        FakeProvider stocks = new FakeProvider("stocks", EnumSet.of(InvestmentType.STOCK, InvestmentType.ETF), 10, FakeProvider::fixed);
+        FakeProvider funds = new FakeProvider("funds", EnumSet.of(InvestmentType.MUTUAL_FUND), 10, FakeProvider::fixed);
+        PriceProviderRouter router = router(stocks, funds);
+
+        assertSame(stocks, router.getProvider(InvestmentType.STOCK));
+        assertSame(stocks, router.getProvider(InvestmentType.ETF));
+        assertSame(funds, router.getProvider(InvestmentType.MUTUAL_FUND));
+
+        Map<InvestmentType, Map<String, PriceProvider.Price>> prices = router.fetchPrices(Map.of(
+                InvestmentType.STOCK, List.of("TCS"),
+                InvestmentType.MUTUAL_FUND, List.of("120503")));
+
+        assertEquals(List.of(InvestmentType.STOCK), stocks.types());
+        assertEquals(List.of(InvestmentType.MUTUAL_FUND), funds.types());
+        assertEquals(new BigDecimal("100"), prices.get(InvestmentType.STOCK).get("TCS").getPrice());
+        assertEquals(new BigDecimal("100"), prices.get(InvestmentType.MUTUAL_FUND).get("120503").getPrice());
+    }
+
+    @Test
+    public void testUnsupportedTypesAreSkipped() {
+        FakeProvider stocks = new FakeProvider("stocks", EnumSet.of(InvestmentType.STOCK), 10, FakeProvider::fixed);
+        PriceProviderRouter router = router(stocks);
+
+        assertNull(router.getProvider(InvestmentType.GOLD));
+        assertFalse(router.supports(InvestmentType.REAL_ESTATE));
+        assertFalse(router.supports(null));
+        assertNull(router.fetchPrice(InvestmentType.GOLD, "GOLD"));
+
+        Map<InvestmentType, Map<String, PriceProvider.Price>> prices = router.fetchPrices(Map.of(
+                InvestmentType.STOCK, List.of("TCS"),
+                InvestmentType.GOLD, List.of("GOLD")));
+
+        assertEquals(Set.of(InvestmentType.STOCK), prices.keySet());
+        assertEquals(1, stocks.calls.size());
+    }
+
+    @Test
+    public void testSymbolsAreSplitIntoBatchesAndAFailedBatchMapsToNull() {
+        FakeProvider stocks = new FakeProvider("stocks", EnumSet.of(InvestmentType.STOCK), 2, (type, symbols) -> {
+            if (symbols.contains("BAD")) {
+                throw new IllegalStateException("upstream error");
+            }
+            return FakeProvider.fixed(type, symbols);
+        });
+        PriceProviderRouter router = router(stocks);
+
+        Map<String, PriceProvider.Price> prices = router.fetchPrices(Map.of(
+                InvestmentType.STOCK, List.of("TCS", "INFY", "BAD", "WIPRO", "HDFC"))).get(InvestmentType.STOCK);
+
+        assertEquals(3, stocks.calls.size());
+        assertEquals(List.of("TCS", "INFY", "BAD", "WIPRO", "HDFC"), new ArrayList<>(prices.keySet()));
+        assertNotNull(prices.get("TCS"));
+        assertNull(prices.get("BAD"));
+        assertNull(prices.get("WIPRO"));
+        assertNotNull(prices.get("HDFC"));
+    }
+
+    @Test
+    public void testProvidersAreFetchedInParallel() {
+        // Each provider's batch only returns once the other's has started too
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        BiFunction<InvestmentType, List<String>, Map<String, PriceProvider.Price>> meetOther = (type, symbols) -> {
+            bothRunning.countDown();
+            try {
+                if (!bothRunning.await(2, TimeUnit.SECONDS)) {
+                    return Map.of();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Map.of();
+            }
+            return FakeProvider.fixed(type, symbols);
+        };
+        FakeProvider stocks = new FakeProvider("stocks", EnumSet.of(InvestmentType.STOCK), 10, meetOther);
+        FakeProvider funds = new FakeProvider("funds", EnumSet.of(InvestmentType.MUTUAL_FUND), 10, meetOther);
+        PriceProviderRouter router = router(stocks, funds);
+
+        Map<InvestmentType, Map<String, PriceProvider.Price>> prices = router.fetchPrices(Map.of(
+                InvestmentType.STOCK, List.of("TCS"),
+                InvestmentType.MUTUAL_FUND, List.of("120503")));
+
+        assertNotNull(prices.get(InvestmentType.STOCK).get("TCS"));
+        assertNotNull(prices.get(InvestmentType.MUTUAL_FUND).get("120503"));
+    }
+
+    @Test
+    public void testEnabledStubReplacesLiveProviders() {
+        ReflectionTestUtils.setField(stub, "enabled", true);
+        FakeProvider stocks = new FakeProvider("stocks", EnumSet.of(InvestmentType.STOCK), 10, FakeProvider::fixed);
+        PriceProviderRouter router = router(stocks);
+
+        assertSame(stub, router.getProvider(InvestmentType.STOCK));
+        assertSame(stub, router.getProvider(InvestmentType.GOLD));
+        assertNotNull(router.fetchPrice(InvestmentType.STOCK, "TCS"));
+        assertTrue(stocks.calls.isEmpty());
+    }
+
+    private PriceProviderRouter router(PriceProvider... providers) {
+        List<PriceProvider> all = new ArrayList<>(Arrays.asList(providers));
+        all.add(stub);
+        PriceProviderRouter router = new PriceProviderRouter();
+        ReflectionTestUtils.setField(router, "providers", all);
+        ReflectionTestUtils.setField(router, "stubPriceProvider", stub);
+        ReflectionTestUtils.setField(router, "priceFetchExecutor", executor);
+        router.init();
+        return router;
+    }
+
+    /**
+     * Provider whose batches are answered by a function, recording the type of every call
+     */
+    private static class FakeProvider implements PriceProvider {
+        private final String name;
+        private final Set<InvestmentType> types;
+        private final int batchSize;
+        private final BiFunction<InvestmentType, List<String>, Map<String, Price>> fetcher;
+        private final List<InvestmentType> calls = new CopyOnWriteArrayList<>();
+
+        FakeProvider(String name, Set<InvestmentType> types, int batchSize,
+                     BiFunction<InvestmentType, List<String>, Map<String, Price>> fetcher) {
+            this.name = name;
+            this.types = types;
+            this.batchSize = batchSize;
+            this.fetcher = fetcher;
+        }
+
+        static Map<String, Price> fixed(InvestmentType type, List<String> symbols) {
+            Map<String, Price> prices = new HashMap<>();
+            symbols.forEach(symbol -> prices.put(symbol, new Price(new BigDecimal("100"), null, null)));
+            return prices;
+        }
+
+        List<InvestmentType> types() {
+            return new ArrayList<>(calls);
+        }
+
+        @Override
+        public String getName() { return name; }
+
+        @Override
+        public String getPriceSource() { return name.toUpperCase(); }
+
+        @Override
+        public Set<InvestmentType> getSupportedTypes() { return types; }
+
+        @Override
+        public int getBatchSize() { return batchSize; }
+
+        @Override
+        public int getMaxConcurrentBatches() { return 2; }
+
+        @Override
+        public double getRequestsPerSecond() { return 100; }
+
+        @Override
+        public Map<String, Price> fetchPrices(InvestmentType type, List<String> symbols) {
+            calls.add(type);
+            return fetcher.apply(type, symbols);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Investment;
+import com.financeapp.model.InvestmentType;
+import com.financeapp.model.User;
+import com.financeapp.repository.InvestmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PriceStreamServiceTest {
+
+    private InvestmentRepository investmentRepository;
+    private PriceStreamService service;
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    // Gate for the next emitter created; null lets sends through at once
+    private CountDownLatch nextGate;
+
+    @BeforeEach
+    public void setUp() {
+        investmentRepository = mock(InvestmentRepository.class);
+        service = new PriceStreamService() {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter(nextGate);
+                nextGate = null;
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(service, "investmentRepository", investmentRepository);
+        ReflectionTestUtils.setField(service, "emitterTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(service, "maxQueuedEvents", 100);
+        ReflectionTestUtils.setField(service, "senderThreads", 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        emitters.forEach(emitter -> {
+            if (emitter.gate != null) {
+                emitter.gate.countDown();
+            }
+        });
+        service.shutdown();
+    }
+
+    @Test
+    public void testUnchangedPriceSendsNoEvent() throws Exception {
+        service.init();
+        RecordingEmitter emitter = subscribe(user(1L), holding("TCS", "10", "100"));
+
+        service.publishPrices(stocks(Map.of("TCS", new BigDecimal("100"))));
+        service.publishPrices(stocks(Map.of("TCS", new BigDecimal("101"))));
+
+        awaitTrue(() -> emitter.events.size() == 3);
+        assertEquals(List.of("subscribed", "price-tick", "valuation-delta"), emitter.names());
+        assertEquals(new BigDecimal("101"), emitter.events.get(1).data().get("price"));
+    }
+
+    @Test
+    public void testTotalDeltaSumsEveryMovedHolding() throws Exception {
+        service.init();
+        RecordingEmitter emitter = subscribe(user(1L), holding("TCS", "10", "100"), holding("INFY", "5", "200"));
+
+        service.publishPrices(stocks(Map.of("TCS", new BigDecimal("101"), "INFY", new BigDecimal("204"))));
+
+        awaitTrue(() -> emitter.names().contains("valuation-delta"));
+        Map<String, Object> delta = emitter.events.get(emitter.names().indexOf("valuation-delta")).data();
+        assertEquals(new BigDecimal("30.00"), delta.get("totalDelta"));
+        assertEquals(2, ((List<?>) delta.get("changes")).size());
+    }
+
+    @Test
+    public void testEventsKeepTheirOrderPerSubscriber() throws Exception {
+        service.init();
+        RecordingEmitter first = subscribe(user(1L), holding("TCS", "1", "100"));
+        RecordingEmitter second = subscribe(user(2L), holding("TCS", "2", "100"));
+
+        for (int price = 101; price <= 150; price++) {
+            service.publishPrices(stocks(Map.of("TCS", new BigDecimal(price))));
+        }
+
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            awaitTrue(() -> emitter.ticks().size() == 50);
+            List<BigDecimal> ticks = emitter.ticks();
+            for (int i = 0; i < ticks.size(); i++) {
+                assertEquals(new BigDecimal(101 + i), ticks.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testSubscriberThatFallsBehindIsDisconnected() throws Exception {
+        ReflectionTestUtils.setField(service, "maxQueuedEvents", 2);
+        service.init();
+        nextGate = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe(user(1L), holding("TCS", "1", "100"));
+        RecordingEmitter fast = subscribe(user(2L), holding("TCS", "1", "100"));
+        awaitTrue(() -> fast.names().contains("subscribed"));
+
+        for (int price = 101; price <= 105; price++) {
+            service.publishPrices(stocks(Map.of("TCS", new BigDecimal(price))));
+            // The fast client keeps up: its queue is empty before the next refresh
+            int sent = price - 100;
+            awaitTrue(() -> fast.names().stream().filter("valuation-delta"::equals).count() == sent);
+        }
+
+        assertTrue(slow.completed);
+        assertEquals(1, service.getStats().get("subscribers"));
+        assertEquals(1L, service.getStats().get("slowDisconnects"));
+        // The slow client only held up its own stream
+        assertEquals(5, fast.ticks().size());
+    }
+
+    @Test
+    public void testSavedHoldingsChangeWhatIsStreamed() throws Exception {
+        service.init();
+        User user = user(1L);
+        RecordingEmitter emitter = subscribe(user, holding("TCS", "10", "100"));
+
+        // TCS sold, INFY bought
+        when(investmentRepository.findByUserOrderByCreatedAtDesc(user)).thenReturn(List.of(holding("INFY", "4", "200")));
+        service.updateHoldings(user);
+        service.publishPrices(stocks(Map.of("TCS", new BigDecimal("150"), "INFY", new BigDecimal("210"))));
+
+        awaitTrue(() -> emitter.names().contains("valuation-delta"));
+        assertEquals(List.of("subscribed", "holdings", "price-tick", "valuation-delta"), emitter.names());
+        assertEquals("INFY", emitter.events.get(2).data().get("symbol"));
+        assertEquals(new BigDecimal("40.00"), emitter.events.get(3).data().get("totalDelta"));
+        assertEquals(1, service.getStats().get("subscribedSymbols"));
+    }
+
+    @Test
+    public void testPriceOfAnotherTypeDoesNotMoveAHolding() throws Exception {
+        service.init();
+        Investment etf = holding("GOLDBEES", "10", "50");
+        etf.setType(InvestmentType.ETF);
+        RecordingEmitter emitter = subscribe(user(1L), holding("GOLDBEES", "10", "60"), etf);
+
+        service.publishPrices(Map.of(InvestmentType.ETF, Map.of("GOLDBEES", new BigDecimal("51"))));
+
+        awaitTrue(() -> emitter.names().contains("valuation-delta"));
+        assertEquals(List.of("subscribed", "price-tick", "valuation-delta"), emitter.names());
+        assertEquals("ETF", emitter.events.get(1).data().get("type"));
+        // Only the ETF moved; the stock of the same name kept its price
+        assertEquals(new BigDecimal("10.00"), emitter.events.get(2).data().get("totalDelta"));
+        assertEquals(2, service.getStats().get("subscribedSymbols"));
+    }
+
+    private RecordingEmitter subscribe(User user, Investment... holdings) throws Exception {
+        when(investmentRepository.findByUserOrderByCreatedAtDesc(user)).thenReturn(List.of(holdings));
+        int before = emitters.size();
+        service.subscribe(user);
+        return emitters.get(before);
+    }
+
+    private static Map<InvestmentType, Map<String, BigDecimal>> stocks(Map<String, BigDecimal> prices) {
+        return Map.of(InvestmentType.STOCK, prices);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static Investment holding(String symbol, String quantity, String price) {
+        Investment investment = new Investment();
+        investment.setSymbol(symbol);
+        investment.setType(InvestmentType.STOCK);
+        investment.setQuantity(new BigDecimal(quantity));
+        investment.setCurrentPrice(new BigDecimal(price));
+        investment.setLivePriceEnabled(true);
+        return investment;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 5s");
+            Thread.sleep(5);
+        }
+    }
+
+    private record Event(String name, Object payload) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data() {
+            return (Map<String, Object>) payload;
+        }
+    }
+
+    /**
+     * Keeps every event sent instead of writing it; sends wait for the gate when there is one
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch gate;
+        private final List<Event> events = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (gate != null) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String name = null;
+            Object payload = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text && text.contains("event:")) {
+                    name = text.substring(text.indexOf("event:") + 6).split("\n")[0];
+                } else if (!(part.getData() instanceof String)) {
+                    payload = part.getData();
+                }
+            }
+            if (name != null) {
+                events.add(new Event(name, payload));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<String> names() {
+            return events.stream().map(Event::name).collect(Collectors.toList());
+        }
+
+        List<BigDecimal> ticks() {
+            return new ArrayList<>(events).stream()
+                    .filter(event -> "price-tick".equals(event.name()))
+                    .map(event -> (BigDecimal) event.data().get("price"))
+                    .collect(Collectors.toList());
+        }
+    }
+}
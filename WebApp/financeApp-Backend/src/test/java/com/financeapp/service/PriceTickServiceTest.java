@@ -0,0 +1,188 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PriceTickServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PriceHistoryService priceHistoryService;
+    private PriceTickService service;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        priceHistoryService = mock(PriceHistoryService.class);
+        service = new PriceTickService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "priceHistoryService", priceHistoryService);
+        ReflectionTestUtils.setField(service, "epsilon", new BigDecimal("0.005"));
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "retentionDays", 30);
+        ReflectionTestUtils.setField(service, "maxPending", 50000);
+    }
+
+    @Test
+    public void testFirstPriceIsLogged() {
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("3500"));
+        assertEquals(1, pendingTicks());
+    }
+
+    @Test
+    public void testMovesWithinEpsilonAreSkipped() {
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("3500.000"));
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("3500.003"));
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("3499.996"));
+        assertEquals(1, pendingTicks());
+
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("3500.010"));
+        assertEquals(2, pendingTicks());
+    }
+
+    @Test
+    public void testSmallMovesAddUpToATick() {
+        // Each step is below the epsilon, but the drift from the last logged price is not
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("100.000"));
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("100.004"));
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("100.008"));
+        assertEquals(2, pendingTicks());
+
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("100.012"));
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("100.016"));
+        assertEquals(3, pendingTicks());
+    }
+
+    @Test
+    public void testSymbolsAreTrackedSeparately() {
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("100"));
+        service.record("INFY", InvestmentType.STOCK, new BigDecimal("100"));
+        service.record("INFY", InvestmentType.STOCK, new BigDecimal("100.001"));
+        assertEquals(2, pendingTicks());
+        assertEquals(2, service.getStats().get("trackedSymbols"));
+    }
+
+    @Test
+    public void testTypesAreTrackedSeparately() {
+        // A scheme code and a crypto ticker may collide with an NSE symbol
+        service.record("ABC", InvestmentType.STOCK, new BigDecimal("100"));
+        service.record("ABC", InvestmentType.MUTUAL_FUND, new BigDecimal("100"));
+        assertEquals(2, pendingTicks());
+    }
+
+    @Test
+    public void testRecordLeavesWritingToTheFlush() {
+        ReflectionTestUtils.setField(service, "batchSize", 1);
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("100"));
+        service.record("INFY", InvestmentType.STOCK, new BigDecimal("200"));
+        verifyNoInteractions(jdbcTemplate);
+        assertEquals(2, pendingTicks());
+    }
+
+    @Test
+    public void testInvalidPricesAreIgnored() {
+        service.record("TCS", InvestmentType.STOCK, null);
+        service.record("TCS", InvestmentType.STOCK, BigDecimal.ZERO);
+        service.record(null, InvestmentType.STOCK, BigDecimal.ONE);
+        service.record("TCS", null, BigDecimal.ONE);
+        assertEquals(0, pendingTicks());
+    }
+
+    @Test
+    public void testFailedFlushKeepsTicks() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(new int[0][]);
+        service.record("TCS", InvestmentType.STOCK, new BigDecimal("100"));
+        service.record("INFY", InvestmentType.STOCK, new BigDecimal("200"));
+
+        service.flush();
+        assertEquals(2, pendingTicks());
+        assertEquals(0L, service.getStats().get("ticksWritten"));
+
+        service.flush();
+        assertEquals(0, pendingTicks());
+        assertEquals(2L, service.getStats().get("ticksWritten"));
+        assertEquals(0L, service.getStats().get("ticksDropped"));
+    }
+
+    @Test
+    public void testFailedFlushKeepsWrittenBatches() {
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[0][])
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        service.record("A", InvestmentType.STOCK, BigDecimal.ONE);
+        service.record("B", InvestmentType.STOCK, BigDecimal.ONE);  // First batch: written
+        service.record("C", InvestmentType.STOCK, BigDecimal.ONE);
+        service.record("D", InvestmentType.STOCK, BigDecimal.ONE);  // Second batch fails
+        service.record("E", InvestmentType.STOCK, BigDecimal.ONE);
+
+        service.flush();
+        assertEquals(2L, service.getStats().get("ticksWritten"));
+        assertEquals(3, pendingTicks());
+    }
+
+    @Test
+    public void testFailedTicksBeyondMaxPendingAreDropped() {
+        ReflectionTestUtils.setField(service, "maxPending", 2);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        service.record("A", InvestmentType.STOCK, BigDecimal.ONE);
+        service.record("B", InvestmentType.STOCK, BigDecimal.ONE);
+        service.record("C", InvestmentType.STOCK, BigDecimal.ONE);
+
+        service.flush();
+        assertEquals(2, pendingTicks());
+        assertEquals(1L, service.getStats().get("ticksDropped"));
+    }
+
+    @Test
+    public void testOnlyDownsampledSymbolsAreDeleted() throws Exception {
+        LocalDateTime old = LocalDateTime.now().minusDays(40);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(tickRow("INFY", "1500", old));
+            handler.processRow(tickRow("INFY", "1510", old.plusHours(1)));
+            handler.processRow(tickRow("TCS", "3500", old));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        when(priceHistoryService.saveDailyBars(eq("INFY"), anyList())).thenReturn(1);
+        when(priceHistoryService.saveDailyBars(eq("TCS"), anyList())).thenThrow(new DataAccessResourceFailureException("deadlock"));
+
+        service.downsampleOldTicks();
+
+        verify(jdbcTemplate).update(eq("DELETE FROM price_tick WHERE investment_type = ? AND symbol = ? AND tick_time < ?"),
+                eq("STOCK"), eq("INFY"), any(Timestamp.class));
+        verify(jdbcTemplate, never()).update(anyString(), eq("STOCK"), eq("TCS"), any());
+        // Other types are only purged, never rolled into price_history
+        verify(jdbcTemplate).update(contains("investment_type NOT IN"), any(Timestamp.class));
+    }
+
+    private static ResultSet tickRow(String symbol, String price, LocalDateTime tickTime) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(symbol);
+        when(rs.getString(2)).thenReturn("STOCK");
+        when(rs.getBigDecimal(3)).thenReturn(new BigDecimal(price));
+        when(rs.getTimestamp(4)).thenReturn(Timestamp.valueOf(tickTime));
+        return rs;
+    }
+
+    private int pendingTicks() {
+        return (Integer) service.getStats().get("pendingTicks");
+    }
+}
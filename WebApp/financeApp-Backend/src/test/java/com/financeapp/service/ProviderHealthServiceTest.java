@@ -0,0 +1,95 @@
+package com.financeapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProviderHealthServiceTest {
+
+    @Test
+    public void testPercentiles() {
+        ProviderHealthService service = service(200);
+        // Recorded out of order; percentiles must not depend on arrival order
+        for (int i = 100; i >= 1; i--) {
+            service.recordSuccess(ProviderHealthService.YAHOO, i);
+        }
+        Map<String, Object> status = service.getStatus(ProviderHealthService.YAHOO);
+        assertEquals(50L, status.get("latencyP50Ms"));
+        assertEquals(95L, status.get("latencyP95Ms"));
+        assertEquals(99L, status.get("latencyP99Ms"));
+        assertEquals(100, status.get("sampleSize"));
+        assertEquals(0.0, status.get("errorRate"));
+        assertNotNull(status.get("lastSuccess"));
+        assertNull(status.get("lastFailure"));
+    }
+
+    @Test
+    public void testSingleSample() {
+        ProviderHealthService service = service(200);
+        service.recordSuccess(ProviderHealthService.AMFI, 420);
+        Map<String, Object> status = service.getStatus(ProviderHealthService.AMFI);
+        assertEquals(420L, status.get("latencyP50Ms"));
+        assertEquals(420L, status.get("latencyP99Ms"));
+    }
+
+    @Test
+    public void testWindowKeepsOnlyRecentCalls() {
+        ProviderHealthService service = service(10);
+        for (int i = 1; i <= 20; i++) {
+            service.recordSuccess(ProviderHealthService.YAHOO, i);
+        }
+        Map<String, Object> status = service.getStatus(ProviderHealthService.YAHOO);
+        assertEquals(10, status.get("sampleSize"));
+        assertEquals(15L, status.get("latencyP50Ms"));
+        assertEquals(20L, status.get("latencyP99Ms"));
+    }
+
+    @Test
+    public void testErrorRateAndLastError() {
+        ProviderHealthService service = service(4);
+        service.recordSuccess(ProviderHealthService.YAHOO, 10);
+        service.recordFailure(ProviderHealthService.YAHOO, 20, "HTTP 429");
+        service.recordFailure(ProviderHealthService.YAHOO, 30, null);
+        Map<String, Object> status = service.getStatus(ProviderHealthService.YAHOO);
+        assertEquals(0.6667, status.get("errorRate"));
+        assertEquals("unknown error", status.get("lastError"));
+        assertNotNull(status.get("lastFailure"));
+
+        // The failures age out of the window
+        for (int i = 0; i < 4; i++) {
+            service.recordSuccess(ProviderHealthService.YAHOO, 10);
+        }
+        assertEquals(0.0, service.getStatus(ProviderHealthService.YAHOO).get("errorRate"));
+    }
+
+    @Test
+    public void testStatusBeforeAnyCall() {
+        ProviderHealthService service = service(200);
+        service.recordCycle("custom", 3, System.currentTimeMillis() - 90_000);
+
+        Map<String, Object> status = service.getStatus();
+        assertTrue(status.containsKey(ProviderHealthService.YAHOO));
+        assertTrue(status.containsKey(ProviderHealthService.AMFI));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> yahoo = (Map<String, Object>) status.get(ProviderHealthService.YAHOO);
+        assertEquals(0L, yahoo.get("latencyP50Ms"));
+        assertEquals(0, yahoo.get("sampleSize"));
+        assertNull(yahoo.get("lastSuccess"));
+        assertNull(yahoo.get("oldestCachedPriceAgeSeconds"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> custom = (Map<String, Object>) status.get("custom");
+        assertEquals(3, custom.get("symbolsRefreshedLastCycle"));
+        assertEquals(90L, custom.get("oldestCachedPriceAgeSeconds"));
+        assertNotNull(custom.get("lastCycle"));
+    }
+
+    private static ProviderHealthService service(int windowSize) {
+        ProviderHealthService service = new ProviderHealthService();
+        ReflectionTestUtils.setField(service, "windowSize", windowSize);
+        return service;
+    }
+}
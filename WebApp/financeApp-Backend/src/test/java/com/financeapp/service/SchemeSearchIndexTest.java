@@ -0,0 +1,102 @@
+package com.financeapp.service;
+
+import com.financeapp.service.MutualFundService.MutualFundData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemeSearchIndexTest {
+
+    private static final String[] NAMES = {
+            "Axis Bluechip Fund - Direct Growth",
+            "Axis ELSS Tax Saver Fund - Direct Growth",
+            "SBI Bluechip Fund - Regular Growth",
+            "Mirae Asset Large Cap Fund - Direct Growth",
+            "HDFC Top 100 Fund - Direct Growth",
+            "ICICI Prudential Bluechip Fund",
+            "Capital Builder Fund",
+            "HDFC Smallcap Fund",
+    };
+
+    private final NavStore store = store();
+    private final SchemeSearchIndex index = new SchemeSearchIndex(store);
+
+    @Test
+    public void testRankingOrder() {
+        // Name prefix, then word prefix, then anywhere in a word
+        assertEquals(List.of("Capital Builder Fund", "Mirae Asset Large Cap Fund - Direct Growth", "HDFC Smallcap Fund"),
+                search("cap", 10));
+    }
+
+    @Test
+    public void testTiesGoToShorterThenAlphabeticalName() {
+        assertEquals(List.of("ICICI Prudential Bluechip Fund", "Axis Bluechip Fund - Direct Growth",
+                "SBI Bluechip Fund - Regular Growth"), search("bluechip", 10));
+        assertEquals(List.of("ICICI Prudential Bluechip Fund", "Axis Bluechip Fund - Direct Growth",
+                "SBI Bluechip Fund - Regular Growth"), search("chip", 10));
+    }
+
+    @Test
+    public void testAllWordPrefixesComeLast() {
+        assertEquals(List.of("HDFC Smallcap Fund", "HDFC Top 100 Fund - Direct Growth"), search("hdfc fund", 10));
+        assertEquals(List.of("Mirae Asset Large Cap Fund - Direct Growth"), search("mir lar", 10));
+        assertTrue(search("mirae smallcap", 10).isEmpty());
+    }
+
+    @Test
+    public void testAllWordMatchesOnlyFillRemainingRoom() {
+        // "Capital Builder Fund" only has words starting with both parts, so it follows the substring hits
+        assertEquals(List.of("Mirae Asset Large Cap Fund - Direct Growth", "HDFC Smallcap Fund", "Capital Builder Fund"),
+                search("cap fund", 10));
+        assertEquals(List.of("Mirae Asset Large Cap Fund - Direct Growth"), search("cap fund", 1));
+    }
+
+    @Test
+    public void testShortQueries() {
+        assertEquals(List.of("Axis Bluechip Fund - Direct Growth", "Axis ELSS Tax Saver Fund - Direct Growth"),
+                search("ax", 2));
+        assertEquals(List.of("HDFC Smallcap Fund", "HDFC Top 100 Fund - Direct Growth"), search("h", 2));
+    }
+
+    @Test
+    public void testLimitAndCase() {
+        assertEquals(3, search("FUND", 3).size());
+        assertEquals(search("bluechip", 10), search("  BlueChip ", 10));
+        assertTrue(search("", 10).isEmpty());
+        assertTrue(search("nothing like this", 10).isEmpty());
+    }
+
+    @Test
+    public void testReturnsStoreSlots() {
+        int[] slots = index.search("capital", 10);
+        assertEquals(1, slots.length);
+        assertEquals(2000006, store.getSchemeCode(slots[0]));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        assertEquals(0, SchemeSearchIndex.EMPTY.search("fund", 10).length);
+    }
+
+    private List<String> search(String query, int limit) {
+        List<String> names = new ArrayList<>();
+        for (int slot : index.search(query, limit)) {
+            names.add(store.getSchemeName(slot));
+        }
+        return names;
+    }
+
+    private static NavStore store() {
+        NavStore.Builder builder = new NavStore.Builder();
+        for (int i = 0; i < NAMES.length; i++) {
+            builder.add(new MutualFundData(String.valueOf(2000000 + i), "", NAMES[i], BigDecimal.TEN,
+                    LocalDateTime.of(2025, 9, 5, 0, 0)));
+        }
+        return builder.build();
+    }
+}
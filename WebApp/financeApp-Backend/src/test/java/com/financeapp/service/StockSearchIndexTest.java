@@ -0,0 +1,116 @@
+package com.financeapp.service;
+
+import com.financeapp.model.StockSymbol;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StockSearchIndexTest {
+
+    private final StockSearchIndex index = new StockSearchIndex(List.of(
+            stock("TCS", "Tata Consultancy Services Limited", "Information Technology"),
+            stock("TATAMOTORS", "Tata Motors Limited", "Automobile"),
+            stock("TATASTEEL", "Tata Steel Limited", "Metals"),
+            stock("TATA", "Tata Holdings Limited", "Financial Services"),
+            stock("RALLIS", "Rallis India Limited (A Tata Enterprise)", "Chemicals"),
+            stock("TATTA", "Tatta Industries Limited", "Textiles"),
+            stock("INFY", "Infosys Limited", "Information Technology"),
+            stock("RELIANCE", "Reliance Industries Limited", "Oil Gas"),
+            stock("HDFCBANK", "HDFC Bank Limited", "Banking")));
+
+    @Test
+    public void testRankingOrder() {
+        // Exact symbol, symbol prefix, name prefix, contains, then typo
+        assertEquals(List.of("TATA", "TATAMOTORS", "TATASTEEL", "TCS", "RALLIS", "TATTA"), search("tata", 10));
+    }
+
+    @Test
+    public void testTiesBrokenBySymbol() {
+        assertEquals(List.of("HDFCBANK", "INFY", "RALLIS", "RELIANCE", "TATA", "TATAMOTORS", "TATASTEEL", "TATTA", "TCS"),
+                search("limited", 20));
+    }
+
+    @Test
+    public void testSectorMatches() {
+        assertEquals(List.of("TATASTEEL"), search("metals", 10));
+        assertEquals(List.of("INFY", "TCS"), search("information tech", 10));
+    }
+
+    @Test
+    public void testQueryIsCaseInsensitiveAndTrimmed() {
+        assertEquals(search("reliance", 10), search("  RELIANCE ", 10));
+        assertTrue(search("   ", 10).isEmpty());
+    }
+
+    @Test
+    public void testLimit() {
+        assertEquals(List.of("TATA", "TATAMOTORS"), search("tata", 2));
+    }
+
+    @Test
+    public void testNoTyposBelowFourLetters() {
+        // "tcz" is one edit from TCS but too short to be taken as a typo
+        assertTrue(search("tcz", 10).isEmpty());
+    }
+
+    @Test
+    public void testOneEditFromFourLetters() {
+        assertEquals(List.of("INFY"), search("infx", 10));
+        assertTrue(search("inxx", 10).isEmpty());
+    }
+
+    @Test
+    public void testTwoEditsFromEightLetters() {
+        assertEquals(List.of("RELIANCE"), search("relianxx", 10));
+        // Seven letters allow one edit only
+        assertTrue(search("reliaxx", 10).isEmpty());
+    }
+
+    @Test
+    public void testTranspositionIsOneEdit() {
+        assertEquals(List.of("RELIANCE"), search("relaince", 10));
+        assertEquals(List.of("INFY"), search("ifny", 10));
+    }
+
+    @Test
+    public void testTypoMustKeepFirstLetter() {
+        assertTrue(search("unfy", 10).isEmpty());
+    }
+
+    @Test
+    public void testTypoMatchesEveryWordAgainstNameWords() {
+        assertEquals(List.of("TCS"), search("tata consultansy", 10));
+        assertTrue(search("tata consultansy steal", 10).isEmpty());
+    }
+
+    @Test
+    public void testOneAndTwoLetterQueries() {
+        // Too short for a trigram: every stock is a candidate, ranked the same way
+        assertEquals(List.of("TATA", "TATAMOTORS", "TATASTEEL", "TATTA", "TCS", "HDFCBANK", "INFY", "RALLIS", "RELIANCE"),
+                search("t", 20));
+        assertEquals(List.of("TATA", "TATAMOTORS", "TATASTEEL", "TATTA", "TCS", "RALLIS"), search("ta", 20));
+        assertEquals(List.of("HDFCBANK"), search("hd", 20));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        assertTrue(StockSearchIndex.EMPTY.search("tata", 10).isEmpty());
+    }
+
+    private List<String> search(String query, int limit) {
+        List<String> symbols = new ArrayList<>();
+        for (StockSymbol stock : index.search(query, limit)) {
+            symbols.add(stock.getSymbol());
+        }
+        return symbols;
+    }
+
+    private static StockSymbol stock(String symbol, String companyName, String sector) {
+        StockSymbol stock = new StockSymbol(symbol, companyName, "EQ");
+        stock.setSector(sector);
+        return stock;
+    }
+}
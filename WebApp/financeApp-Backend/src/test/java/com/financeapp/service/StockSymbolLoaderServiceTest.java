@@ -0,0 +1,196 @@
+package com.financeapp.service;
+
+import com.financeapp.model.DataSyncState;
+import com.financeapp.model.StockSymbol;
+import com.financeapp.repository.DataSyncStateRepository;
+import com.financeapp.repository.ResolvedYahooSymbolRepository;
+import com.financeapp.repository.StockSymbolRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class StockSymbolLoaderServiceTest {
+
+    private static final String HEADER = "SYMBOL,NAME OF COMPANY, SERIES, DATE OF LISTING, PAID UP VALUE, MARKET LOT, ISIN NUMBER, FACE VALUE\n";
+
+    @TempDir
+    Path tempDir;
+
+    private StockSymbolRepository stockSymbolRepository;
+    private DataSyncStateRepository dataSyncStateRepository;
+    private JdbcTemplate jdbcTemplate;
+    private StockSymbolLoaderService service;
+    private Path symbolFile;
+
+    @BeforeEach
+    public void setUp() {
+        stockSymbolRepository = mock(StockSymbolRepository.class);
+        dataSyncStateRepository = mock(DataSyncStateRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        symbolFile = tempDir.resolve("symbols.csv");
+
+        service = new StockSymbolLoaderService();
+        ReflectionTestUtils.setField(service, "stockSymbolRepository", stockSymbolRepository);
+        ReflectionTestUtils.setField(service, "dataSyncStateRepository", dataSyncStateRepository);
+        ReflectionTestUtils.setField(service, "resolvedYahooSymbolRepository", mock(ResolvedYahooSymbolRepository.class));
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(service, "sourceLocation", symbolFile.toUri().toString());
+        ReflectionTestUtils.setField(service, "batchSize", 1000);
+        ReflectionTestUtils.setField(service, "snapshotPath", "");
+    }
+
+    @Test
+    public void testUnchangedChecksumWritesNothing() throws Exception {
+        byte[] content = writeSymbolFile("TCS,Tata Consultancy Services Limited,EQ,2004-08-25,1,1,INE467B01029,1\n");
+        when(stockSymbolRepository.count()).thenReturn(1L);
+        when(dataSyncStateRepository.findById(anyString()))
+                .thenReturn(Optional.of(new DataSyncState("nse-symbol-master", sha256(content), 1)));
+
+        assertFalse(service.syncStockSymbols());
+
+        verifyNoInteractions(jdbcTemplate);
+        verify(stockSymbolRepository, never()).findAll();
+        verify(dataSyncStateRepository, never()).save(any());
+        assertEquals(0, service.getCacheSize());
+    }
+
+    @Test
+    public void testEmptyTableIsBulkInserted() throws Exception {
+        byte[] content = writeSymbolFile(
+                "TCS,Tata Consultancy Services Limited,EQ,2004-08-25,1,1,INE467B01029,1\n" +
+                "INFY,Infosys Limited,EQ,1995-02-08,5,1,INE009A01021,5\n" +
+                "TCS,Duplicate Row,EQ,,,,,\n");
+        when(stockSymbolRepository.count()).thenReturn(0L);
+        when(dataSyncStateRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        assertTrue(service.syncStockSymbols());
+
+        Map<String, List<Object>> batches = captureBatches();
+        assertEquals(List.of("TCS", "INFY"), symbols(batches.get("INSERT")));
+        assertEquals("Tata Consultancy Services Limited", service.findBySymbol("tcs").getCompanyName());
+        verify(stockSymbolRepository, never()).findAll();
+        ArgumentCaptor<DataSyncState> state = ArgumentCaptor.forClass(DataSyncState.class);
+        verify(dataSyncStateRepository).save(state.capture());
+        assertEquals(sha256(content), state.getValue().getChecksum());
+        assertEquals(2, state.getValue().getRowCount());
+    }
+
+    @Test
+    public void testChangedFileWritesOnlyTheDifferences() throws Exception {
+        writeSymbolFile(
+                "TCS,Tata Consultancy Services Limited,EQ,2004-08-25,1,1,INE467B01029,1\n" +   // unchanged
+                "INFY,Infosys Ltd,EQ,1995-02-08,5,1,INE009A01021,5\n" +                        // renamed
+                "WIPRO,Wipro Limited,EQ,1995-11-08,2,1,INE075A01022,2\n" +                     // inactive, back in the file
+                "ZOMATO,Zomato Limited,EQ,2021-07-23,1,1,INE758T01015,1\n");                   // new
+        when(stockSymbolRepository.count()).thenReturn(4L);
+        when(dataSyncStateRepository.findById(anyString()))
+                .thenReturn(Optional.of(new DataSyncState("nse-symbol-master", "previous-checksum", 4)));
+        StockSymbol tcs = row(1L, "TCS", "Tata Consultancy Services Limited", LocalDate.of(2004, 8, 25), 1, "INE467B01029", true);
+        tcs.setYahooSymbol("TCS.NS");
+        tcs.setSector("IT");
+        when(stockSymbolRepository.findAll()).thenReturn(List.of(
+                tcs,
+                row(2L, "INFY", "Infosys Limited", LocalDate.of(1995, 2, 8), 5, "INE009A01021", true),
+                row(3L, "WIPRO", "Wipro Limited", LocalDate.of(1995, 11, 8), 2, "INE075A01022", false),
+                row(4L, "HDFC", "HDFC Limited", LocalDate.of(1995, 1, 1), 2, "INE001A01036", true)));
+
+        assertTrue(service.syncStockSymbols());
+
+        Map<String, List<Object>> batches = captureBatches();
+        assertEquals(List.of("ZOMATO"), symbols(batches.get("INSERT")));
+        assertEquals(List.of("INFY", "WIPRO"), symbols(batches.get("UPDATE stock_symbols SET company_name")));
+        assertEquals(List.of("HDFC"), batches.get("UPDATE stock_symbols SET is_active"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> sync = (Map<String, Object>) service.getCacheStats().get("lastSync");
+        assertEquals(1, sync.get("inserted"));
+        assertEquals(2, sync.get("updated"));
+        assertEquals(1, sync.get("deactivated"));
+        assertEquals(1, sync.get("unchanged"));
+
+        // Rows kept from the table carry their id, sector and Yahoo symbol into the cache
+        StockSymbol cached = service.findBySymbol("TCS");
+        assertEquals(1L, cached.getId());
+        assertEquals("IT", cached.getSector());
+        assertEquals("TCS.NS", service.getYahooSymbol("TCS"));
+        assertEquals("Infosys Ltd", service.findBySymbol("INFY").getCompanyName());
+        assertNull(service.findBySymbol("HDFC"));
+    }
+
+    private byte[] writeSymbolFile(String rows) throws Exception {
+        byte[] content = (HEADER + rows).getBytes(StandardCharsets.UTF_8);
+        Files.write(symbolFile, content);
+        return content;
+    }
+
+    /**
+     * Rows passed to jdbcTemplate.batchUpdate, by the start of the SQL; a statement never run has none
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, List<Object>> captureBatches() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Collection<Object>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(sql.capture(), rows.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        Map<String, List<Object>> batches = new HashMap<>();
+        for (String prefix : List.of("INSERT", "UPDATE stock_symbols SET company_name", "UPDATE stock_symbols SET is_active")) {
+            batches.put(prefix, new ArrayList<>());
+        }
+        for (int i = 0; i < sql.getAllValues().size(); i++) {
+            String statement = sql.getAllValues().get(i);
+            for (Map.Entry<String, List<Object>> batch : batches.entrySet()) {
+                if (statement.startsWith(batch.getKey())) {
+                    batch.getValue().addAll(rows.getAllValues().get(i));
+                }
+            }
+        }
+        return batches;
+    }
+
+    private static List<String> symbols(List<Object> rows) {
+        return rows.stream().map(row -> ((StockSymbol) row).getSymbol()).collect(Collectors.toList());
+    }
+
+    private static StockSymbol row(Long id, String symbol, String companyName, LocalDate listingDate,
+                                   int faceValue, String isin, boolean active) {
+        StockSymbol row = new StockSymbol(symbol, companyName, "EQ");
+        row.setId(id);
+        row.setListingDate(listingDate);
+        row.setPaidUpValue((double) faceValue);
+        row.setMarketLot(1);
+        row.setIsinNumber(isin);
+        row.setFaceValue((double) faceValue);
+        row.setActive(active);
+        row.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return row;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,74 @@
+package com.financeapp.service;
+
+import com.financeapp.model.InvestmentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StubPriceProviderTest {
+
+    private StubPriceProvider provider;
+
+    @BeforeEach
+    public void setUp() {
+        provider = new StubPriceProvider();
+        ReflectionTestUtils.setField(provider, "batchSize", 100);
+        ReflectionTestUtils.setField(provider, "maxMovePct", 0.5);
+    }
+
+    @Test
+    public void testEverySymbolGetsAPrice() {
+        Map<String, PriceProvider.Price> prices = provider.fetchPrices(InvestmentType.STOCK, List.of("TCS", "INFY", "120503"));
+
+        assertEquals(3, prices.size());
+        for (PriceProvider.Price price : prices.values()) {
+            assertTrue(price.getPrice().compareTo(new BigDecimal("9")) > 0, "Price " + price.getPrice());
+            assertTrue(price.getPrice().compareTo(new BigDecimal("5100")) < 0, "Price " + price.getPrice());
+        }
+        assertFalse(provider.getSupportedTypes().contains(InvestmentType.REAL_ESTATE));
+    }
+
+    @Test
+    public void testPreviousCloseIsStablePerSymbol() {
+        BigDecimal first = provider.fetchPrices(InvestmentType.STOCK, List.of("TCS")).get("TCS").getPreviousClose();
+        StubPriceProvider other = new StubPriceProvider();
+        ReflectionTestUtils.setField(other, "maxMovePct", 0.5);
+        BigDecimal second = other.fetchPrices(InvestmentType.STOCK, List.of("tcs")).get("tcs").getPreviousClose();
+
+        assertEquals(first, second);
+        assertEquals(first, provider.fetchPrices(InvestmentType.STOCK, List.of("TCS")).get("TCS").getPreviousClose());
+    }
+
+    @Test
+    public void testPriceWalksWithinTheMaximumMove() {
+        BigDecimal previous = provider.fetchPrices(InvestmentType.STOCK, List.of("TCS")).get("TCS").getPrice();
+        for (int i = 0; i < 50; i++) {
+            PriceProvider.Price price = provider.fetchPrices(InvestmentType.STOCK, List.of("TCS")).get("TCS");
+            double movePct = Math.abs(price.getPrice().subtract(previous).doubleValue() / previous.doubleValue() * 100);
+            // 0.5% plus rounding to paise
+            assertTrue(movePct <= 0.51, "Moved " + movePct + "%");
+
+            BigDecimal expectedReturn = price.getPrice().subtract(price.getPreviousClose())
+                    .divide(price.getPreviousClose(), 6, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100))
+                    .setScale(4, RoundingMode.HALF_UP);
+            assertEquals(expectedReturn, price.getDailyReturn());
+            previous = price.getPrice();
+        }
+    }
+
+    @Test
+    public void testLatencyIsSimulated() {
+        ReflectionTestUtils.setField(provider, "latencyMs", 50L);
+        long start = System.nanoTime();
+        provider.fetchPrices(InvestmentType.STOCK, List.of("TCS"));
+        assertTrue((System.nanoTime() - start) / 1_000_000 >= 45, "Fetch should wait for the configured latency");
+    }
+}
@@ -0,0 +1,137 @@
+package com.financeapp.service;
+
+import com.financeapp.model.StockSymbol;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymbolSnapshotTest {
+
+    private static final String CHECKSUM = "ab".repeat(32);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRowsSurviveARoundTrip() throws Exception {
+        Path path = tempDir.resolve("symbols.snap");
+        StockSymbol full = new StockSymbol("TCS", "Tata Consultancy Services Limited", "EQ");
+        full.setId(42L);
+        full.setListingDate(LocalDate.of(2004, 8, 25));
+        full.setPaidUpValue(1.0);
+        full.setMarketLot(1);
+        full.setIsinNumber("INE467B01029");
+        full.setFaceValue(1.0);
+        full.setSector("IT");
+        full.setYahooSymbol("TCS.NS");
+        // Every optional field missing
+        StockSymbol bare = new StockSymbol("NEWCO", "Newco Limited", "BE");
+
+        SymbolSnapshot.write(path, CHECKSUM, List.of(full, bare));
+        List<StockSymbol> read = SymbolSnapshot.read(path, CHECKSUM.toUpperCase());
+
+        assertNotNull(read);
+        assertEquals(2, read.size());
+        StockSymbol first = read.get(0);
+        assertEquals(42L, first.getId());
+        assertEquals("TCS", first.getSymbol());
+        assertEquals("Tata Consultancy Services Limited", first.getCompanyName());
+        assertEquals("EQ", first.getSeries());
+        assertEquals(LocalDate.of(2004, 8, 25), first.getListingDate());
+        assertEquals(1.0, first.getPaidUpValue());
+        assertEquals(1, first.getMarketLot());
+        assertEquals("INE467B01029", first.getIsinNumber());
+        assertEquals(1.0, first.getFaceValue());
+        assertEquals("IT", first.getSector());
+        assertEquals("TCS.NS", first.getYahooSymbol());
+
+        StockSymbol second = read.get(1);
+        assertEquals("NEWCO", second.getSymbol());
+        assertEquals("BE", second.getSeries());
+        assertNull(second.getId());
+        assertNull(second.getListingDate());
+        assertNull(second.getPaidUpValue());
+        assertNull(second.getMarketLot());
+        assertNull(second.getIsinNumber());
+        assertNull(second.getFaceValue());
+        assertNull(second.getSector());
+        assertNull(second.getYahooSymbol());
+    }
+
+    @Test
+    public void testValuesLongerThanAShortRoundTrip() throws Exception {
+        Path path = tempDir.resolve("symbols.snap");
+        String longName = "x".repeat(40_000);
+        SymbolSnapshot.write(path, CHECKSUM, List.of(new StockSymbol("LONG", longName, "EQ")));
+
+        List<StockSymbol> read = SymbolSnapshot.read(path, CHECKSUM);
+
+        assertNotNull(read);
+        assertEquals(longName, read.get(0).getCompanyName());
+    }
+
+    @Test
+    public void testSnapshotOfAnotherSymbolFileIsIgnored() throws Exception {
+        Path path = writeSnapshot();
+        assertNull(SymbolSnapshot.read(path, "cd".repeat(32)));
+    }
+
+    @Test
+    public void testSnapshotOfAnotherFormatVersionIsIgnored() throws Exception {
+        Path path = writeSnapshot();
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(4);
+            file.writeInt(1);
+        }
+        assertNull(SymbolSnapshot.read(path, CHECKSUM));
+    }
+
+    @Test
+    public void testCorruptRowsAreIgnored() throws Exception {
+        Path path = writeSnapshot();
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(file.length() - 3);
+            int value = file.read();
+            file.seek(file.length() - 3);
+            file.write(value ^ 0xFF);
+        }
+        assertNull(SymbolSnapshot.read(path, CHECKSUM));
+    }
+
+    @Test
+    public void testTruncatedSnapshotIsIgnored() throws Exception {
+        Path path = writeSnapshot();
+        long size = Files.size(path);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(size - 10);
+        }
+        assertNull(SymbolSnapshot.read(path, CHECKSUM));
+
+        // Cut inside the header
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(20);
+        }
+        assertNull(SymbolSnapshot.read(path, CHECKSUM));
+    }
+
+    @Test
+    public void testMissingSnapshotIsIgnored() throws Exception {
+        assertNull(SymbolSnapshot.read(tempDir.resolve("missing.snap"), CHECKSUM));
+    }
+
+    private Path writeSnapshot() throws Exception {
+        Path path = tempDir.resolve("symbols.snap");
+        StockSymbol symbol = new StockSymbol("TCS", "Tata Consultancy Services Limited", "EQ");
+        symbol.setIsinNumber("INE467B01029");
+        SymbolSnapshot.write(path, CHECKSUM, List.of(symbol, new StockSymbol("INFY", "Infosys Limited", "EQ")));
+        assertNotNull(SymbolSnapshot.read(path, CHECKSUM));
+        return path;
+    }
+}
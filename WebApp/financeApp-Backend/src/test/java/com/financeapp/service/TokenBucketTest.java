@@ -0,0 +1,159 @@
+package com.financeapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testBurstIsAvailableAtOnce() {
+        PriceFetchExecutor.TokenBucket bucket = new PriceFetchExecutor.TokenBucket(1.0, 5);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            bucket.acquire();
+        }
+        assertTrue(elapsedMillis(start) < 200, "Burst tokens should not wait");
+    }
+
+    @Test
+    public void testRefillsAtConfiguredRate() {
+        PriceFetchExecutor.TokenBucket bucket = new PriceFetchExecutor.TokenBucket(50.0, 1);
+        bucket.acquire();
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            bucket.acquire();
+        }
+        // Five tokens at 50 per second take 100ms
+        long elapsed = elapsedMillis(start);
+        assertTrue(elapsed >= 80, "Took only " + elapsed + "ms");
+        assertTrue(elapsed < 2000, "Took " + elapsed + "ms");
+    }
+
+    @Test
+    public void testInterruptedWaitFails() {
+        PriceFetchExecutor.TokenBucket bucket = new PriceFetchExecutor.TokenBucket(0.5, 1);
+        bucket.acquire();
+        Thread.currentThread().interrupt();
+        assertThrows(IllegalStateException.class, bucket::acquire);
+        assertTrue(Thread.interrupted(), "Interrupt flag should be restored");
+    }
+
+    @Test
+    public void testFetchIsChargedOneToken() {
+        PriceFetchExecutor executor = executor(2000);
+        // A single token and practically no refill: a second token would never arrive in time
+        executor.configureHost("single-token", 1, 0.001, 1);
+        try {
+            String result = executor.fetch("single-token", () -> {
+                executor.throttle("single-token");
+                return "ok";
+            });
+            assertEquals("ok", result);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNestedFetchRunsOnTheWorker() {
+        PriceFetchExecutor executor = executor(2000);
+        // One worker: a nested fetch queued behind its caller would never run before the deadline
+        executor.configureHost("one-worker", 1, 100.0, 10);
+        try {
+            String[] threads = executor.fetch("one-worker", () -> {
+                assertTrue(executor.isWorkerFor("one-worker"));
+                String inner = executor.fetch("one-worker", () -> Thread.currentThread().getName());
+                return new String[] { Thread.currentThread().getName(), inner };
+            });
+            assertNotNull(threads);
+            assertEquals(threads[0], threads[1]);
+            assertFalse(executor.isWorkerFor("one-worker"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMissedDeadlineInterruptsWorker() throws Exception {
+        PriceFetchExecutor executor = executor(100);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try {
+            String result = executor.fetch("slow-host", () -> {
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "late";
+            });
+            assertNull(result);
+            assertTrue(interrupted.await(2, TimeUnit.SECONDS), "Worker should be interrupted at the deadline");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeadlineCountsQueueWait() throws Exception {
+        PriceFetchExecutor executor = executor(200);
+        // One worker held by a background task: the fetch can only wait in the queue
+        executor.configureHost("busy-host", 1, 100.0, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.runAsync("busy-host", () -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            long start = System.nanoTime();
+            assertNull(executor.fetch("busy-host", () -> "queued"));
+            assertTrue(elapsedMillis(start) < 2000, "Queued fetch should miss its deadline, not wait for the worker");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testOpenCircuitTakesNoToken() {
+        PriceFetchExecutor executor = executor(2000);
+        // A single token and practically no refill: a fetch that took one would starve the next
+        executor.configureHost("broken-host", 1, 0.001, 1);
+        CircuitBreaker breaker = new CircuitBreaker("broken-host", 1, 60000);
+        breaker.recordFailure();
+        executor.registerCircuitBreaker("broken-host", breaker);
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertEquals("skipped", executor.fetch("broken-host", () -> {
+                    executor.throttle("broken-host");
+                    return "skipped";
+                }));
+            }
+            breaker.recordSuccess();
+            assertEquals("ok", executor.fetch("broken-host", () -> "ok"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static PriceFetchExecutor executor(long requestTimeoutMs) {
+        PriceFetchExecutor executor = new PriceFetchExecutor();
+        ReflectionTestUtils.setField(executor, "maxInFlight", 2);
+        ReflectionTestUtils.setField(executor, "maxQueued", 10);
+        ReflectionTestUtils.setField(executor, "requestsPerSecond", 100.0);
+        ReflectionTestUtils.setField(executor, "burst", 10);
+        ReflectionTestUtils.setField(executor, "requestTimeoutMs", requestTimeoutMs);
+        return executor;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
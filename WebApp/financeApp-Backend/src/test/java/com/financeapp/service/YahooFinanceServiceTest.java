@@ -0,0 +1,224 @@
+package com.financeapp.service;
+
+import com.financeapp.repository.InvestmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class YahooFinanceServiceTest {
+
+    private static final String SPARK_URL = "https://query1.finance.yahoo.com/v8/finance/spark";
+    private static final String YAHOO_HOST = "query1.finance.yahoo.com";
+    private static final String CHART_BODY = "{\"chart\":{\"result\":[{\"meta\":{\"regularMarketPrice\":3512.45,"
+            + "\"previousClose\":3498.2}}],\"error\":null}}";
+
+    private StubRestTemplate restTemplate;
+    private PriceFetchExecutor priceFetchExecutor;
+    private YahooFinanceService service;
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @BeforeEach
+    public void setUp() {
+        restTemplate = new StubRestTemplate();
+        priceFetchExecutor = new PriceFetchExecutor();
+        ReflectionTestUtils.setField(priceFetchExecutor, "maxInFlight", 4);
+        ReflectionTestUtils.setField(priceFetchExecutor, "maxQueued", 50);
+        ReflectionTestUtils.setField(priceFetchExecutor, "requestsPerSecond", 1000.0);
+        ReflectionTestUtils.setField(priceFetchExecutor, "burst", 100);
+        ReflectionTestUtils.setField(priceFetchExecutor, "requestTimeoutMs", 5000L);
+
+        MarketCalendarService marketCalendarService = mock(MarketCalendarService.class);
+        when(marketCalendarService.isMarketOpen()).thenReturn(true);
+
+        service = new YahooFinanceService();
+        ReflectionTestUtils.setField(service, "stockSymbolLoaderService", mock(StockSymbolLoaderService.class));
+        ReflectionTestUtils.setField(service, "priceFetchExecutor", priceFetchExecutor);
+        ReflectionTestUtils.setField(service, "priceHistoryService", mock(PriceHistoryService.class));
+        ReflectionTestUtils.setField(service, "marketCalendarService", marketCalendarService);
+        ReflectionTestUtils.setField(service, "providerHealthService", mock(ProviderHealthService.class));
+        ReflectionTestUtils.setField(service, "investmentRepository", mock(InvestmentRepository.class));
+        ReflectionTestUtils.setField(service, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(service, "yahooFinanceBaseUrl", "https://" + YAHOO_HOST + "/v8/finance/chart");
+        ReflectionTestUtils.setField(service, "yahooSparkUrl", SPARK_URL);
+        ReflectionTestUtils.setField(service, "yahooSearchUrl", "https://" + YAHOO_HOST + "/v1/finance/search");
+        ReflectionTestUtils.setField(service, "yahooFinanceEnabled", true);
+        ReflectionTestUtils.setField(service, "batchSize", 20);
+        ReflectionTestUtils.setField(service, "marketOpenTtlSeconds", 60L);
+        ReflectionTestUtils.setField(service, "marketClosedTtlSeconds", 1800L);
+        ReflectionTestUtils.setField(service, "coalescedWaitMs", 5000L);
+        ReflectionTestUtils.setField(service, "breakerFailureThreshold", 5);
+        ReflectionTestUtils.setField(service, "breakerOpenDurationMs", 60000L);
+        ReflectionTestUtils.setField(service, "resolutionInitialBackoffMs", 900000L);
+        ReflectionTestUtils.setField(service, "resolutionMaxBackoffMs", 86400000L);
+        ReflectionTestUtils.setField(service, "emptyBackfillBackoffMs", 21600000L);
+        ReflectionTestUtils.setField(service, "emptyBackfillMaxBackoffMs", 604800000L);
+        service.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        restTemplate.release.countDown();
+        callers.shutdownNow();
+        priceFetchExecutor.shutdown();
+    }
+
+    @Test
+    public void testConcurrentMissesMakeOneUpstreamCall() throws Exception {
+        int callerCount = 5;
+        List<Future<BigDecimal>> prices = new ArrayList<>();
+        for (int i = 0; i < callerCount; i++) {
+            prices.add(callers.submit(() -> service.getCurrentPrice("TCS")));
+        }
+
+        // Hold the first fetch open until every other caller has joined it
+        awaitTrue(() -> ((Long) service.getQuoteCacheStats().get("coalesced")) == callerCount - 1);
+        restTemplate.release.countDown();
+
+        for (Future<BigDecimal> price : prices) {
+            assertEquals(0, new BigDecimal("3512.45").compareTo(price.get(5, TimeUnit.SECONDS)));
+        }
+        assertEquals(1, restTemplate.calls.get());
+        assertEquals(0, service.getQuoteCacheStats().get("inFlightFetches"));
+    }
+
+    @Test
+    public void testExpiredQuoteIsServedStaleWhileOneRevalidationRuns() throws Exception {
+        cacheQuote("TCS.NS", new BigDecimal("3400"), System.currentTimeMillis() - 120000);
+
+        for (int i = 0; i < 3; i++) {
+            YahooFinanceService.Quote quote = service.getQuote("TCS");
+            assertTrue(quote.isStale());
+            assertEquals(0, new BigDecimal("3400").compareTo(quote.getPrice()));
+        }
+        awaitTrue(() -> restTemplate.calls.get() == 1);
+        assertEquals(1, revalidatingQuotes().size());
+
+        restTemplate.release.countDown();
+        awaitTrue(() -> revalidatingQuotes().isEmpty());
+        assertEquals(3L, service.getQuoteCacheStats().get("staleServed"));
+        YahooFinanceService.Quote quote = service.getQuote("TCS");
+        assertFalse(quote.isStale());
+        assertEquals(0, new BigDecimal("3512.45").compareTo(quote.getPrice()));
+        assertEquals(1, restTemplate.calls.get());
+    }
+
+    @Test
+    public void testFreshQuoteIsServedFromTheCache() {
+        restTemplate.release.countDown();
+        assertNotNull(service.getQuote("TCS"));
+        assertNotNull(service.getQuote("TCS"));
+        assertEquals(1, restTemplate.calls.get());
+        assertEquals(1L, service.getQuoteCacheStats().get("hits"));
+    }
+
+    @Test
+    public void testYahooWorkerDoesNotWaitForAnotherCallersFetch() throws Exception {
+        cacheQuote("TCS.NS", new BigDecimal("3400"), System.currentTimeMillis() - 120000);
+        Future<Map<String, BigDecimal>> owner = callers.submit(() -> service.getCurrentPrices(List.of("TCS")));
+        awaitTrue(() -> restTemplate.calls.get() == 1);
+
+        // The owner's request is still held open; a worker joining it must not wait for it
+        long start = System.nanoTime();
+        YahooFinanceService.Quote quote = priceFetchExecutor.fetch(YAHOO_HOST,
+                () -> service.getCurrentQuotes(List.of("TCS")).get("TCS"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertNotNull(quote);
+        assertTrue(quote.isStale());
+        assertEquals(0, new BigDecimal("3400").compareTo(quote.getPrice()));
+        assertTrue(elapsedMs < 2000, "Worker waited " + elapsedMs + "ms");
+        assertEquals(1, restTemplate.calls.get());
+
+        restTemplate.release.countDown();
+        assertEquals(0, new BigDecimal("3512.45").compareTo(owner.get(5, TimeUnit.SECONDS).get("TCS")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void cacheQuote(String yahooSymbol, BigDecimal price, long fetchedAtMillis) {
+        Map<String, YahooFinanceService.Quote> quoteCache =
+                (Map<String, YahooFinanceService.Quote>) ReflectionTestUtils.getField(service, "quoteCache");
+        quoteCache.put(yahooSymbol, new YahooFinanceService.Quote(price, null, fetchedAtMillis, false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> revalidatingQuotes() {
+        return (Set<String>) ReflectionTestUtils.getField(service, "revalidatingQuotes");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 5s");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Answers every GET with a chart response once {@code release} is counted down, counting calls
+     */
+    private static class StubRestTemplate extends RestTemplate {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public <T> T execute(URI url, HttpMethod method, RequestCallback requestCallback,
+                             ResponseExtractor<T> responseExtractor) {
+            calls.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+                return responseExtractor.extractData(
+                        new MockClientHttpResponse(CHART_BODY.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Test
+    public void testSparkUriEncodesSymbols() {
+        URI uri = YahooFinanceService.sparkUri(SPARK_URL, List.of("M&M.NS", "BAJAJ-AUTO.NS", "^NSEI", "USDINR=X"));
+
+        assertEquals("query1.finance.yahoo.com", uri.getHost());
+        assertEquals("/v8/finance/spark", uri.getPath());
+        assertEquals("symbols=M%26M.NS%2CBAJAJ-AUTO.NS%2C%5ENSEI%2CUSDINR%3DX&interval=1d&range=1d", uri.getRawQuery());
+        assertEquals("symbols=M&M.NS,BAJAJ-AUTO.NS,^NSEI,USDINR=X&interval=1d&range=1d", uri.getQuery());
+    }
+
+    @Test
+    public void testSparkUriKeepsEverySymbolInOneParameter() {
+        URI uri = YahooFinanceService.sparkUri(SPARK_URL, List.of("TCS.NS", "M&M.NS", "INFY.NS"));
+
+        String[] params = uri.getRawQuery().split("&");
+        assertEquals(3, params.length);
+        assertEquals("symbols=TCS.NS%2CM%26M.NS%2CINFY.NS", params[0]);
+    }
+}
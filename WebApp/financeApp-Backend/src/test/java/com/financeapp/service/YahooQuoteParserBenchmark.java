@@ -0,0 +1,121 @@
+package com.financeapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse time and allocation per quote: the old path (range=1mo body read into a String,
+ * then readTree) versus the new one (range=1d body parsed from the stream with JsonParser).
+ * Payloads are synthetic but shaped like real chart responses.
+ * Not part of the test run; run main() to get results with the GC profiler
+ * (gc.alloc.rate.norm is bytes allocated per quote).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class YahooQuoteParserBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] monthPayload;
+    private byte[] dayPayload;
+
+    @Setup
+    public void createPayloads() {
+        monthPayload = chartResponse("1mo", 22).getBytes(StandardCharsets.UTF_8);
+        dayPayload = chartResponse("1d", 1).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public BigDecimal oldPathMonthRangeReadTree() throws IOException {
+        String body = new String(monthPayload, StandardCharsets.UTF_8);
+        JsonNode meta = objectMapper.readTree(body).get("chart").get("result").get(0).get("meta");
+        return BigDecimal.valueOf(meta.get("regularMarketPrice").asDouble());
+    }
+
+    @Benchmark
+    public BigDecimal streamingMonthRange() throws IOException {
+        return YahooQuoteParser.readRegularMarketPrice(new ByteArrayInputStream(monthPayload));
+    }
+
+    @Benchmark
+    public BigDecimal newPathDayRangeStreaming() throws IOException {
+        return YahooQuoteParser.readRegularMarketPrice(new ByteArrayInputStream(dayPayload));
+    }
+
+    private static String chartResponse(String range, int points) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"chart\":{\"result\":[{\"meta\":{")
+            .append("\"currency\":\"INR\",\"symbol\":\"RELIANCE.NS\",\"exchangeName\":\"NSI\",")
+            .append("\"fullExchangeName\":\"NSE\",\"instrumentType\":\"EQUITY\",\"firstTradeDate\":820467900,")
+            .append("\"regularMarketTime\":1726221599,\"hasPrePostMarketData\":false,\"gmtoffset\":19800,")
+            .append("\"timezone\":\"IST\",\"exchangeTimezoneName\":\"Asia/Kolkata\",")
+            .append("\"regularMarketPrice\":2956.45,\"fiftyTwoWeekHigh\":3217.9,\"fiftyTwoWeekLow\":2220.3,")
+            .append("\"regularMarketDayHigh\":2968.0,\"regularMarketDayLow\":2931.1,\"regularMarketVolume\":5873412,")
+            .append("\"chartPreviousClose\":2987.6,\"priceHint\":2,")
+            .append("\"currentTradingPeriod\":{")
+            .append("\"pre\":{\"timezone\":\"IST\",\"start\":1726198200,\"end\":1726198200,\"gmtoffset\":19800},")
+            .append("\"regular\":{\"timezone\":\"IST\",\"start\":1726198200,\"end\":1726220700,\"gmtoffset\":19800},")
+            .append("\"post\":{\"timezone\":\"IST\",\"start\":1726220700,\"end\":1726220700,\"gmtoffset\":19800}},")
+            .append("\"dataGranularity\":\"1d\",\"range\":\"").append(range).append("\",")
+            .append("\"validRanges\":[\"1d\",\"5d\",\"1mo\",\"3mo\",\"6mo\",\"1y\",\"2y\",\"5y\",\"10y\",\"ytd\",\"max\"]},");
+
+        json.append("\"timestamp\":");
+        appendSeries(json, points, i -> String.valueOf(1723434300L + i * 86400L));
+        json.append(",\"indicators\":{\"quote\":[{");
+        json.append("\"open\":");
+        appendSeries(json, points, i -> String.valueOf(2900.25 + i * 3.17));
+        json.append(",\"high\":");
+        appendSeries(json, points, i -> String.valueOf(2950.5 + i * 3.09));
+        json.append(",\"low\":");
+        appendSeries(json, points, i -> String.valueOf(2880.75 + i * 2.93));
+        json.append(",\"close\":");
+        appendSeries(json, points, i -> String.valueOf(2920.4 + i * 3.01));
+        json.append(",\"volume\":");
+        appendSeries(json, points, i -> String.valueOf(5000000 + i * 12345));
+        json.append("}],\"adjclose\":[{\"adjclose\":");
+        appendSeries(json, points, i -> String.valueOf(2920.4 + i * 3.01));
+        json.append("}]}}],\"error\":null}}");
+        return json.toString();
+    }
+
+    private static void appendSeries(StringBuilder json, int points, java.util.function.IntFunction<String> value) {
+        json.append('[');
+        for (int i = 0; i < points; i++) {
+            if (i > 0) json.append(',');
+            json.append(value.apply(i));
+        }
+        json.append(']');
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(YahooQuoteParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.financeapp.service;
+
+import com.financeapp.service.YahooFinanceService.Quote;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YahooQuoteParserTest {
+
+    @Test
+    public void testReadsPriceAndPreviousClose() throws IOException {
+        Quote quote = YahooQuoteParser.readQuote(body("{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"INR\","
+                + "\"symbol\":\"TCS.NS\",\"regularMarketPrice\":3512.45,\"chartPreviousClose\":3490.1,"
+                + "\"previousClose\":3498.2}}],\"error\":null}}"));
+        assertNotNull(quote);
+        assertEquals(0, new BigDecimal("3512.45").compareTo(quote.getPrice()));
+        assertEquals(0, new BigDecimal("3498.2").compareTo(quote.getPreviousClose()));
+        assertFalse(quote.isStale());
+    }
+
+    @Test
+    public void testFallsBackToChartPreviousClose() throws IOException {
+        Quote quote = YahooQuoteParser.readQuote(body("{\"chart\":{\"result\":[{\"meta\":{"
+                + "\"regularMarketPrice\":101.5,\"chartPreviousClose\":100}}]}}"));
+        assertEquals(0, new BigDecimal("100").compareTo(quote.getPreviousClose()));
+    }
+
+    @Test
+    public void testMissingPreviousCloseLeavesItNull() throws IOException {
+        Quote quote = YahooQuoteParser.readQuote(body("{\"chart\":{\"result\":[{\"meta\":{\"regularMarketPrice\":42}}]}}"));
+        assertNotNull(quote);
+        assertNull(quote.getPreviousClose());
+    }
+
+    @Test
+    public void testSkipsNestedValuesBeforeTheFields() throws IOException {
+        Quote quote = YahooQuoteParser.readQuote(body("{\"spark\":[1,2,{\"meta\":{}}],\"chart\":{\"error\":{\"code\":null},"
+                + "\"result\":[{\"timestamp\":[1,2],\"meta\":{\"currentTradingPeriod\":{\"regular\":{\"regularMarketPrice\":1}},"
+                + "\"validRanges\":[\"1d\",\"5d\"],\"regularMarketPrice\":250.75,\"previousClose\":248}}]}}"));
+        assertEquals(0, new BigDecimal("250.75").compareTo(quote.getPrice()));
+        assertEquals(0, new BigDecimal("248").compareTo(quote.getPreviousClose()));
+    }
+
+    @Test
+    public void testStopsBeforeTheOhlcArrays() throws IOException {
+        // Everything after meta is cut off; it must never be read
+        Quote quote = YahooQuoteParser.readQuote(body("{\"chart\":{\"result\":[{\"meta\":{\"regularMarketPrice\":10,"
+                + "\"previousClose\":9},\"indicators\":{\"quote\":[{\"close\":[1.0,2.0,"));
+        assertEquals(0, new BigDecimal("10").compareTo(quote.getPrice()));
+    }
+
+    @Test
+    public void testErrorResponseHasNoQuote() throws IOException {
+        assertNull(YahooQuoteParser.readQuote(body("{\"chart\":{\"result\":null,\"error\":{\"code\":\"Not Found\","
+                + "\"description\":\"No data found, symbol may be delisted\"}}}")));
+        assertNull(YahooQuoteParser.readQuote(body("{\"chart\":{\"result\":[]}}")));
+    }
+
+    @Test
+    public void testMetaWithoutPriceHasNoQuote() throws IOException {
+        assertNull(YahooQuoteParser.readQuote(body("{\"chart\":{\"result\":[{\"meta\":{\"previousClose\":9,"
+                + "\"regularMarketPrice\":null}}]}}")));
+        assertNull(YahooQuoteParser.readQuote(body("[]")));
+        assertNull(YahooQuoteParser.readQuote(body("")));
+    }
+
+    @Test
+    public void testReadRegularMarketPrice() throws IOException {
+        assertEquals(0, new BigDecimal("77.7").compareTo(YahooQuoteParser.readRegularMarketPrice(
+                body("{\"chart\":{\"result\":[{\"meta\":{\"regularMarketPrice\":77.7}}]}}"))));
+        assertNull(YahooQuoteParser.readRegularMarketPrice(body("{\"chart\":{\"result\":null}}")));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}